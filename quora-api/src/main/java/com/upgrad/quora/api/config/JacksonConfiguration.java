@@ -0,0 +1,21 @@
+package com.upgrad.quora.api.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.module.afterburner.AfterburnerModule;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers Afterburner with the ObjectMapper of Spring Boot; it replaces the reflective property access of the bean
+ * serializers of the models by generated bytecode.
+ */
+@Configuration
+public class JacksonConfiguration {
+
+    @Bean
+    @ConditionalOnProperty(name = "quora.jackson.afterburner.enabled", matchIfMissing = true)
+    public Module afterburnerModule() {
+        return new AfterburnerModule();
+    }
+}
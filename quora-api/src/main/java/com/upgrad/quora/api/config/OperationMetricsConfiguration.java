@@ -0,0 +1,44 @@
+package com.upgrad.quora.api.config;
+
+import com.upgrad.quora.api.metrics.OperationMetrics;
+import com.upgrad.quora.api.metrics.OperationMetricsEndpoint;
+import com.upgrad.quora.api.metrics.OperationMetricsInterceptor;
+import com.upgrad.quora.api.metrics.OperationMetricsWebEndpoint;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Records the latency and outcome of the operations of the specs, unless "quora.metrics.operations.enabled" is false,
+ * and publishes them through the "operations" actuator endpoint over JMX, and read-only through the "operationstats"
+ * endpoint over HTTP.
+ */
+@Configuration
+public class OperationMetricsConfiguration implements WebMvcConfigurer {
+
+    @Autowired
+    private OperationMetrics operationMetrics;
+
+    @Value("${quora.metrics.operations.enabled:true}")
+    private boolean enabled;
+
+    @Override
+    public void addInterceptors(final InterceptorRegistry registry) {
+        if (enabled) {
+            registry.addInterceptor(new OperationMetricsInterceptor(operationMetrics));
+        }
+    }
+
+    @Bean
+    public OperationMetricsEndpoint operationMetricsEndpoint() {
+        return new OperationMetricsEndpoint(operationMetrics);
+    }
+
+    @Bean
+    public OperationMetricsWebEndpoint operationMetricsWebEndpoint() {
+        return new OperationMetricsWebEndpoint(operationMetricsEndpoint());
+    }
+}
@@ -0,0 +1,196 @@
+package com.upgrad.quora.api.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.upgrad.quora.api.model.AnswerBatchItemResponse;
+import com.upgrad.quora.api.model.AnswerDetailsResponse;
+import com.upgrad.quora.api.model.AnswerRequest;
+import com.upgrad.quora.api.model.AnswerResponse;
+import com.upgrad.quora.api.model.AnswersPageResponse;
+import com.upgrad.quora.api.model.ErrorResponse;
+import com.upgrad.quora.service.business.AnswerBusinessService;
+import com.upgrad.quora.service.business.AnswersOfQuestion;
+import com.upgrad.quora.service.business.BatchItemResult;
+import com.upgrad.quora.service.business.KeysetPage;
+import com.upgrad.quora.service.entity.AnswerEntity;
+import com.upgrad.quora.service.entity.QuestionEntity;
+import com.upgrad.quora.service.exception.AuthorizationFailedException;
+import com.upgrad.quora.service.exception.InvalidQuestionException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/")
+public class AnswerController {
+
+    @Autowired
+    private AnswerBusinessService answerBusinessService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * This method creates the answers of a batch request to a question, in one transaction. Each item of the response
+     * holds the created answer or the error which prevented it.
+     *
+     * @param questionId     - uuid of the question
+     * @param authorization  - access token of the signed in user
+     * @param answerRequests - content of each answer
+     * @return - ResponseEntity with the AnswerBatchItemResponse of each answer, in the order of the requests
+     * @throws AuthorizationFailedException - if the user has not signed in or is signed out
+     * @throws InvalidQuestionException     - if the question does not exist
+     */
+    @RequestMapping(method = RequestMethod.POST, path = "/question/{questionId}/answer/batch", consumes = MediaType.APPLICATION_JSON_UTF8_VALUE, produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    public ResponseEntity<List<AnswerBatchItemResponse>> createAnswers(@PathVariable("questionId") final String questionId,
+                                                                       @RequestHeader("authorization") final String authorization,
+                                                                       @RequestBody final List<AnswerRequest> answerRequests)
+            throws AuthorizationFailedException, InvalidQuestionException {
+        final List<String> answers = new ArrayList<>(answerRequests.size());
+        for (final AnswerRequest answerRequest : answerRequests) {
+            answers.add(answerRequest.getAnswer());
+        }
+        final List<BatchItemResult<AnswerEntity>> results = answerBusinessService.createAnswers(questionId, authorization, answers);
+        final List<AnswerBatchItemResponse> responses = new ArrayList<>(results.size());
+        for (final BatchItemResult<AnswerEntity> result : results) {
+            if (result.isSuccess()) {
+                responses.add(new AnswerBatchItemResponse().answer(
+                        new AnswerResponse().id(result.getItem().getUuid()).status("ANSWER CREATED")));
+            } else {
+                responses.add(new AnswerBatchItemResponse().error(
+                        new ErrorResponse().code(result.getCode()).message(result.getErrorMessage())));
+            }
+        }
+        return new ResponseEntity<List<AnswerBatchItemResponse>>(responses, HttpStatus.OK);
+    }
+
+    /**
+     * This method returns the first page of the answers to several questions, newest first, grouped by the uuid of their
+     * question with the cursor of the following page of each question. Questions which do not exist are left out.
+     *
+     * @param questionIds   - uuids of the questions
+     * @param authorization - access token of the signed in user
+     * @param limit         - page size of each question
+     * @param webRequest    - request carrying the If-None-Match header
+     * @return - ResponseEntity with the AnswersPageResponse of each question, null if not modified
+     * @throws AuthorizationFailedException - if the user has not signed in or is signed out
+     */
+    @RequestMapping(method = RequestMethod.GET, path = "/answer/all", produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    public ResponseEntity<Map<String, AnswersPageResponse>> getAllAnswersToQuestions(@RequestParam("questionIds") final List<String> questionIds,
+                                                                                    @RequestHeader("authorization") final String authorization,
+                                                                                    @RequestParam(value = "limit", required = false) final Integer limit,
+                                                                                    final WebRequest webRequest)
+            throws AuthorizationFailedException {
+        answerBusinessService.authorizeReader(authorization);
+        final String tag = answerBusinessService.getAllAnswersToQuestionsTag(questionIds);
+        if (ETags.notModified(webRequest, tag)) {
+            return null;
+        }
+        final Map<QuestionEntity, KeysetPage<AnswerEntity>> answersOfQuestions = answerBusinessService.getAllAnswersToQuestions(questionIds, limit);
+        final Map<String, AnswersPageResponse> answersPageResponses = new LinkedHashMap<>();
+        for (final Map.Entry<QuestionEntity, KeysetPage<AnswerEntity>> answersOfQuestion : answersOfQuestions.entrySet()) {
+            final String questionContent = answersOfQuestion.getKey().getContent();
+            final KeysetPage<AnswerEntity> page = answersOfQuestion.getValue();
+            final List<AnswerDetailsResponse> responses = new ArrayList<>(page.getItems().size());
+            for (final AnswerEntity answerEntity : page.getItems()) {
+                responses.add(toAnswerDetailsResponse(answerEntity, questionContent));
+            }
+            answersPageResponses.put(answersOfQuestion.getKey().getUuid(), new AnswersPageResponse().answers(responses)
+                    .nextCursor(page.getNextCursor() == null ? null : page.getNextCursor().encode()));
+        }
+        return new ResponseEntity<Map<String, AnswersPageResponse>>(answersPageResponses, ETags.headers(tag), HttpStatus.OK);
+    }
+
+    /**
+     * This method returns one page of the answers to a question, newest first. The cursor of the following page is
+     * returned in the "next-cursor" header, which is absent on the last page. A request whose If-None-Match header
+     * carries the current ETag of the answers gets a 304 without reading them.
+     *
+     * @param questionId    - uuid of the question
+     * @param authorization - access token of the signed in user
+     * @param limit         - page size
+     * @param cursor        - cursor handed out with the previous page
+     * @param webRequest    - request carrying the If-None-Match header
+     * @return - ResponseEntity with the list of AnswerDetailsResponse, null if not modified
+     * @throws AuthorizationFailedException - if the user has not signed in or is signed out
+     * @throws InvalidQuestionException     - if the question does not exist
+     */
+    @RequestMapping(method = RequestMethod.GET, path = "/answer/all/{questionId}", produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    public ResponseEntity<List<AnswerDetailsResponse>> getAllAnswersToQuestion(@PathVariable("questionId") final String questionId,
+                                                                               @RequestHeader("authorization") final String authorization,
+                                                                               @RequestParam(value = "limit", required = false) final Integer limit,
+                                                                               @RequestParam(value = "cursor", required = false) final String cursor,
+                                                                               final WebRequest webRequest)
+            throws AuthorizationFailedException, InvalidQuestionException {
+        answerBusinessService.authorizeReader(authorization);
+        final String tag = answerBusinessService.getAllAnswersToQuestionTag(questionId);
+        if (ETags.notModified(webRequest, tag)) {
+            return null;
+        }
+        final AnswersOfQuestion answersOfQuestion = answerBusinessService.getAllAnswersToQuestion(questionId, cursor, limit);
+        final String questionContent = answersOfQuestion.getQuestion().getContent();
+        final KeysetPage<AnswerEntity> page = answersOfQuestion.getAnswers();
+        final List<AnswerDetailsResponse> answerDetailsResponses = new ArrayList<>(page.getItems().size());
+        for (final AnswerEntity answerEntity : page.getItems()) {
+            answerDetailsResponses.add(toAnswerDetailsResponse(answerEntity, questionContent));
+        }
+        final HttpHeaders headers = ETags.headers(tag);
+        if (page.getNextCursor() != null) {
+            headers.add(QuestionController.NEXT_CURSOR_HEADER, page.getNextCursor().encode());
+        }
+        return new ResponseEntity<List<AnswerDetailsResponse>>(answerDetailsResponses, headers, HttpStatus.OK);
+    }
+
+    /**
+     * This method streams all the answers to a question, newest first, reading them page by page so that the memory used
+     * does not grow with the number of answers. The user and the question are checked before the response is committed.
+     *
+     * @param questionId    - uuid of the question
+     * @param authorization - access token of the signed in user
+     * @param limit         - maximum number of answers to stream, all of them if absent
+     * @param cursor        - cursor after which the answers are streamed
+     * @param webRequest    - request carrying the If-None-Match header
+     * @return - ResponseEntity streaming the array of AnswerDetailsResponse, null if not modified
+     * @throws AuthorizationFailedException - if the user has not signed in or is signed out
+     * @throws InvalidQuestionException     - if the question does not exist
+     */
+    @RequestMapping(method = RequestMethod.GET, path = "/answer/all/{questionId}", params = "stream=true", produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllAnswersToQuestion(@PathVariable("questionId") final String questionId,
+                                                                            @RequestHeader("authorization") final String authorization,
+                                                                            @RequestParam(value = "limit", required = false) final Integer limit,
+                                                                            @RequestParam(value = "cursor", required = false) final String cursor,
+                                                                            final WebRequest webRequest)
+            throws AuthorizationFailedException, InvalidQuestionException {
+        answerBusinessService.authorizeReader(authorization);
+        final String tag = answerBusinessService.getAllAnswersToQuestionTag(questionId);
+        if (ETags.notModified(webRequest, tag)) {
+            return null;
+        }
+        final int pageSize = answerBusinessService.pageSize(null);
+        final AnswersOfQuestion answersOfQuestion = answerBusinessService.getAllAnswersToQuestion(questionId, cursor, pageSize);
+        final QuestionEntity questionEntity = answersOfQuestion.getQuestion();
+        final StreamingResponseBody body = KeysetPageStream.of(objectMapper, answersOfQuestion.getAnswers(), limit,
+                nextCursor -> answerBusinessService.getAnswersPage(questionEntity, nextCursor, pageSize),
+                answerEntity -> toAnswerDetailsResponse(answerEntity, questionEntity.getContent()));
+        return new ResponseEntity<StreamingResponseBody>(body, ETags.headers(tag), HttpStatus.OK);
+    }
+
+    private AnswerDetailsResponse toAnswerDetailsResponse(final AnswerEntity answerEntity, final String questionContent) {
+        return new AnswerDetailsResponse().id(answerEntity.getUuid()).questionContent(questionContent).answerContent(answerEntity.getAnswer());
+    }
+}
@@ -0,0 +1,52 @@
+package com.upgrad.quora.api.controller;
+
+import com.upgrad.quora.api.model.UserDetailsResponse;
+import com.upgrad.quora.service.business.CommonBusinessService;
+import com.upgrad.quora.service.entity.UserEntity;
+import com.upgrad.quora.service.exception.AuthorizationFailedException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/")
+public class CommonController {
+
+    @Autowired
+    private CommonBusinessService commonBusinessService;
+
+    /**
+     * This method returns the details of several users, by user uuid. Users which do not exist are left out.
+     *
+     * @param authorization - access token of the signed in user
+     * @param userIds       - uuids of the users
+     * @return - ResponseEntity with the UserDetailsResponse of each user
+     * @throws AuthorizationFailedException - if the user has not signed in or is signed out
+     */
+    @RequestMapping(method = RequestMethod.POST, path = "/userprofile/batch", consumes = MediaType.APPLICATION_JSON_UTF8_VALUE, produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    public ResponseEntity<Map<String, UserDetailsResponse>> getUsersDetails(@RequestHeader("authorization") final String authorization,
+                                                                            @RequestBody final List<String> userIds)
+            throws AuthorizationFailedException {
+        final Map<String, UserDetailsResponse> userDetailsResponses = new LinkedHashMap<>();
+        for (final Map.Entry<String, UserEntity> user : commonBusinessService.getUsers(userIds, authorization).entrySet()) {
+            userDetailsResponses.put(user.getKey(), toUserDetailsResponse(user.getValue()));
+        }
+        return new ResponseEntity<Map<String, UserDetailsResponse>>(userDetailsResponses, HttpStatus.OK);
+    }
+
+    private UserDetailsResponse toUserDetailsResponse(final UserEntity userEntity) {
+        return new UserDetailsResponse().firstName(userEntity.getFirstName()).lastName(userEntity.getLastName())
+                .userName(userEntity.getUserName()).emailAddress(userEntity.getEmail()).country(userEntity.getCountry())
+                .aboutMe(userEntity.getAboutMe()).dob(userEntity.getDob()).contactNumber(userEntity.getContactNumber());
+    }
+}
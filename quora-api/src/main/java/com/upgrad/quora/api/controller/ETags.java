@@ -0,0 +1,54 @@
+package com.upgrad.quora.api.controller;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * Conditional GETs of the read endpoints. The ETag is written to a 304, or with {@link #headers(String)} to a successful
+ * response, but never to the error response of a read which fails once the tag has been compared, as
+ * {@link WebRequest#checkNotModified(String)} alone would do.
+ */
+final class ETags {
+
+    private ETags() {
+    }
+
+    /**
+     * @param webRequest - request carrying the If-None-Match header
+     * @param tag        - current ETag of the resource, null when ETags are disabled
+     * @return - true if the request matches the tag, the response being then a 304
+     */
+    static boolean notModified(final WebRequest webRequest, final String tag) {
+        if (tag == null) {
+            return false;
+        }
+        final String[] ifNoneMatch = webRequest.getHeaderValues(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (final String header : ifNoneMatch) {
+            for (String candidate : header.split(",")) {
+                candidate = candidate.trim();
+                if (candidate.startsWith("W/")) {
+                    candidate = candidate.substring(2);
+                }
+                if (candidate.equals("*") || candidate.equals(tag)) {
+                    return webRequest.checkNotModified(tag);
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param tag - current ETag of the resource, null when ETags are disabled
+     * @return - headers of the successful response, with the ETag if any
+     */
+    static HttpHeaders headers(final String tag) {
+        final HttpHeaders headers = new HttpHeaders();
+        if (tag != null) {
+            headers.setETag(tag);
+        }
+        return headers;
+    }
+}
@@ -0,0 +1,52 @@
+package com.upgrad.quora.api.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.upgrad.quora.service.business.KeysetPage;
+import com.upgrad.quora.service.business.PageCursor;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.function.Function;
+
+/**
+ * Streams a keyset paginated list as one JSON array, reading it page by page so that the memory used does not grow
+ * with the size of the list. Each page is flushed to the client before the following one is read.
+ */
+final class KeysetPageStream {
+
+    private KeysetPageStream() {
+    }
+
+    /**
+     * @param objectMapper - mapper writing the responses
+     * @param firstPage    - first page, read before the response is committed so that its errors are still reported
+     * @param limit        - maximum number of items to stream, all of them if null
+     * @param nextPage     - reads the page following a cursor
+     * @param toResponse   - response model of an item
+     * @return - body streaming the array of responses
+     */
+    static <T> StreamingResponseBody of(final ObjectMapper objectMapper, final KeysetPage<T> firstPage, final Integer limit,
+                                        final Function<PageCursor, KeysetPage<T>> nextPage, final Function<T, ?> toResponse) {
+        return outputStream -> {
+            final JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream);
+            generator.writeStartArray();
+            int remaining = limit == null ? Integer.MAX_VALUE : limit;
+            KeysetPage<T> page = firstPage;
+            while (true) {
+                for (final T item : page.getItems()) {
+                    if (remaining-- <= 0) {
+                        break;
+                    }
+                    generator.writeObject(toResponse.apply(item));
+                }
+                generator.flush();
+                if (remaining <= 0 || page.getNextCursor() == null) {
+                    break;
+                }
+                page = nextPage.apply(page.getNextCursor());
+            }
+            generator.writeEndArray();
+            generator.flush();
+        };
+    }
+}
@@ -0,0 +1,194 @@
+package com.upgrad.quora.api.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.upgrad.quora.api.model.ErrorResponse;
+import com.upgrad.quora.api.model.QuestionBatchItemResponse;
+import com.upgrad.quora.api.model.QuestionDetailsResponse;
+import com.upgrad.quora.api.model.QuestionRequest;
+import com.upgrad.quora.api.model.QuestionResponse;
+import com.upgrad.quora.service.business.BatchItemResult;
+import com.upgrad.quora.service.business.KeysetPage;
+import com.upgrad.quora.service.business.QuestionBusinessService;
+import com.upgrad.quora.service.business.QuestionFeedCache;
+import com.upgrad.quora.service.common.GenericErrorCode;
+import com.upgrad.quora.service.common.UnexpectedException;
+import com.upgrad.quora.service.entity.QuestionEntity;
+import com.upgrad.quora.service.exception.AuthorizationFailedException;
+import com.upgrad.quora.service.exception.InvalidQuestionException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@RestController
+@RequestMapping("/")
+public class QuestionController {
+
+    static final String NEXT_CURSOR_HEADER = "next-cursor";
+
+    @Autowired
+    private QuestionBusinessService questionBusinessService;
+
+    @Autowired
+    private QuestionFeedCache questionFeedCache;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * This method creates a question on behalf of the signed in user.
+     *
+     * @param authorization   - access token of the signed in user
+     * @param questionRequest - content of the question
+     * @return - ResponseEntity with the QuestionResponse of the created question
+     * @throws AuthorizationFailedException - if the user has not signed in or is signed out
+     * @throws InvalidQuestionException     - if the content of the question is empty or too long
+     */
+    @RequestMapping(method = RequestMethod.POST, path = "/question/create", consumes = MediaType.APPLICATION_JSON_UTF8_VALUE, produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    public ResponseEntity<QuestionResponse> createQuestion(@RequestHeader("authorization") final String authorization,
+                                                           @RequestBody final QuestionRequest questionRequest)
+            throws AuthorizationFailedException, InvalidQuestionException {
+        final QuestionEntity questionEntity = questionBusinessService.createQuestion(authorization, questionRequest.getContent());
+        final QuestionResponse questionResponse = new QuestionResponse().id(questionEntity.getUuid()).status("QUESTION CREATED");
+        return new ResponseEntity<QuestionResponse>(questionResponse, HttpStatus.CREATED);
+    }
+
+    /**
+     * This method creates the questions of a batch request. The user is authorized once and the questions are inserted
+     * in batches; each item of the response holds the created question or the error which prevented it.
+     *
+     * @param authorization    - access token of the signed in user
+     * @param questionRequests - content of each question
+     * @return - ResponseEntity with the QuestionBatchItemResponse of each question, in the order of the requests
+     * @throws AuthorizationFailedException - if the user has not signed in or is signed out
+     */
+    @RequestMapping(method = RequestMethod.POST, path = "/question/batch", consumes = MediaType.APPLICATION_JSON_UTF8_VALUE, produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    public ResponseEntity<List<QuestionBatchItemResponse>> createQuestions(@RequestHeader("authorization") final String authorization,
+                                                                           @RequestBody final List<QuestionRequest> questionRequests)
+            throws AuthorizationFailedException {
+        final List<String> contents = new ArrayList<>(questionRequests.size());
+        for (final QuestionRequest questionRequest : questionRequests) {
+            contents.add(questionRequest.getContent());
+        }
+        final List<BatchItemResult<QuestionEntity>> results = questionBusinessService.createQuestions(authorization, contents);
+        final List<QuestionBatchItemResponse> responses = new ArrayList<>(results.size());
+        for (final BatchItemResult<QuestionEntity> result : results) {
+            if (result.isSuccess()) {
+                responses.add(new QuestionBatchItemResponse().question(
+                        new QuestionResponse().id(result.getItem().getUuid()).status("QUESTION CREATED")));
+            } else {
+                responses.add(new QuestionBatchItemResponse().error(
+                        new ErrorResponse().code(result.getCode()).message(result.getErrorMessage())));
+            }
+        }
+        return new ResponseEntity<List<QuestionBatchItemResponse>>(responses, HttpStatus.OK);
+    }
+
+    /**
+     * This method returns all the questions, newest first, as it did before the questions were paged: a request without
+     * "limit" and "cursor" gets every question in one response. The questions are streamed as with "stream=true", so the
+     * memory used does not grow with the size of the QUESTION table.
+     *
+     * @param authorization - access token of the signed in user
+     * @param webRequest    - request carrying the If-None-Match header
+     * @return - ResponseEntity streaming the array of QuestionDetailsResponse, null if not modified
+     * @throws AuthorizationFailedException - if the user has not signed in or is signed out
+     */
+    @RequestMapping(method = RequestMethod.GET, path = "/question/all", params = {"!limit", "!cursor", "stream!=true"}, produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    public ResponseEntity<StreamingResponseBody> getEveryQuestion(@RequestHeader("authorization") final String authorization,
+                                                                  final WebRequest webRequest)
+            throws AuthorizationFailedException {
+        return streamAllQuestions(authorization, null, null, webRequest);
+    }
+
+    /**
+     * This method returns one page of all the questions, newest first, once "limit" or "cursor" is given. The cursor of the following page is
+     * returned in the "next-cursor" header, which is absent on the last page. A request whose If-None-Match header
+     * carries the current ETag of the questions gets a 304 without reading them, and the encoded pages are served from
+     * the question feed cache while no question is created.
+     *
+     * @param authorization - access token of the signed in user
+     * @param limit         - page size
+     * @param cursor        - cursor handed out with the previous page
+     * @param webRequest    - request carrying the If-None-Match header
+     * @return - ResponseEntity with the encoded list of QuestionDetailsResponse, null if not modified
+     * @throws AuthorizationFailedException - if the user has not signed in or is signed out
+     */
+    @RequestMapping(method = RequestMethod.GET, path = "/question/all", produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    public ResponseEntity<byte[]> getAllQuestions(@RequestHeader("authorization") final String authorization,
+                                                  @RequestParam(value = "limit", required = false) final Integer limit,
+                                                  @RequestParam(value = "cursor", required = false) final String cursor,
+                                                  final WebRequest webRequest)
+            throws AuthorizationFailedException {
+        questionBusinessService.authorizeReader(authorization);
+        final String tag = questionBusinessService.getAllQuestionsTag();
+        if (ETags.notModified(webRequest, tag)) {
+            return null;
+        }
+        final QuestionFeedCache.EncodedPage page = questionFeedCache.getFeedPage(cursor, limit, this::encode);
+        final HttpHeaders headers = ETags.headers(tag);
+        if (page.getNextCursor() != null) {
+            headers.add(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return new ResponseEntity<byte[]>(page.getBody(), headers, HttpStatus.OK);
+    }
+
+    /**
+     * This method streams all the questions, newest first, reading them page by page so that the memory used does not grow
+     * with the size of the QUESTION table. The user is authorized before the response is committed.
+     *
+     * @param authorization - access token of the signed in user
+     * @param limit         - maximum number of questions to stream, all of them if absent
+     * @param cursor        - cursor after which the questions are streamed
+     * @param webRequest    - request carrying the If-None-Match header
+     * @return - ResponseEntity streaming the array of QuestionDetailsResponse, null if not modified
+     * @throws AuthorizationFailedException - if the user has not signed in or is signed out
+     */
+    @RequestMapping(method = RequestMethod.GET, path = "/question/all", params = "stream=true", produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllQuestions(@RequestHeader("authorization") final String authorization,
+                                                                    @RequestParam(value = "limit", required = false) final Integer limit,
+                                                                    @RequestParam(value = "cursor", required = false) final String cursor,
+                                                                    final WebRequest webRequest)
+            throws AuthorizationFailedException {
+        questionBusinessService.authorizeReader(authorization);
+        final String tag = questionBusinessService.getAllQuestionsTag();
+        if (ETags.notModified(webRequest, tag)) {
+            return null;
+        }
+        final int pageSize = questionBusinessService.pageSize(null);
+        final KeysetPage<QuestionEntity> firstPage = questionBusinessService.getAllQuestions(cursor, pageSize);
+        final StreamingResponseBody body = KeysetPageStream.of(objectMapper, firstPage, limit,
+                nextCursor -> questionBusinessService.getQuestionFeedPage(nextCursor, pageSize), this::toQuestionDetailsResponse);
+        return new ResponseEntity<StreamingResponseBody>(body, ETags.headers(tag), HttpStatus.OK);
+    }
+
+    private byte[] encode(final KeysetPage<QuestionEntity> page) {
+        final List<QuestionDetailsResponse> questionDetailsResponses = new ArrayList<>(page.getItems().size());
+        for (final QuestionEntity questionEntity : page.getItems()) {
+            questionDetailsResponses.add(toQuestionDetailsResponse(questionEntity));
+        }
+        try {
+            return objectMapper.writeValueAsBytes(questionDetailsResponses);
+        } catch (JsonProcessingException e) {
+            throw new UnexpectedException(GenericErrorCode.GEN_001, e);
+        }
+    }
+
+    private QuestionDetailsResponse toQuestionDetailsResponse(final QuestionEntity questionEntity) {
+        return new QuestionDetailsResponse().id(questionEntity.getUuid()).content(questionEntity.getContent())
+                .answerCount(questionEntity.getAnswerCount());
+    }
+}
@@ -0,0 +1,139 @@
+package com.upgrad.quora.api.exception;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.upgrad.quora.api.model.ErrorResponse;
+import com.upgrad.quora.service.common.ErrorCode;
+import com.upgrad.quora.service.common.GenericErrorCode;
+import com.upgrad.quora.service.common.ServiceErrorCode;
+import com.upgrad.quora.service.common.UnexpectedException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Responses of the error codes of {@link ServiceErrorCode} and {@link GenericErrorCode}, in tables indexed by the ordinal
+ * of the code. The slot of a code holds its HTTP status and its ErrorResponse body with the default message, encoded at
+ * startup; an exception carrying a message of its endpoint gets a body encoded once per message and kept in the slot.
+ * At most "quora.error-bodies.max-entries" such bodies are kept; beyond that, and for an UnexpectedException whose
+ * message is formatted from parameters, the body is encoded for every response.
+ */
+@Component
+public class ErrorBodies {
+
+    private static final HttpHeaders HEADERS;
+
+    static {
+        final HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON_UTF8);
+        HEADERS = HttpHeaders.readOnlyHttpHeaders(headers);
+    }
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${quora.error-bodies.max-entries:1024}")
+    private int maxEntries;
+
+    private Slot[] serviceSlots;
+
+    private Slot[] genericSlots;
+
+    private final AtomicInteger entries = new AtomicInteger();
+
+    @PostConstruct
+    public void init() {
+        serviceSlots = slots(ServiceErrorCode.values());
+        genericSlots = slots(GenericErrorCode.values());
+    }
+
+    /**
+     * @param errorCode - error code of the exception
+     * @param message   - error message of the exception
+     * @return - ResponseEntity with the encoded ErrorResponse and the status of the error code
+     */
+    public ResponseEntity<byte[]> response(final ServiceErrorCode errorCode, final String message) {
+        final Slot slot = serviceSlots[errorCode.ordinal()];
+        return new ResponseEntity<byte[]>(body(slot, message), HEADERS, slot.status);
+    }
+
+    /**
+     * @param exc - the exception to report
+     * @return - ResponseEntity with the encoded ErrorResponse and the status of the error code
+     */
+    public ResponseEntity<byte[]> response(final UnexpectedException exc) {
+        final ErrorCode errorCode = exc.getErrorCode();
+        final Slot slot = errorCode instanceof ServiceErrorCode ? serviceSlots[((ServiceErrorCode) errorCode).ordinal()]
+                : genericSlots[((GenericErrorCode) errorCode).ordinal()];
+        final byte[] body = exc.hasParameters() ? encode(errorCode.getCode(), exc.getMessage()) : slot.defaultBody;
+        return new ResponseEntity<byte[]>(body, HEADERS, slot.status);
+    }
+
+    private Slot[] slots(final ErrorCode[] errorCodes) {
+        final Slot[] slots = new Slot[errorCodes.length];
+        for (int i = 0; i < errorCodes.length; i++) {
+            final ErrorCode errorCode = errorCodes[i];
+            slots[i] = new Slot(errorCode, HttpStatus.valueOf(errorCode.getHttpStatus()),
+                    encode(errorCode.getCode(), errorCode.getDefaultMessage()));
+        }
+        return slots;
+    }
+
+    private byte[] body(final Slot slot, final String message) {
+        if (message == null) {
+            return encode(slot.errorCode.getCode(), null);
+        }
+        if (message.equals(slot.errorCode.getDefaultMessage())) {
+            return slot.defaultBody;
+        }
+        final byte[] cached = slot.messages.get(message);
+        if (cached != null) {
+            return cached;
+        }
+        final byte[] body = encode(slot.errorCode.getCode(), message);
+        if (entries.incrementAndGet() > maxEntries) {
+            entries.decrementAndGet();
+            return body;
+        }
+        final byte[] previous = slot.messages.putIfAbsent(message, body);
+        if (previous != null) {
+            entries.decrementAndGet();
+            return previous;
+        }
+        return body;
+    }
+
+    private byte[] encode(final String code, final String message) {
+        try {
+            return objectMapper.writeValueAsBytes(new ErrorResponse().code(code).message(message));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("ErrorResponse could not be encoded", e);
+        }
+    }
+
+    private static final class Slot {
+
+        private final ErrorCode errorCode;
+
+        private final HttpStatus status;
+
+        private final byte[] defaultBody;
+
+        private final ConcurrentMap<String, byte[]> messages = new ConcurrentHashMap<>();
+
+        private Slot(final ErrorCode errorCode, final HttpStatus status, final byte[] defaultBody) {
+            this.errorCode = errorCode;
+            this.status = status;
+            this.defaultBody = defaultBody;
+        }
+    }
+}
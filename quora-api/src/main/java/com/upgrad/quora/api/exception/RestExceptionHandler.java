@@ -0,0 +1,83 @@
+package com.upgrad.quora.api.exception;
+
+import com.upgrad.quora.api.metrics.OperationMetrics;
+import com.upgrad.quora.service.common.UnexpectedException;
+import com.upgrad.quora.service.exception.AnswerNotFoundException;
+import com.upgrad.quora.service.exception.AuthenticationFailedException;
+import com.upgrad.quora.service.exception.AuthorizationFailedException;
+import com.upgrad.quora.service.exception.InvalidQuestionException;
+import com.upgrad.quora.service.exception.SignOutRestrictedException;
+import com.upgrad.quora.service.exception.SignUpRestrictedException;
+import com.upgrad.quora.service.exception.UserNotFoundException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * This class translates the exceptions thrown by the service layer into the ErrorResponse of the endpoints, written
+ * from the bodies pre-encoded by {@link ErrorBodies}, with the status of the error code of the exception.
+ */
+@ControllerAdvice
+public class RestExceptionHandler {
+
+    @Autowired
+    private ErrorBodies errorBodies;
+
+    @ExceptionHandler(AuthorizationFailedException.class)
+    public ResponseEntity<byte[]> authorizationFailedException(AuthorizationFailedException exc, WebRequest request) {
+        outcome(request, exc.getCode());
+        return errorBodies.response(exc.getErrorCode(), exc.getErrorMessage());
+    }
+
+    @ExceptionHandler(InvalidQuestionException.class)
+    public ResponseEntity<byte[]> invalidQuestionException(InvalidQuestionException exc, WebRequest request) {
+        outcome(request, exc.getCode());
+        return errorBodies.response(exc.getErrorCode(), exc.getErrorMessage());
+    }
+
+    @ExceptionHandler(AnswerNotFoundException.class)
+    public ResponseEntity<byte[]> answerNotFoundException(AnswerNotFoundException exc, WebRequest request) {
+        outcome(request, exc.getCode());
+        return errorBodies.response(exc.getErrorCode(), exc.getErrorMessage());
+    }
+
+    @ExceptionHandler(UserNotFoundException.class)
+    public ResponseEntity<byte[]> userNotFoundException(UserNotFoundException exc, WebRequest request) {
+        outcome(request, exc.getCode());
+        return errorBodies.response(exc.getErrorCode(), exc.getErrorMessage());
+    }
+
+    @ExceptionHandler(AuthenticationFailedException.class)
+    public ResponseEntity<byte[]> authenticationFailedException(AuthenticationFailedException exc, WebRequest request) {
+        outcome(request, exc.getCode());
+        return errorBodies.response(exc.getErrorCode(), exc.getErrorMessage());
+    }
+
+    @ExceptionHandler(SignOutRestrictedException.class)
+    public ResponseEntity<byte[]> signOutRestrictedException(SignOutRestrictedException exc, WebRequest request) {
+        outcome(request, exc.getCode());
+        return errorBodies.response(exc.getErrorCode(), exc.getErrorMessage());
+    }
+
+    @ExceptionHandler(SignUpRestrictedException.class)
+    public ResponseEntity<byte[]> signUpRestrictedException(SignUpRestrictedException exc, WebRequest request) {
+        outcome(request, exc.getCode());
+        return errorBodies.response(exc.getErrorCode(), exc.getErrorMessage());
+    }
+
+    @ExceptionHandler(UnexpectedException.class)
+    public ResponseEntity<byte[]> unexpectedException(UnexpectedException exc, WebRequest request) {
+        outcome(request, exc.getErrorCode().getCode());
+        return errorBodies.response(exc);
+    }
+
+    /**
+     * Hands the error code to {@link OperationMetrics} as the outcome of the request.
+     */
+    private void outcome(final WebRequest request, final String code) {
+        request.setAttribute(OperationMetrics.ERROR_CODE_ATTRIBUTE, code, RequestAttributes.SCOPE_REQUEST);
+    }
+}
@@ -0,0 +1,208 @@
+package com.upgrad.quora.api.metrics;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency and outcomes of the operations of the specs in endpoints/*.json, keyed on their operationId. The latency of a
+ * request is recorded in microseconds into an HdrHistogram {@link Recorder}, which request threads write to without
+ * locking; the outcome is the error code of the ErrorResponse, or the HTTP status when the response is not an error.
+ * The figures cover the requests since startup or since the last {@link #reset()}.
+ */
+@Component
+public class OperationMetrics {
+
+    /**
+     * Request attribute holding the error code of the ErrorResponse written for the request.
+     */
+    public static final String ERROR_CODE_ATTRIBUTE = OperationMetrics.class.getName() + ".errorCode";
+
+    private static final String SPECS = "classpath:endpoints/*.json";
+
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private static final double[] PERCENTILES = {50.0, 90.0, 99.0, 99.9};
+
+    private static final String[] PERCENTILE_NAMES = {"p50", "p90", "p99", "p999"};
+
+    /**
+     * Operations keyed on HTTP method and then on the path of the spec, which is the path pattern of the handler.
+     */
+    private final Map<String, Map<String, Operation>> operations;
+
+    private volatile long sinceMillis = System.currentTimeMillis();
+
+    public OperationMetrics(final ObjectMapper objectMapper) throws IOException {
+        final Map<String, Map<String, Operation>> operations = new HashMap<>();
+        for (final Resource spec : new PathMatchingResourcePatternResolver().getResources(SPECS)) {
+            final JsonNode paths;
+            try (InputStream inputStream = spec.getInputStream()) {
+                paths = objectMapper.readTree(inputStream).path("paths");
+            }
+            final Iterator<Map.Entry<String, JsonNode>> pathIterator = paths.fields();
+            while (pathIterator.hasNext()) {
+                final Map.Entry<String, JsonNode> path = pathIterator.next();
+                final Iterator<Map.Entry<String, JsonNode>> methodIterator = path.getValue().fields();
+                while (methodIterator.hasNext()) {
+                    final Map.Entry<String, JsonNode> method = methodIterator.next();
+                    final String operationId = method.getValue().path("operationId").asText(null);
+                    if (operationId != null) {
+                        operations.computeIfAbsent(method.getKey().toUpperCase(Locale.ROOT), key -> new HashMap<>())
+                                .put(path.getKey(), new Operation(operationId));
+                    }
+                }
+            }
+        }
+        this.operations = operations;
+    }
+
+    /**
+     * @param method      - HTTP method of the request
+     * @param pathPattern - path pattern of the handler of the request
+     * @return - the operation of the specs, null if no spec defines it
+     */
+    public Operation getOperation(final String method, final String pathPattern) {
+        final Map<String, Operation> methodOperations = operations.get(method);
+        return methodOperations == null ? null : methodOperations.get(pathPattern);
+    }
+
+    /**
+     * @return - count, throughput, latency percentiles and outcomes of every operation, keyed on operationId
+     */
+    public Map<String, Object> snapshot() {
+        final double seconds = Math.max(1L, System.currentTimeMillis() - sinceMillis) / 1000.0;
+        final Map<String, Object> snapshot = new TreeMap<>();
+        for (final Map<String, Operation> methodOperations : operations.values()) {
+            for (final Operation operation : methodOperations.values()) {
+                snapshot.put(operation.operationId, operation.snapshot(seconds));
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * @param operationId - operationId of the spec
+     * @return - count, throughput, latency percentiles and outcomes of the operation, null if no spec defines it
+     */
+    public Map<String, Object> snapshot(final String operationId) {
+        final double seconds = Math.max(1L, System.currentTimeMillis() - sinceMillis) / 1000.0;
+        for (final Map<String, Operation> methodOperations : operations.values()) {
+            for (final Operation operation : methodOperations.values()) {
+                if (operation.operationId.equals(operationId)) {
+                    return operation.snapshot(seconds);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return - start of the period the figures cover, in epoch milliseconds
+     */
+    public long getSinceMillis() {
+        return sinceMillis;
+    }
+
+    /**
+     * Drops the figures of every operation and starts a new period.
+     */
+    public void reset() {
+        for (final Map<String, Operation> methodOperations : operations.values()) {
+            for (final Operation operation : methodOperations.values()) {
+                operation.reset();
+            }
+        }
+        sinceMillis = System.currentTimeMillis();
+    }
+
+    /**
+     * Figures of one operationId.
+     */
+    public static final class Operation {
+
+        private final String operationId;
+
+        private final Recorder recorder = new Recorder(SIGNIFICANT_DIGITS);
+
+        /**
+         * Latencies recorded up to the last snapshot, guarded by this operation.
+         */
+        private final Histogram histogram = new Histogram(SIGNIFICANT_DIGITS);
+
+        private Histogram interval;
+
+        private final ConcurrentMap<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+
+        private Operation(final String operationId) {
+            this.operationId = operationId;
+        }
+
+        public String getOperationId() {
+            return operationId;
+        }
+
+        /**
+         * @param nanos   - latency of the request
+         * @param outcome - error code of the response, or its HTTP status if it is not an error
+         */
+        public void record(final long nanos, final String outcome) {
+            recorder.recordValue(Math.max(0L, TimeUnit.NANOSECONDS.toMicros(nanos)));
+            LongAdder count = outcomes.get(outcome);
+            if (count == null) {
+                final LongAdder added = new LongAdder();
+                count = outcomes.putIfAbsent(outcome, added);
+                if (count == null) {
+                    count = added;
+                }
+            }
+            count.increment();
+        }
+
+        private synchronized Map<String, Object> snapshot(final double seconds) {
+            interval = recorder.getIntervalHistogram(interval);
+            histogram.add(interval);
+            final Map<String, Object> snapshot = new LinkedHashMap<>();
+            snapshot.put("count", histogram.getTotalCount());
+            snapshot.put("throughputPerSecond", histogram.getTotalCount() / seconds);
+            snapshot.put("totalMillis", histogram.getMean() * histogram.getTotalCount() / 1000.0);
+            final Map<String, Object> latency = new LinkedHashMap<>();
+            latency.put("mean", histogram.getMean() / 1000.0);
+            for (int i = 0; i < PERCENTILES.length; i++) {
+                latency.put(PERCENTILE_NAMES[i], histogram.getValueAtPercentile(PERCENTILES[i]) / 1000.0);
+            }
+            latency.put("max", histogram.getMaxValue() / 1000.0);
+            snapshot.put("latencyMillis", latency);
+            final Map<String, Long> outcomeCounts = new TreeMap<>();
+            for (final Map.Entry<String, LongAdder> outcome : outcomes.entrySet()) {
+                outcomeCounts.put(outcome.getKey(), outcome.getValue().sum());
+            }
+            snapshot.put("outcomes", Collections.unmodifiableMap(outcomeCounts));
+            return snapshot;
+        }
+
+        private synchronized void reset() {
+            recorder.reset();
+            histogram.reset();
+            outcomes.clear();
+        }
+    }
+}
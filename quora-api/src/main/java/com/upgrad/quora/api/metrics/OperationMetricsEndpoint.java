@@ -0,0 +1,43 @@
+package com.upgrad.quora.api.metrics;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.jmx.annotation.JmxEndpoint;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Actuator endpoint "operations" publishing {@link OperationMetrics} as the MBean
+ * org.springframework.boot:type=Endpoint,name=Operations, whose reset operation starts a new period. It is only
+ * published over JMX, so that the figures cannot be reset over HTTP; they are read over HTTP through
+ * {@link OperationMetricsWebEndpoint}.
+ */
+@JmxEndpoint(id = "operations")
+public class OperationMetricsEndpoint {
+
+    private final OperationMetrics operationMetrics;
+
+    public OperationMetricsEndpoint(final OperationMetrics operationMetrics) {
+        this.operationMetrics = operationMetrics;
+    }
+
+    @ReadOperation
+    public Map<String, Object> operations() {
+        final Map<String, Object> operations = new LinkedHashMap<>();
+        operations.put("sinceMillis", operationMetrics.getSinceMillis());
+        operations.put("operations", operationMetrics.snapshot());
+        return operations;
+    }
+
+    @ReadOperation
+    public Map<String, Object> operation(@Selector final String operationId) {
+        return operationMetrics.snapshot(operationId);
+    }
+
+    @DeleteOperation
+    public void reset() {
+        operationMetrics.reset();
+    }
+}
@@ -0,0 +1,55 @@
+package com.upgrad.quora.api.metrics;
+
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Records the latency and outcome of every request handled by an operation of the specs into {@link OperationMetrics}.
+ * A streamed response is recorded once its asynchronous dispatch completes, with the time since the request started.
+ */
+public class OperationMetricsInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String START_ATTRIBUTE = OperationMetricsInterceptor.class.getName() + ".start";
+
+    private final OperationMetrics operationMetrics;
+
+    public OperationMetricsInterceptor(final OperationMetrics operationMetrics) {
+        this.operationMetrics = operationMetrics;
+    }
+
+    @Override
+    public boolean preHandle(final HttpServletRequest request, final HttpServletResponse response, final Object handler) {
+        if (request.getAttribute(START_ATTRIBUTE) == null) {
+            request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(final HttpServletRequest request, final HttpServletResponse response, final Object handler,
+                                final Exception ex) {
+        final Object start = request.getAttribute(START_ATTRIBUTE);
+        final Object pathPattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (start == null || pathPattern == null) {
+            return;
+        }
+        final OperationMetrics.Operation operation = operationMetrics.getOperation(request.getMethod(), pathPattern.toString());
+        if (operation == null) {
+            return;
+        }
+        final Object errorCode = request.getAttribute(OperationMetrics.ERROR_CODE_ATTRIBUTE);
+        final String outcome;
+        if (errorCode != null) {
+            outcome = errorCode.toString();
+        } else if (ex != null) {
+            // left to the container, which answers 500
+            outcome = "500";
+        } else {
+            outcome = Integer.toString(response.getStatus());
+        }
+        operation.record(System.nanoTime() - (Long) start, outcome);
+    }
+}
@@ -0,0 +1,36 @@
+package com.upgrad.quora.api.metrics;
+
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+
+import java.util.Map;
+
+/**
+ * Actuator endpoint "operationstats", the read operations of {@link OperationMetricsEndpoint} over HTTP at
+ * /actuator/operationstats and /actuator/operationstats/{operationId}, for the scrapers of the figures. It has no
+ * write or delete operation: the figures are only reset over JMX.
+ */
+@WebEndpoint(id = "operationstats")
+public class OperationMetricsWebEndpoint {
+
+    private final OperationMetricsEndpoint operationMetricsEndpoint;
+
+    public OperationMetricsWebEndpoint(final OperationMetricsEndpoint operationMetricsEndpoint) {
+        this.operationMetricsEndpoint = operationMetricsEndpoint;
+    }
+
+    @ReadOperation
+    public Map<String, Object> operations() {
+        return operationMetricsEndpoint.operations();
+    }
+
+    /**
+     * @param operationId - operationId of the specs
+     * @return - figures of the operation, null (a 404) for an unknown operation
+     */
+    @ReadOperation
+    public Map<String, Object> operation(@Selector final String operationId) {
+        return operationMetricsEndpoint.operation(operationId);
+    }
+}
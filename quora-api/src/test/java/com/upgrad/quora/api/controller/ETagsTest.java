@@ -0,0 +1,185 @@
+package com.upgrad.quora.api.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.upgrad.quora.api.model.AnswerDetailsResponse;
+import com.upgrad.quora.api.model.AnswerRequest;
+import com.upgrad.quora.api.model.QuestionRequest;
+import com.upgrad.quora.api.model.QuestionResponse;
+import com.upgrad.quora.service.business.AnswerBusinessService;
+import com.upgrad.quora.service.business.AuthorizationService;
+import com.upgrad.quora.service.business.AuthorizedUser;
+import com.upgrad.quora.service.business.ContentVersions;
+import com.upgrad.quora.service.business.QuestionBusinessService;
+import com.upgrad.quora.service.business.QuestionFeedCache;
+import com.upgrad.quora.service.business.WriteCoalescer;
+import com.upgrad.quora.service.dao.AnswerDao;
+import com.upgrad.quora.service.dao.QuestionDao;
+import com.upgrad.quora.service.dao.UserDao;
+import com.upgrad.quora.service.entity.AnswerEntity;
+import com.upgrad.quora.service.entity.QuestionEntity;
+import com.upgrad.quora.service.entity.UserEntity;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.time.ZonedDateTime;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+
+/**
+ * Conditional GETs of the question feed and of the answers to a question, through the controllers and the business
+ * services with ETags enabled, the database being mocked.
+ */
+public class ETagsTest {
+
+    private static final String ACCESS_TOKEN = "database_accesstoken1";
+
+    private final QuestionDao questionDao = Mockito.mock(QuestionDao.class);
+
+    private final AnswerDao answerDao = Mockito.mock(AnswerDao.class);
+
+    private final ContentVersions contentVersions = new ContentVersions(true, 16, "", 5);
+
+    private final QuestionController questionController = new QuestionController();
+
+    private final AnswerController answerController = new AnswerController();
+
+    private QuestionEntity question;
+
+    @Before
+    public void setUp() throws Exception {
+        final AuthorizationService authorizationService = Mockito.mock(AuthorizationService.class);
+        Mockito.when(authorizationService.authorize(eq(ACCESS_TOKEN), anyString())).thenReturn(new AuthorizedUser("user1", "nonadmin", null, null));
+        final UserEntity user = new UserEntity();
+        user.setId(1);
+        user.setUuid("user1");
+        final UserDao userDao = Mockito.mock(UserDao.class);
+        Mockito.when(userDao.getUserByUuid("user1")).thenReturn(user);
+        final WriteCoalescer writeCoalescer = Mockito.mock(WriteCoalescer.class);
+        Mockito.when(writeCoalescer.execute(anyInt(), any())).thenAnswer(invocation -> invocation.<WriteCoalescer.Mutation<?, ?>>getArgument(1).apply());
+
+        question = new QuestionEntity();
+        question.setId(1024);
+        question.setUuid("question1");
+        question.setContent("content");
+        question.setDate(ZonedDateTime.now());
+        question.setUser(user);
+        Mockito.when(questionDao.getQuestionFeed(isNull(), anyInt())).thenReturn(Collections.singletonList(question));
+        Mockito.when(questionDao.getQuestionByUuid("question1")).thenReturn(question);
+        final AnswerEntity answer = new AnswerEntity();
+        answer.setId(1);
+        answer.setUuid("answer1");
+        answer.setAnswer("answer");
+        answer.setDate(ZonedDateTime.now());
+        answer.setQuestion(question);
+        Mockito.when(answerDao.getAnswersByQuestion(eq(1024), isNull(), anyInt())).thenReturn(Collections.singletonList(answer));
+
+        final QuestionBusinessService questionBusinessService = new QuestionBusinessService();
+        ReflectionTestUtils.setField(questionBusinessService, "authorizationService", authorizationService);
+        ReflectionTestUtils.setField(questionBusinessService, "questionDao", questionDao);
+        ReflectionTestUtils.setField(questionBusinessService, "userDao", userDao);
+        ReflectionTestUtils.setField(questionBusinessService, "writeCoalescer", writeCoalescer);
+        ReflectionTestUtils.setField(questionBusinessService, "contentVersions", contentVersions);
+        ReflectionTestUtils.setField(questionBusinessService, "defaultPageSize", 100);
+        ReflectionTestUtils.setField(questionBusinessService, "maxPageSize", 1000);
+        final AnswerBusinessService answerBusinessService = new AnswerBusinessService();
+        ReflectionTestUtils.setField(answerBusinessService, "authorizationService", authorizationService);
+        ReflectionTestUtils.setField(answerBusinessService, "questionDao", questionDao);
+        ReflectionTestUtils.setField(answerBusinessService, "answerDao", answerDao);
+        ReflectionTestUtils.setField(answerBusinessService, "userDao", userDao);
+        ReflectionTestUtils.setField(answerBusinessService, "writeCoalescer", writeCoalescer);
+        ReflectionTestUtils.setField(answerBusinessService, "contentVersions", contentVersions);
+        ReflectionTestUtils.setField(answerBusinessService, "defaultPageSize", 100);
+        ReflectionTestUtils.setField(answerBusinessService, "maxPageSize", 1000);
+        ReflectionTestUtils.setField(answerBusinessService, "maxBatchSize", 1000);
+        final QuestionFeedCache questionFeedCache = new QuestionFeedCache();
+        ReflectionTestUtils.setField(questionFeedCache, "questionBusinessService", questionBusinessService);
+        ReflectionTestUtils.setField(questionFeedCache, "contentVersions", contentVersions);
+        questionFeedCache.init();
+
+        ReflectionTestUtils.setField(questionController, "questionBusinessService", questionBusinessService);
+        ReflectionTestUtils.setField(questionController, "questionFeedCache", questionFeedCache);
+        ReflectionTestUtils.setField(questionController, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(answerController, "answerBusinessService", answerBusinessService);
+        ReflectionTestUtils.setField(answerController, "objectMapper", new ObjectMapper());
+    }
+
+    private static ServletWebRequest get(final String path, final String ifNoneMatch, final MockHttpServletResponse response) {
+        final MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return new ServletWebRequest(request, response);
+    }
+
+    //This test case passes when a page of the question feed requested with its ETag gets a 304 without reading the questions, until a question is created.
+    @Test
+    public void questionFeedNotModifiedUntilQuestionCreated() throws Exception {
+        final ResponseEntity<byte[]> first = questionController.getAllQuestions(ACCESS_TOKEN, 10, null, get("/question/all", null, new MockHttpServletResponse()));
+        assertEquals(HttpStatus.OK, first.getStatusCode());
+        final String tag = first.getHeaders().getETag();
+        assertNotNull(tag);
+
+        final MockHttpServletResponse notModified = new MockHttpServletResponse();
+        assertNull(questionController.getAllQuestions(ACCESS_TOKEN, 10, null, get("/question/all", tag, notModified)));
+        assertEquals(HttpStatus.NOT_MODIFIED.value(), notModified.getStatus());
+        assertEquals(tag, notModified.getHeader(HttpHeaders.ETAG));
+        Mockito.verify(questionDao, Mockito.times(1)).getQuestionFeed(isNull(), anyInt());
+
+        final ResponseEntity<QuestionResponse> created = questionController.createQuestion(ACCESS_TOKEN, new QuestionRequest().content("new question"));
+        assertEquals(HttpStatus.CREATED, created.getStatusCode());
+
+        final MockHttpServletResponse modified = new MockHttpServletResponse();
+        final ResponseEntity<byte[]> second = questionController.getAllQuestions(ACCESS_TOKEN, 10, null, get("/question/all", tag, modified));
+        assertEquals(HttpStatus.OK, second.getStatusCode());
+        assertNotEquals(tag, second.getHeaders().getETag());
+        Mockito.verify(questionDao, Mockito.times(2)).getQuestionFeed(isNull(), anyInt());
+    }
+
+    //This test case passes when the answers to a question requested with their ETag get a 304 until an answer to the question is created, which also changes the ETag of the question feed.
+    @Test
+    public void answersNotModifiedUntilAnswerCreated() throws Exception {
+        final ResponseEntity<List<AnswerDetailsResponse>> first = answerController.getAllAnswersToQuestion("question1", ACCESS_TOKEN, null, null,
+                get("/answer/all/question1", null, new MockHttpServletResponse()));
+        assertEquals(HttpStatus.OK, first.getStatusCode());
+        assertEquals("answer1", first.getBody().get(0).getId());
+        final String tag = first.getHeaders().getETag();
+        final String questionsTag = questionController.getAllQuestions(ACCESS_TOKEN, 10, null,
+                get("/question/all", null, new MockHttpServletResponse())).getHeaders().getETag();
+
+        final MockHttpServletResponse notModified = new MockHttpServletResponse();
+        assertNull(answerController.getAllAnswersToQuestion("question1", ACCESS_TOKEN, null, null, get("/answer/all/question1", tag, notModified)));
+        assertEquals(HttpStatus.NOT_MODIFIED.value(), notModified.getStatus());
+        Mockito.verify(answerDao, Mockito.times(1)).getAnswersByQuestion(eq(1024), isNull(), anyInt());
+
+        answerController.createAnswers("question1", ACCESS_TOKEN, Collections.singletonList(new AnswerRequest().answer("new answer")));
+        Mockito.verify(answerDao).createAnswers(anyList());
+
+        final ResponseEntity<List<AnswerDetailsResponse>> second = answerController.getAllAnswersToQuestion("question1", ACCESS_TOKEN, null, null,
+                get("/answer/all/question1", tag, new MockHttpServletResponse()));
+        assertEquals(HttpStatus.OK, second.getStatusCode());
+        assertNotEquals(tag, second.getHeaders().getETag());
+        final ResponseEntity<byte[]> questions = questionController.getAllQuestions(ACCESS_TOKEN, 10, null,
+                get("/question/all", questionsTag, new MockHttpServletResponse()));
+        assertEquals(HttpStatus.OK, questions.getStatusCode());
+        assertNotEquals(questionsTag, questions.getHeaders().getETag());
+    }
+}
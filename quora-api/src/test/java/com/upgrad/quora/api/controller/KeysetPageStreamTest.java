@@ -0,0 +1,131 @@
+package com.upgrad.quora.api.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.upgrad.quora.service.business.KeysetPage;
+import com.upgrad.quora.service.business.PageCursor;
+import com.upgrad.quora.service.business.QuestionBusinessService;
+import com.upgrad.quora.service.entity.QuestionEntity;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+
+public class KeysetPageStreamTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final List<PageCursor> readCursors = new ArrayList<>();
+
+    private static PageCursor cursor(final int id) {
+        return new PageCursor(ZonedDateTime.now(), id);
+    }
+
+    /**
+     * Pages of two items each, 1 and 2, 3 and 4, 5 and 6, the last page having no next cursor.
+     */
+    private final Function<PageCursor, KeysetPage<Integer>> nextPage = cursor -> {
+        readCursors.add(cursor);
+        final int first = cursor.getId() + 1;
+        return new KeysetPage<>(Arrays.asList(first, first + 1), first + 1 < 6 ? cursor(first + 1) : null);
+    };
+
+    private JsonNode stream(final Integer limit) throws IOException {
+        final StreamingResponseBody body = KeysetPageStream.of(objectMapper, new KeysetPage<>(Arrays.asList(1, 2), cursor(2)), limit,
+                nextPage, item -> Collections.singletonMap("id", item));
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        body.writeTo(outputStream);
+        return objectMapper.readTree(outputStream.toByteArray());
+    }
+
+    private static List<Integer> ids(final JsonNode array) {
+        final List<Integer> ids = new ArrayList<>();
+        for (final JsonNode item : array) {
+            ids.add(item.get("id").asInt());
+        }
+        return ids;
+    }
+
+    //This test case passes when the items of every page are streamed as a single valid JSON array, in order and without duplicates at the page boundaries.
+    @Test
+    public void streamsAllPagesAsOneArray() throws IOException {
+        final JsonNode array = stream(null);
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5, 6), ids(array));
+        assertEquals(2, readCursors.size());
+    }
+
+    //This test case passes when the limit truncates the array, inside a page or at its end, and no page beyond the limit is read.
+    @Test
+    public void limitTruncatesStream() throws IOException {
+        assertEquals(Arrays.asList(1, 2, 3), ids(stream(3)));
+        assertEquals(1, readCursors.size());
+        readCursors.clear();
+        assertEquals(Arrays.asList(1, 2), ids(stream(2)));
+        assertEquals(0, readCursors.size());
+        assertEquals(Collections.emptyList(), ids(stream(0)));
+    }
+
+    //This test case passes when a streaming request carrying the current ETag of the questions gets a 304 without a body and without reading the questions.
+    @Test
+    public void notModifiedStreamHasNoBody() throws Exception {
+        final QuestionBusinessService questionBusinessService = Mockito.mock(QuestionBusinessService.class);
+        Mockito.when(questionBusinessService.getAllQuestionsTag()).thenReturn("\"questions-1\"");
+        final QuestionController questionController = new QuestionController();
+        ReflectionTestUtils.setField(questionController, "questionBusinessService", questionBusinessService);
+        ReflectionTestUtils.setField(questionController, "objectMapper", objectMapper);
+        final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/question/all");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"questions-1\"");
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        final ResponseEntity<StreamingResponseBody> entity = questionController.streamAllQuestions("database_accesstoken1", null, null,
+                new ServletWebRequest(request, response));
+        assertNull(entity);
+        assertEquals(HttpStatus.NOT_MODIFIED.value(), response.getStatus());
+        assertEquals("\"questions-1\"", response.getHeader(HttpHeaders.ETAG));
+        Mockito.verify(questionBusinessService).authorizeReader("database_accesstoken1");
+        Mockito.verify(questionBusinessService, Mockito.never()).getAllQuestions(any(), any());
+        Mockito.verify(questionBusinessService, Mockito.never()).getQuestionFeedPage(any(), anyInt());
+    }
+
+    //This test case passes when a streaming request with an outdated ETag streams the questions with the current ETag.
+    @Test
+    public void modifiedStreamHasBody() throws Exception {
+        final QuestionBusinessService questionBusinessService = Mockito.mock(QuestionBusinessService.class);
+        Mockito.when(questionBusinessService.getAllQuestionsTag()).thenReturn("\"questions-2\"");
+        Mockito.when(questionBusinessService.pageSize(null)).thenReturn(100);
+        final QuestionEntity questionEntity = new QuestionEntity();
+        questionEntity.setUuid("question1");
+        Mockito.when(questionBusinessService.getAllQuestions(null, 100)).thenReturn(new KeysetPage<>(Collections.singletonList(questionEntity), null));
+        final QuestionController questionController = new QuestionController();
+        ReflectionTestUtils.setField(questionController, "questionBusinessService", questionBusinessService);
+        ReflectionTestUtils.setField(questionController, "objectMapper", objectMapper);
+        final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/question/all");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"questions-1\"");
+        final ResponseEntity<StreamingResponseBody> entity = questionController.streamAllQuestions("database_accesstoken1", null, null,
+                new ServletWebRequest(request, new MockHttpServletResponse()));
+        assertEquals(HttpStatus.OK, entity.getStatusCode());
+        assertEquals("\"questions-2\"", entity.getHeaders().getETag());
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        entity.getBody().writeTo(outputStream);
+        assertEquals("question1", objectMapper.readTree(outputStream.toByteArray()).get(0).get("id").asText());
+    }
+}
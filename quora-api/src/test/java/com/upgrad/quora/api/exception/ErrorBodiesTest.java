@@ -0,0 +1,105 @@
+package com.upgrad.quora.api.exception;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.upgrad.quora.service.common.GenericErrorCode;
+import com.upgrad.quora.service.common.ServiceErrorCode;
+import com.upgrad.quora.service.common.UnexpectedException;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class ErrorBodiesTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final ErrorBodies errorBodies = new ErrorBodies();
+
+    @Before
+    public void setUp() {
+        ReflectionTestUtils.setField(errorBodies, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(errorBodies, "maxEntries", 1);
+        errorBodies.init();
+    }
+
+    private JsonNode json(final ResponseEntity<byte[]> response) throws IOException {
+        return objectMapper.readTree(response.getBody());
+    }
+
+    //This test case passes when the default message of an error code is answered with its pre-encoded body and the status of the code.
+    @Test
+    public void defaultMessageUsesPreEncodedBody() throws IOException {
+        final ResponseEntity<byte[]> response = errorBodies.response(ServiceErrorCode.ATHR_001, ServiceErrorCode.ATHR_001.getDefaultMessage());
+        assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_JSON_UTF8, response.getHeaders().getContentType());
+        assertEquals("ATHR-001", json(response).get("code").asText());
+        assertEquals("User has not signed in", json(response).get("message").asText());
+        assertSame(response.getBody(), errorBodies.response(ServiceErrorCode.ATHR_001, ServiceErrorCode.ATHR_001.getDefaultMessage()).getBody());
+    }
+
+    //This test case passes when the message of an endpoint is encoded once and its body is reused afterwards.
+    @Test
+    public void endpointMessageIsEncodedOnce() throws IOException {
+        final String message = "The question with entered uuid whose details are to be seen does not exist";
+        final ResponseEntity<byte[]> response = errorBodies.response(ServiceErrorCode.QUES_001, message);
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertEquals("QUES-001", json(response).get("code").asText());
+        assertEquals(message, json(response).get("message").asText());
+        assertSame(response.getBody(), errorBodies.response(ServiceErrorCode.QUES_001, message).getBody());
+    }
+
+    //This test case passes when the messages beyond "quora.error-bodies.max-entries" are encoded for every response, with the same content.
+    @Test
+    public void messagesBeyondMaxEntriesAreNotKept() {
+        errorBodies.response(ServiceErrorCode.ATHR_002, "User is signed out.Sign in first to get all questions");
+        final ResponseEntity<byte[]> response = errorBodies.response(ServiceErrorCode.ATHR_002, "User is signed out.Sign in first to post a question");
+        final ResponseEntity<byte[]> again = errorBodies.response(ServiceErrorCode.ATHR_002, "User is signed out.Sign in first to post a question");
+        assertNotSame(response.getBody(), again.getBody());
+        assertArrayEquals(response.getBody(), again.getBody());
+    }
+
+    //This test case passes when SGR-001 is answered with 409 for a taken username on sign up and with 401 for a user who is not signed in on sign out.
+    @Test
+    public void signUpAndSignOutShareSgr001WithTheirOwnStatus() throws IOException {
+        final ResponseEntity<byte[]> signUp = errorBodies.response(ServiceErrorCode.SGR_001, ServiceErrorCode.SGR_001.getDefaultMessage());
+        assertEquals(HttpStatus.CONFLICT, signUp.getStatusCode());
+        assertEquals("SGR-001", json(signUp).get("code").asText());
+        final ResponseEntity<byte[]> signOut = errorBodies.response(ServiceErrorCode.SGR_001_SIGNOUT, ServiceErrorCode.SGR_001_SIGNOUT.getDefaultMessage());
+        assertEquals(HttpStatus.UNAUTHORIZED, signOut.getStatusCode());
+        assertEquals("SGR-001", json(signOut).get("code").asText());
+        assertEquals("User is not Signed in", json(signOut).get("message").asText());
+    }
+
+    //This test case passes when the failures of sign in are answered with their ATH code and 401.
+    @Test
+    public void authenticationFailures() throws IOException {
+        final ResponseEntity<byte[]> unknownUser = errorBodies.response(ServiceErrorCode.ATH_001, ServiceErrorCode.ATH_001.getDefaultMessage());
+        assertEquals(HttpStatus.UNAUTHORIZED, unknownUser.getStatusCode());
+        assertEquals("ATH-001", json(unknownUser).get("code").asText());
+        final ResponseEntity<byte[]> wrongPassword = errorBodies.response(ServiceErrorCode.ATH_002, ServiceErrorCode.ATH_002.getDefaultMessage());
+        assertEquals(HttpStatus.UNAUTHORIZED, wrongPassword.getStatusCode());
+        assertEquals("Password failed", json(wrongPassword).get("message").asText());
+    }
+
+    //This test case passes when an UnexpectedException is answered with the status of its code and the message formatted from its parameters.
+    @Test
+    public void unexpectedException() throws IOException {
+        final ResponseEntity<byte[]> busy = errorBodies.response(new UnexpectedException(GenericErrorCode.GEN_002));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, busy.getStatusCode());
+        assertEquals("The service is busy. Please try again later", json(busy).get("message").asText());
+        final ResponseEntity<byte[]> tooLarge = errorBodies.response(new UnexpectedException(GenericErrorCode.GEN_004, "5", "2"));
+        assertEquals(HttpStatus.BAD_REQUEST, tooLarge.getStatusCode());
+        assertEquals("GEN-004", json(tooLarge).get("code").asText());
+        assertEquals("The batch of 5 items exceeds the limit of 2 items", json(tooLarge).get("message").asText());
+    }
+}
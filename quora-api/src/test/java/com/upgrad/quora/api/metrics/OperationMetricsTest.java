@@ -0,0 +1,101 @@
+package com.upgrad.quora.api.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.jmx.annotation.JmxEndpoint;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class OperationMetricsTest {
+
+    private final OperationMetrics operationMetrics;
+
+    public OperationMetricsTest() throws IOException {
+        operationMetrics = new OperationMetrics(new ObjectMapper());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T get(final Map<String, Object> map, final String key) {
+        return (T) map.get(key);
+    }
+
+    //This test case passes when the operations are read from the specs and keyed on HTTP method and path pattern.
+    @Test
+    public void operationsOfSpecs() {
+        assertEquals("getAllQuestions", operationMetrics.getOperation("GET", "/question/all").getOperationId());
+        assertEquals("deleteQuestion", operationMetrics.getOperation("DELETE", "/question/delete/{questionId}").getOperationId());
+        assertNull(operationMetrics.getOperation("POST", "/question/all"));
+        assertNull(operationMetrics.getOperation("GET", "/actuator/health"));
+        assertTrue(operationMetrics.snapshot().containsKey("getAllQuestions"));
+        assertNull(operationMetrics.snapshot("noSuchOperation"));
+    }
+
+    //This test case passes when the count, latency percentiles and outcomes of an operation reflect the recorded requests.
+    @Test
+    public void recordsLatencyAndOutcomes() {
+        final OperationMetrics.Operation operation = operationMetrics.getOperation("GET", "/question/all");
+        operation.record(TimeUnit.MILLISECONDS.toNanos(10), "200");
+        operation.record(TimeUnit.MILLISECONDS.toNanos(20), "200");
+        operation.record(TimeUnit.MILLISECONDS.toNanos(1000), "ATHR-001");
+        final Map<String, Object> snapshot = operationMetrics.snapshot("getAllQuestions");
+        assertEquals(3L, snapshot.get("count"));
+        final Map<String, Object> latency = get(snapshot, "latencyMillis");
+        assertEquals(20.0, (Double) latency.get("p50"), 0.1);
+        assertEquals(1000.0, (Double) latency.get("max"), 1.0);
+        final Map<String, Object> outcomes = get(snapshot, "outcomes");
+        assertEquals(2L, outcomes.get("200"));
+        assertEquals(1L, outcomes.get("ATHR-001"));
+        // a later snapshot still covers the requests of the earlier one
+        operation.record(TimeUnit.MILLISECONDS.toNanos(30), "200");
+        assertEquals(4L, operationMetrics.snapshot("getAllQuestions").get("count"));
+    }
+
+    //This test case passes when a reset drops the figures of every operation and starts a new period.
+    @Test
+    public void resetStartsNewPeriod() throws InterruptedException {
+        operationMetrics.getOperation("GET", "/question/all").record(TimeUnit.MILLISECONDS.toNanos(10), "200");
+        final long sinceMillis = operationMetrics.getSinceMillis();
+        Thread.sleep(5);
+        operationMetrics.reset();
+        assertTrue(operationMetrics.getSinceMillis() > sinceMillis);
+        final Map<String, Object> snapshot = operationMetrics.snapshot("getAllQuestions");
+        assertEquals(0L, snapshot.get("count"));
+        assertTrue(((Map<?, ?>) snapshot.get("outcomes")).isEmpty());
+    }
+
+    //This test case passes when the endpoint with the reset operation is only published over JMX.
+    @Test
+    public void resetIsJmxOnly() {
+        final JmxEndpoint endpoint = OperationMetricsEndpoint.class.getAnnotation(JmxEndpoint.class);
+        assertNotNull(endpoint);
+        assertEquals("operations", endpoint.id());
+    }
+
+    //This test case passes when the endpoint published over HTTP only has read operations, which return the figures of the JMX endpoint.
+    @Test
+    public void webEndpointIsReadOnly() {
+        final WebEndpoint endpoint = OperationMetricsWebEndpoint.class.getAnnotation(WebEndpoint.class);
+        assertNotNull(endpoint);
+        assertEquals("operationstats", endpoint.id());
+        for (final Method method : OperationMetricsWebEndpoint.class.getDeclaredMethods()) {
+            assertNull(method.getName(), method.getAnnotation(WriteOperation.class));
+            assertNull(method.getName(), method.getAnnotation(DeleteOperation.class));
+        }
+        final OperationMetricsWebEndpoint webEndpoint = new OperationMetricsWebEndpoint(new OperationMetricsEndpoint(operationMetrics));
+        operationMetrics.getOperation("GET", "/question/all").record(TimeUnit.MILLISECONDS.toNanos(10), "200");
+        assertEquals(operationMetrics.getSinceMillis(), webEndpoint.operations().get("sinceMillis"));
+        assertEquals(1L, webEndpoint.operation("getAllQuestions").get("count"));
+        assertNull(webEndpoint.operation("noSuchOperation"));
+    }
+}
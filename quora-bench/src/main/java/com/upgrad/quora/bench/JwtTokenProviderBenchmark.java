@@ -0,0 +1,58 @@
+package com.upgrad.quora.bench;
+
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.upgrad.quora.service.business.JwtTokenProvider;
+import com.upgrad.quora.service.exception.AuthorizationFailedException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.ZonedDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures issuing an access token on signin and verifying it statelessly on every protected request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtTokenProviderBenchmark {
+
+    private static final String USER_UUID = "database_uuid1";
+
+    private JwtTokenProvider provider;
+
+    private ZonedDateTime issuedAt;
+
+    private ZonedDateTime expiresAt;
+
+    private String accessToken;
+
+    @Setup
+    public void setup() {
+        provider = new JwtTokenProvider("benchmark_secret");
+        issuedAt = ZonedDateTime.now();
+        expiresAt = issuedAt.plusHours(8);
+        accessToken = provider.generateToken(USER_UUID, "nonadmin", issuedAt, expiresAt);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return provider.generateToken(USER_UUID, issuedAt, expiresAt);
+    }
+
+    @Benchmark
+    public DecodedJWT verifyToken() throws AuthorizationFailedException {
+        return provider.verifyToken(accessToken);
+    }
+}
@@ -0,0 +1,87 @@
+package com.upgrad.quora.bench;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.afterburner.AfterburnerModule;
+import com.upgrad.quora.api.model.AnswerDetailsResponse;
+import com.upgrad.quora.api.model.QuestionDetailsResponse;
+import com.upgrad.quora.api.model.UserDetailsResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the Jackson serialization of the list responses returned by the question, answer and user endpoints, with
+ * the reflective bean serializers and with Afterburner, which the application registers. Run with -prof gc to compare
+ * the allocation rates as well.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModelSerializationBenchmark {
+
+    @Param({"1", "100", "1000"})
+    private int size;
+
+    @Param({"reflection", "afterburner"})
+    private String serialization;
+
+    private ObjectMapper objectMapper;
+
+    private List<QuestionDetailsResponse> questions;
+
+    private List<AnswerDetailsResponse> answers;
+
+    private List<UserDetailsResponse> users;
+
+    @Setup
+    public void setup() {
+        objectMapper = new ObjectMapper();
+        if ("afterburner".equals(serialization)) {
+            objectMapper.registerModule(new AfterburnerModule());
+        }
+        questions = new ArrayList<>(size);
+        answers = new ArrayList<>(size);
+        users = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            questions.add(new QuestionDetailsResponse().id(UUID.randomUUID().toString()).content("database_question_content " + i)
+                    .answerCount(i));
+            answers.add(new AnswerDetailsResponse().id(UUID.randomUUID().toString())
+                    .questionContent("database_question_content").answerContent("my_answer " + i));
+            users.add(new UserDetailsResponse().firstName("database_firstname").lastName("database_lastname")
+                    .userName("database_username" + i).emailAddress("database_email" + i).country("database_country")
+                    .aboutMe("database_aboutme").dob("database_dob").contactNumber("database_contactnumber"));
+        }
+    }
+
+    @Benchmark
+    public byte[] questionDetailsResponses() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(questions);
+    }
+
+    @Benchmark
+    public byte[] answerDetailsResponses() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(answers);
+    }
+
+    @Benchmark
+    public byte[] userDetailsResponses() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(users);
+    }
+}
@@ -0,0 +1,59 @@
+package com.upgrad.quora.bench;
+
+import com.upgrad.quora.service.business.PasswordCryptographyProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the password hashing done on every signup and signin.
+ * The provider is created without Spring, hence it hashes with the legacy parameters.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PasswordCryptographyBenchmark {
+
+    private static final String PASSWORD = "database_password";
+
+    private PasswordCryptographyProvider provider;
+
+    private String salt;
+
+    private String hashedPassword;
+
+    @Setup
+    public void setup() {
+        provider = new PasswordCryptographyProvider();
+        final String[] encrypted = provider.encrypt(PASSWORD);
+        salt = encrypted[0];
+        hashedPassword = encrypted[1];
+    }
+
+    @Benchmark
+    public String[] encrypt() {
+        return provider.encrypt(PASSWORD);
+    }
+
+    @Benchmark
+    public String encryptWithSalt() {
+        return PasswordCryptographyProvider.encrypt(PASSWORD, salt);
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return provider.matches(PASSWORD, salt, hashedPassword);
+    }
+}
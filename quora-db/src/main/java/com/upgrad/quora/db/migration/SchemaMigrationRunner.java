@@ -0,0 +1,240 @@
+package com.upgrad.quora.db.migration;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.util.StreamUtils;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Applies the versioned migration scripts (V<version>__<description>.sql) of quora-db to a PostgreSQL database.
+ * <p>
+ * Applied versions are recorded with the checksum of their script in SCHEMA_VERSION; a script which changed after it
+ * was applied stops the migration. A session level advisory lock makes sure that only one node migrates when several
+ * start together, the others wait and then find nothing left to apply.
+ * <p>
+ * Each script runs in a transaction of its own, unless it contains the line <code>--quora:no-transaction</code>.
+ * Such scripts run statement by statement in auto-commit mode, which statements like CREATE INDEX CONCURRENTLY require,
+ * and have to be re-runnable in case one of their statements fails. IF NOT EXISTS alone is not enough for a concurrent
+ * index: a failed build leaves an INVALID index behind, which IF NOT EXISTS keeps, so the script has to drop the invalid
+ * indexes it builds before building them (see V002). A script whose concurrently built indexes are not all valid once
+ * it has run is not recorded as applied, so that it runs again with the next migration.
+ */
+public class SchemaMigrationRunner {
+
+    private static final Log LOGGER = LogFactory.getLog(SchemaMigrationRunner.class);
+
+    public static final String DEFAULT_LOCATION = "classpath*:sql/migration/V*.sql";
+
+    private static final Pattern SCRIPT_NAME = Pattern.compile("V(\\d+)__(.+)\\.sql");
+
+    private static final String NO_TRANSACTION_DIRECTIVE = "--quora:no-transaction";
+
+    private static final Pattern CONCURRENT_INDEX = Pattern.compile(
+            "^CREATE\\s+(?:UNIQUE\\s+)?INDEX\\s+CONCURRENTLY\\s+(?:IF\\s+NOT\\s+EXISTS\\s+)?(\"[^\"]+\"|\\w+)", Pattern.CASE_INSENSITIVE);
+
+    private static final long LOCK_KEY = 0x51554f5241L;
+
+    private final DataSource dataSource;
+
+    private final String location;
+
+    public SchemaMigrationRunner(final DataSource dataSource) {
+        this(dataSource, DEFAULT_LOCATION);
+    }
+
+    public SchemaMigrationRunner(final DataSource dataSource, final String location) {
+        this.dataSource = dataSource;
+        this.location = location;
+    }
+
+    /**
+     * Migrates the database given by the arguments: driver class, url, user and password. Used by the setup profile of quora-db.
+     */
+    public static void main(final String[] args) {
+        final DriverManagerDataSource dataSource = new DriverManagerDataSource(args[1], args[2], args[3]);
+        dataSource.setDriverClassName(args[0]);
+        new SchemaMigrationRunner(dataSource).migrate();
+    }
+
+    /**
+     * Applies every migration script which has not been applied yet, in ascending order of version.
+     */
+    public void migrate() {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(true);
+            execute(connection, "SELECT pg_advisory_lock(" + LOCK_KEY + ")");
+            try {
+                execute(connection, "CREATE TABLE IF NOT EXISTS SCHEMA_VERSION(version INTEGER PRIMARY KEY, description VARCHAR(200) NOT NULL, "
+                        + "checksum VARCHAR(64) NOT NULL, installed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP, execution_ms INTEGER NOT NULL)");
+                final Map<Integer, String> appliedChecksums = appliedChecksums(connection);
+                int applied = 0;
+                for (final Migration migration : loadMigrations()) {
+                    final String appliedChecksum = appliedChecksums.get(migration.version);
+                    if (appliedChecksum == null) {
+                        apply(connection, migration);
+                        applied++;
+                    } else if (!appliedChecksum.equals(migration.checksum)) {
+                        throw new IllegalStateException("Migration script " + migration.name + " was modified after it was applied");
+                    }
+                }
+                LOGGER.info("Schema is up to date, " + applied + " migration(s) applied");
+            } finally {
+                execute(connection, "SELECT pg_advisory_unlock(" + LOCK_KEY + ")");
+            }
+        } catch (SQLException | IOException e) {
+            throw new IllegalStateException("Schema migration failed", e);
+        }
+    }
+
+    private void apply(final Connection connection, final Migration migration) throws SQLException {
+        LOGGER.info("Applying migration " + migration.name);
+        final long start = System.currentTimeMillis();
+        final boolean transactional = !migration.script.contains(NO_TRANSACTION_DIRECTIVE);
+        connection.setAutoCommit(!transactional);
+        try {
+            final List<String> concurrentIndexes = new ArrayList<>();
+            for (final String statement : SqlScriptSplitter.split(migration.script)) {
+                execute(connection, statement);
+                final Matcher matcher = CONCURRENT_INDEX.matcher(statement);
+                if (matcher.find()) {
+                    concurrentIndexes.add(indexName(matcher.group(1)));
+                }
+            }
+            if (!transactional) {
+                final List<String> invalidIndexes = invalidIndexes(connection, concurrentIndexes);
+                if (!invalidIndexes.isEmpty()) {
+                    throw new IllegalStateException("Migration script " + migration.name + " left the invalid indexes " + invalidIndexes
+                            + "; it is applied again by the next migration");
+                }
+            }
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "INSERT INTO SCHEMA_VERSION(version, description, checksum, execution_ms) VALUES (?, ?, ?, ?)")) {
+                insert.setInt(1, migration.version);
+                insert.setString(2, migration.description);
+                insert.setString(3, migration.checksum);
+                insert.setInt(4, (int) (System.currentTimeMillis() - start));
+                insert.executeUpdate();
+            }
+            if (transactional) {
+                connection.commit();
+            }
+        } catch (SQLException e) {
+            if (transactional) {
+                connection.rollback();
+            }
+            throw e;
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    private List<Migration> loadMigrations() throws IOException {
+        final Map<Integer, Migration> migrations = new HashMap<>();
+        for (final Resource resource : new PathMatchingResourcePatternResolver().getResources(location)) {
+            final Matcher matcher = SCRIPT_NAME.matcher(resource.getFilename());
+            if (!matcher.matches()) {
+                continue;
+            }
+            final String script = StreamUtils.copyToString(resource.getInputStream(), StandardCharsets.UTF_8);
+            final Migration migration = new Migration(Integer.parseInt(matcher.group(1)), matcher.group(2).replace('_', ' '),
+                    resource.getFilename(), script);
+            final Migration duplicate = migrations.put(migration.version, migration);
+            if (duplicate != null) {
+                throw new IllegalStateException("Migration scripts " + duplicate.name + " and " + migration.name + " have the same version");
+            }
+        }
+        final List<Migration> ordered = new ArrayList<>(migrations.values());
+        ordered.sort((first, second) -> Integer.compare(first.version, second.version));
+        return ordered;
+    }
+
+    private static Map<Integer, String> appliedChecksums(final Connection connection) throws SQLException {
+        final Map<Integer, String> checksums = new HashMap<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT version, checksum FROM SCHEMA_VERSION")) {
+            while (resultSet.next()) {
+                checksums.put(resultSet.getInt(1), resultSet.getString(2));
+            }
+        }
+        return checksums;
+    }
+
+    /**
+     * @return - the name of the index as stored in the catalog: unquoted names are folded to lower case
+     */
+    private static String indexName(final String name) {
+        return name.startsWith("\"") ? name.substring(1, name.length() - 1) : name.toLowerCase(Locale.ROOT);
+    }
+
+    private static List<String> invalidIndexes(final Connection connection, final List<String> indexes) throws SQLException {
+        final List<String> invalid = new ArrayList<>();
+        if (indexes.isEmpty()) {
+            return invalid;
+        }
+        try (PreparedStatement query = connection.prepareStatement("SELECT c.relname FROM pg_index i JOIN pg_class c ON c.oid = i.indexrelid "
+                + "WHERE NOT i.indisvalid AND c.relnamespace = current_schema()::regnamespace AND c.relname = ANY (?)")) {
+            query.setArray(1, connection.createArrayOf("text", indexes.toArray()));
+            try (ResultSet resultSet = query.executeQuery()) {
+                while (resultSet.next()) {
+                    invalid.add(resultSet.getString(1));
+                }
+            }
+        }
+        return invalid;
+    }
+
+    private static void execute(final Connection connection, final String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private static String checksum(final String script) {
+        try {
+            final byte[] digest = MessageDigest.getInstance("SHA-256").digest(script.getBytes(StandardCharsets.UTF_8));
+            final StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (final byte b : digest) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class Migration {
+        private final int version;
+        private final String description;
+        private final String name;
+        private final String script;
+        private final String checksum;
+
+        private Migration(final int version, final String description, final String name, final String script) {
+            this.version = version;
+            this.description = description;
+            this.name = name;
+            this.script = script;
+            this.checksum = checksum(script);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.upgrad.quora.db.migration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits a PostgreSQL script into its statements on the ';' delimiter. Delimiters inside comments, quoted
+ * strings, escape strings (E'...', where a backslash escapes the quote), quoted identifiers and dollar quoted bodies
+ * (functions, DO blocks) do not end a statement.
+ */
+final class SqlScriptSplitter {
+
+    private SqlScriptSplitter() {
+    }
+
+    static List<String> split(final String script) {
+        final List<String> statements = new ArrayList<>();
+        final StringBuilder statement = new StringBuilder();
+        final int length = script.length();
+        int i = 0;
+        while (i < length) {
+            final char c = script.charAt(i);
+            if (c == '-' && i + 1 < length && script.charAt(i + 1) == '-') {
+                final int end = script.indexOf('\n', i);
+                i = end < 0 ? length : end;
+            } else if (c == '/' && i + 1 < length && script.charAt(i + 1) == '*') {
+                final int end = script.indexOf("*/", i + 2);
+                i = end < 0 ? length : end + 2;
+            } else if (c == '\'' || c == '"') {
+                final int end = closingQuote(script, i, c, c == '\'' && isEscapeStringPrefix(script, i - 1));
+                statement.append(script, i, end);
+                i = end;
+            } else if (c == '$' && dollarTag(script, i) != null) {
+                final String tag = dollarTag(script, i);
+                final int bodyEnd = script.indexOf(tag, i + tag.length());
+                final int end = bodyEnd < 0 ? length : bodyEnd + tag.length();
+                statement.append(script, i, end);
+                i = end;
+            } else if (c == ';') {
+                add(statements, statement);
+                i++;
+            } else {
+                statement.append(c);
+                i++;
+            }
+        }
+        add(statements, statement);
+        return statements;
+    }
+
+    private static int closingQuote(final String script, final int start, final char quote, final boolean backslashEscapes) {
+        int i = start + 1;
+        while (i < script.length()) {
+            if (backslashEscapes && script.charAt(i) == '\\') {
+                i += 2;
+                continue;
+            }
+            if (script.charAt(i) == quote) {
+                if (i + 1 < script.length() && script.charAt(i + 1) == quote) {
+                    i += 2;
+                    continue;
+                }
+                return i + 1;
+            }
+            i++;
+        }
+        return script.length();
+    }
+
+    /**
+     * @return - true if the character at the position is the E of an escape string constant, i.e. an E which is not the
+     * end of a longer word
+     */
+    private static boolean isEscapeStringPrefix(final String script, final int position) {
+        if (position < 0 || (script.charAt(position) != 'E' && script.charAt(position) != 'e')) {
+            return false;
+        }
+        if (position == 0) {
+            return true;
+        }
+        final char previous = script.charAt(position - 1);
+        return !Character.isLetterOrDigit(previous) && previous != '_' && previous != '$';
+    }
+
+    /**
+     * @return - the dollar quote tag ($$ or $name$) starting at the position, null if the '$' does not start one
+     */
+    private static String dollarTag(final String script, final int start) {
+        int i = start + 1;
+        while (i < script.length() && (Character.isLetterOrDigit(script.charAt(i)) || script.charAt(i) == '_')) {
+            i++;
+        }
+        if (i < script.length() && script.charAt(i) == '$' && (i == start + 1 || !Character.isDigit(script.charAt(start + 1)))) {
+            return script.substring(start, i + 1);
+        }
+        return null;
+    }
+
+    private static void add(final List<String> statements, final StringBuilder statement) {
+        final String trimmed = statement.toString().trim();
+        if (!trimmed.isEmpty()) {
+            statements.add(trimmed);
+        }
+        statement.setLength(0);
+    }
+}
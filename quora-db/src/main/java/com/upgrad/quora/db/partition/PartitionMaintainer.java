@@ -0,0 +1,175 @@
+package com.upgrad.quora.db.partition;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Maintains the monthly partitions of the QUESTION and ANSWER tables (see migrations V003 and V004): creates the
+ * partitions of the current and the coming months and, when a retention is configured, detaches the partitions of the
+ * months that fell out of it. Detached partitions remain as tables of their own, to be archived or dropped.
+ * Every node of the application maintains the partitions, an advisory lock lets one of them do it at a time.
+ * <p>
+ * The answers of a detached ANSWER partition are not deleted, so the trigger keeping QUESTION.answer_count (see
+ * migration V005) does not see them go: their count is taken off their questions in the transaction of the detach.
+ * That transaction holds the lock of the detach on ANSWER while it updates the questions.
+ */
+public class PartitionMaintainer {
+
+    private static final Log LOGGER = LogFactory.getLog(PartitionMaintainer.class);
+
+    /**
+     * Partitioned tables, a table that references another one comes first so that it is detached first.
+     */
+    private static final String[] TABLES = {"ANSWER", "QUESTION"};
+
+    /**
+     * Key of the advisory lock held during the maintenance, next to the one of the schema migration.
+     */
+    static final long LOCK_KEY = 0x51554f5242L;
+
+    private final DataSource dataSource;
+
+    private final int monthsAhead;
+
+    private final int retentionMonths;
+
+    private final Clock clock;
+
+    /**
+     * @param monthsAhead     - number of months after the current one to create the partitions of
+     * @param retentionMonths - number of months before the current one to keep attached, 0 to keep all of them
+     */
+    public PartitionMaintainer(final DataSource dataSource, final int monthsAhead, final int retentionMonths) {
+        this(dataSource, monthsAhead, retentionMonths, Clock.systemUTC());
+    }
+
+    PartitionMaintainer(final DataSource dataSource, final int monthsAhead, final int retentionMonths, final Clock clock) {
+        this.dataSource = dataSource;
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+        this.clock = clock;
+    }
+
+    /**
+     * @return - false when the partitions were not maintained because another node is maintaining them
+     */
+    public boolean maintain() {
+        final LocalDate month = LocalDate.now(clock).withDayOfMonth(1);
+        try (Connection connection = dataSource.getConnection()) {
+            if (!lock(connection, "pg_try_advisory_lock")) {
+                LOGGER.info("Partitions are being maintained by another node");
+                return false;
+            }
+            try {
+                maintain(connection, month);
+            } finally {
+                lock(connection, "pg_advisory_unlock");
+            }
+            return true;
+        } catch (SQLException e) {
+            throw new IllegalStateException("Partition maintenance failed", e);
+        }
+    }
+
+    private void maintain(final Connection connection, final LocalDate month) throws SQLException {
+        for (final String table : TABLES) {
+            final int created = call(connection, "SELECT QUORA_CREATE_MONTHLY_PARTITIONS(?, ?, ?)", table, month, month.plusMonths(monthsAhead));
+            if (created > 0) {
+                LOGGER.info("Created " + created + " partition(s) of " + table);
+            }
+        }
+        if (retentionMonths > 0) {
+            for (final String table : TABLES) {
+                final int detached = detach(connection, table, month.minusMonths(retentionMonths));
+                if (detached > 0) {
+                    LOGGER.info("Detached " + detached + " partition(s) of " + table);
+                }
+            }
+        }
+    }
+
+    private static int detach(final Connection connection, final String table, final LocalDate before) throws SQLException {
+        if (!"ANSWER".equals(table)) {
+            return call(connection, "SELECT QUORA_DETACH_PARTITIONS_BEFORE(?, ?)", table, before);
+        }
+        connection.setAutoCommit(false);
+        try {
+            final List<String> partitions = partitions(connection, table);
+            final int detached = call(connection, "SELECT QUORA_DETACH_PARTITIONS_BEFORE(?, ?)", table, before);
+            if (detached > 0) {
+                partitions.removeAll(partitions(connection, table));
+                for (final String partition : partitions) {
+                    uncountAnswers(connection, partition);
+                }
+            }
+            connection.commit();
+            return detached;
+        } catch (SQLException | RuntimeException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    private static List<String> partitions(final Connection connection, final String table) throws SQLException {
+        final List<String> partitions = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = lower(?)::REGCLASS")) {
+            statement.setString(1, table);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    partitions.add(resultSet.getString(1));
+                }
+            }
+        }
+        return partitions;
+    }
+
+    /**
+     * Takes the answers of a detached partition off the answer_count of their questions. The count is decremented rather
+     * than recomputed so that the answers added meanwhile by other transactions are kept.
+     */
+    private static void uncountAnswers(final Connection connection, final String partition) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("UPDATE QUESTION q SET answer_count = q.answer_count - d.answers "
+                + "FROM (SELECT question_id, question_date, count(*) AS answers FROM \"" + partition + "\" GROUP BY question_id, question_date) d "
+                + "WHERE q.id = d.question_id AND q.date = d.question_date")) {
+            final int updated = statement.executeUpdate();
+            LOGGER.info("Took the answers of " + partition + " off the answer count of " + updated + " question(s)");
+        }
+    }
+
+    private static boolean lock(final Connection connection, final String function) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT " + function + "(?)")) {
+            statement.setLong(1, LOCK_KEY);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                return resultSet.getBoolean(1);
+            }
+        }
+    }
+
+    private static int call(final Connection connection, final String sql, final String table, final LocalDate... months) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, table);
+            for (int i = 0; i < months.length; i++) {
+                statement.setDate(i + 2, Date.valueOf(months[i]));
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                return resultSet.getInt(1);
+            }
+        }
+    }
+}
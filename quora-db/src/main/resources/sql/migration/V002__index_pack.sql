@@ -0,0 +1,43 @@
+
+--quora:no-transaction
+--Indexes for the lookups done by the application.
+--The indexes are built CONCURRENTLY so that the script can be applied to a live database; every statement runs in its own transaction.
+
+--A concurrent build which failed, e.g. on a duplicate uuid, leaves an INVALID index behind which IF NOT EXISTS would
+--then keep; such indexes of this script are dropped so that running it again builds them anew. An invalid index is
+--not used by any query, so dropping it only takes the table lock for an instant.
+DO $$
+DECLARE
+    invalid_index RECORD;
+BEGIN
+    FOR invalid_index IN
+        SELECT c.relname FROM pg_index i JOIN pg_class c ON c.oid = i.indexrelid
+        WHERE NOT i.indisvalid AND c.relnamespace = current_schema()::regnamespace
+          AND c.relname IN ('users_uuid_uk', 'user_auth_uuid_uk', 'question_uuid_uk', 'answer_uuid_uk', 'user_auth_access_token_uk',
+                            'question_date_id_idx', 'question_user_id_date_idx', 'answer_question_id_date_idx',
+                            'user_auth_user_id_idx', 'answer_user_id_idx')
+    LOOP
+        EXECUTE format('DROP INDEX %I', invalid_index.relname);
+    END LOOP;
+END
+$$;
+
+--uuid lookups of users, user sessions, questions and answers (userprofile, admin delete, question and answer edit/delete)
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS USERS_UUID_UK ON USERS(uuid);
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS USER_AUTH_UUID_UK ON USER_AUTH(uuid);
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS QUESTION_UUID_UK ON QUESTION(uuid);
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS ANSWER_UUID_UK ON ANSWER(uuid);
+
+--access token lookup done by every protected endpoint
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS USER_AUTH_ACCESS_TOKEN_UK ON USER_AUTH(ACCESS_TOKEN);
+
+--question feed and questions of a user, newest first, paged by keyset on (date, id)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS QUESTION_DATE_ID_IDX ON QUESTION(date, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS QUESTION_USER_ID_DATE_IDX ON QUESTION(user_id, date, id);
+
+--answers to a question, newest first, paged by keyset on (date, id)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ANSWER_QUESTION_ID_DATE_IDX ON ANSWER(question_id, date, id);
+
+--foreign keys followed by the ON DELETE CASCADE of a user
+CREATE INDEX CONCURRENTLY IF NOT EXISTS USER_AUTH_USER_ID_IDX ON USER_AUTH(USER_ID);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ANSWER_USER_ID_IDX ON ANSWER(user_id);
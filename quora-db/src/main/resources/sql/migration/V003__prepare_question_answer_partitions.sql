@@ -0,0 +1,135 @@
+--quora:no-transaction
+--Prepares QUESTION and ANSWER to be partitioned by version 004 while the application keeps running. The existing rows
+--are not copied: each table becomes the partition <table>_legacy of every date before the first monthly partition.
+--What attaching it would otherwise do under an exclusive lock is done here without blocking writes: the question date of
+--the answers is filled in batches of committed updates, and the indexes, the NOT NULL constraint and the partition bound
+--are built or validated concurrently. Every statement commits on its own and can be run again.
+
+--Older minor versions attach the foreign key of a partition referencing a partitioned table incorrectly: deleting a
+--question of the legacy partition would only delete its answers in the legacy partition
+DO $$
+DECLARE
+    version INTEGER := current_setting('server_version_num')::INTEGER;
+BEGIN
+    IF EXISTS (SELECT 1 FROM ANSWER) AND (version < 130017 OR version BETWEEN 140000 AND 140013
+            OR version BETWEEN 150000 AND 150008 OR version BETWEEN 160000 AND 160004 OR version = 170000) THEN
+        RAISE EXCEPTION 'Partitioning existing answers requires PostgreSQL 13.17, 14.14, 15.9, 16.5, 17.1 or later';
+    END IF;
+END
+$$;
+
+--Question date of the answers inserted without one by a version of the application which does not know the column
+CREATE OR REPLACE FUNCTION QUORA_FILL_QUESTION_DATE() RETURNS TRIGGER AS $$
+BEGIN
+    IF NEW.question_date IS NULL THEN
+        NEW.question_date := (SELECT date FROM QUESTION WHERE id = NEW.question_id);
+    END IF;
+    RETURN NEW;
+END
+$$ LANGUAGE plpgsql;
+
+--The unique keys of a partitioned table have to include the partition key, so the uuids are kept unique across all the
+--partitions by QUESTION_UUID and ANSWER_UUID. The uuids of detached partitions stay reserved.
+CREATE TABLE IF NOT EXISTS QUESTION_UUID(uuid VARCHAR(200) PRIMARY KEY);
+CREATE TABLE IF NOT EXISTS ANSWER_UUID(uuid VARCHAR(200) PRIMARY KEY);
+
+CREATE OR REPLACE FUNCTION QUORA_RESERVE_QUESTION_UUID() RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP IN ('DELETE', 'UPDATE') THEN
+        DELETE FROM QUESTION_UUID WHERE uuid = OLD.uuid;
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        INSERT INTO QUESTION_UUID(uuid) VALUES (NEW.uuid);
+    END IF;
+    RETURN NULL;
+END
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION QUORA_RESERVE_ANSWER_UUID() RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP IN ('DELETE', 'UPDATE') THEN
+        DELETE FROM ANSWER_UUID WHERE uuid = OLD.uuid;
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        INSERT INTO ANSWER_UUID(uuid) VALUES (NEW.uuid);
+    END IF;
+    RETURN NULL;
+END
+$$ LANGUAGE plpgsql;
+
+--Triggers of the existing tables, replaced by those of the partitioned tables in version 004
+DO $$
+BEGIN
+    ALTER TABLE ANSWER ADD COLUMN IF NOT EXISTS question_date TIMESTAMP;
+    DROP TRIGGER IF EXISTS ANSWER_QUESTION_DATE_TRG ON ANSWER;
+    CREATE TRIGGER ANSWER_QUESTION_DATE_TRG BEFORE INSERT ON ANSWER FOR EACH ROW EXECUTE PROCEDURE QUORA_FILL_QUESTION_DATE();
+    DROP TRIGGER IF EXISTS QUESTION_UUID_TRG ON QUESTION;
+    CREATE TRIGGER QUESTION_UUID_TRG AFTER INSERT OR DELETE OR UPDATE OF uuid ON QUESTION
+        FOR EACH ROW EXECUTE PROCEDURE QUORA_RESERVE_QUESTION_UUID();
+    DROP TRIGGER IF EXISTS ANSWER_UUID_TRG ON ANSWER;
+    CREATE TRIGGER ANSWER_UUID_TRG AFTER INSERT OR DELETE OR UPDATE OF uuid ON ANSWER
+        FOR EACH ROW EXECUTE PROCEDURE QUORA_RESERVE_ANSWER_UUID();
+END
+$$;
+
+--uuids of the existing rows and question date of the existing answers, committed every 10000 rows; the rows inserted
+--since the triggers were created are handled by the triggers
+DO $$
+DECLARE
+    batch CONSTANT INTEGER := 10000;
+    last_id INTEGER := 0;
+    max_id INTEGER := (SELECT coalesce(max(id), 0) FROM QUESTION);
+BEGIN
+    WHILE last_id < max_id LOOP
+        INSERT INTO QUESTION_UUID(uuid) SELECT uuid FROM QUESTION WHERE id > last_id AND id <= last_id + batch ON CONFLICT DO NOTHING;
+        last_id := last_id + batch;
+        COMMIT;
+    END LOOP;
+END
+$$;
+
+DO $$
+DECLARE
+    batch CONSTANT INTEGER := 10000;
+    last_id INTEGER := 0;
+    max_id INTEGER := (SELECT coalesce(max(id), 0) FROM ANSWER);
+BEGIN
+    WHILE last_id < max_id LOOP
+        INSERT INTO ANSWER_UUID(uuid) SELECT uuid FROM ANSWER WHERE id > last_id AND id <= last_id + batch ON CONFLICT DO NOTHING;
+        UPDATE ANSWER a SET question_date = q.date FROM QUESTION q
+            WHERE q.id = a.question_id AND a.id > last_id AND a.id <= last_id + batch AND a.question_date IS NULL;
+        last_id := last_id + batch;
+        COMMIT;
+    END LOOP;
+END
+$$;
+
+--NOT NULL without a scan under lock: the column is only checked against the validated constraint
+ALTER TABLE ANSWER DROP CONSTRAINT IF EXISTS ANSWER_QUESTION_DATE_NN;
+ALTER TABLE ANSWER ADD CONSTRAINT ANSWER_QUESTION_DATE_NN CHECK (question_date IS NOT NULL) NOT VALID;
+ALTER TABLE ANSWER VALIDATE CONSTRAINT ANSWER_QUESTION_DATE_NN;
+ALTER TABLE ANSWER ALTER COLUMN question_date SET NOT NULL;
+ALTER TABLE ANSWER DROP CONSTRAINT ANSWER_QUESTION_DATE_NN;
+
+--Upper bound of the legacy partitions, where the monthly partitions start: the first day of the month after the latest
+--row, and at least after tomorrow. The validated constraints spare version 004 the scan of the partition bound.
+DO $$
+DECLARE
+    bound DATE;
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conrelid = 'question'::REGCLASS AND conname = 'question_legacy_bound_ck') THEN
+        bound := date_trunc('month', GREATEST((SELECT max(date) FROM QUESTION), (SELECT max(date) FROM ANSWER), now() + INTERVAL '1 day'))
+            + INTERVAL '1 month';
+        EXECUTE format('ALTER TABLE QUESTION ADD CONSTRAINT QUESTION_LEGACY_BOUND_CK CHECK (date IS NOT NULL AND date < %L) NOT VALID', bound);
+        EXECUTE format('ALTER TABLE ANSWER ADD CONSTRAINT ANSWER_LEGACY_BOUND_CK CHECK (date IS NOT NULL AND date < %L) NOT VALID', bound);
+    END IF;
+END
+$$;
+ALTER TABLE QUESTION VALIDATE CONSTRAINT QUESTION_LEGACY_BOUND_CK;
+ALTER TABLE ANSWER VALIDATE CONSTRAINT ANSWER_LEGACY_BOUND_CK;
+
+--Indexes matching those of the partitioned tables which the other indexes of version 002 do not match already
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS QUESTION_LEGACY_ID_DATE_UK ON QUESTION(id, date);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS QUESTION_LEGACY_UUID_IDX ON QUESTION(uuid);
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS ANSWER_LEGACY_ID_DATE_UK ON ANSWER(id, date);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ANSWER_LEGACY_UUID_IDX ON ANSWER(uuid);
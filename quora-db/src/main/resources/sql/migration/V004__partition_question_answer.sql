@@ -0,0 +1,165 @@
+--quora:no-transaction
+--Range partitions QUESTION and ANSWER by date, one partition per month named <table>_pYYYY_MM.
+--Queries ordered by date read the newest partitions first and old months can be detached without a bulk delete.
+--The primary keys of a partitioned table have to include the partition key, so they become (id, date); the uuids stay
+--unique through QUESTION_UUID and ANSWER_UUID (see version 003). ANSWER stores the date of its question to reference
+--QUESTION(id, date) with ON DELETE CASCADE.
+--The existing tables are attached as the partitions <table>_legacy of every date before the first monthly partition,
+--with the indexes and constraints prepared by version 003, so that each table is only locked for a catalog change.
+--There is no default partition: rows are only accepted for months which have a partition, the application keeps
+--creating the partitions of the coming months (see PartitionMaintainer).
+
+--Upper bound of a range partition
+CREATE OR REPLACE FUNCTION QUORA_PARTITION_UPPER_BOUND(partition REGCLASS) RETURNS TIMESTAMP AS $$
+    SELECT substring(pg_get_expr(relpartbound, oid) FROM 'TO \(''([^'']*)''\)')::TIMESTAMP FROM pg_class WHERE oid = partition
+$$ LANGUAGE sql STABLE;
+
+--Creates the missing monthly partitions of a table for every month from from_date to to_date which is not covered by
+--the legacy partition, returns the number created
+CREATE OR REPLACE FUNCTION QUORA_CREATE_MONTHLY_PARTITIONS(parent TEXT, from_date DATE, to_date DATE) RETURNS INTEGER AS $$
+DECLARE
+    month DATE := date_trunc('month', from_date)::DATE;
+    legacy_bound TIMESTAMP := QUORA_PARTITION_UPPER_BOUND(to_regclass(lower(parent) || '_legacy'));
+    partition TEXT;
+    created INTEGER := 0;
+BEGIN
+    WHILE month <= to_date LOOP
+        partition := lower(parent) || '_p' || to_char(month, 'YYYY_MM');
+        IF to_regclass(partition) IS NULL AND (legacy_bound IS NULL OR month >= legacy_bound) THEN
+            EXECUTE format('CREATE TABLE %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+                partition, lower(parent), month, (month + INTERVAL '1 month')::DATE);
+            created := created + 1;
+        END IF;
+        month := (month + INTERVAL '1 month')::DATE;
+    END LOOP;
+    RETURN created;
+END
+$$ LANGUAGE plpgsql;
+
+--Detaches the partitions of a table which end on or before before_date, returns the number detached.
+--A detached partition stays as a table of its own, without foreign keys, to be archived or dropped. A QUESTION partition
+--whose questions still have answers in attached ANSWER partitions is kept until those are detached as well.
+CREATE OR REPLACE FUNCTION QUORA_DETACH_PARTITIONS_BEFORE(parent TEXT, before_date DATE) RETURNS INTEGER AS $$
+DECLARE
+    partition TEXT;
+    foreign_key TEXT;
+    detached INTEGER := 0;
+BEGIN
+    FOR partition IN
+        SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = lower(parent)::REGCLASS AND QUORA_PARTITION_UPPER_BOUND(c.oid) <= before_date
+        ORDER BY QUORA_PARTITION_UPPER_BOUND(c.oid)
+    LOOP
+        BEGIN
+            EXECUTE format('ALTER TABLE %I DETACH PARTITION %I', lower(parent), partition);
+            FOR foreign_key IN SELECT conname FROM pg_constraint WHERE conrelid = partition::REGCLASS AND contype = 'f' LOOP
+                EXECUTE format('ALTER TABLE %I DROP CONSTRAINT %I', partition, foreign_key);
+            END LOOP;
+            detached := detached + 1;
+        EXCEPTION WHEN foreign_key_violation THEN
+            RAISE NOTICE 'Partition % is still referenced and stays attached', partition;
+        END;
+    END LOOP;
+    RETURN detached;
+END
+$$ LANGUAGE plpgsql;
+
+--The partitioned QUESTION, replacing the existing table in one transaction
+DO $$
+DECLARE
+    bound TEXT;
+BEGIN
+    IF (SELECT relkind FROM pg_class WHERE oid = 'question'::REGCLASS) = 'p' THEN
+        RETURN;
+    END IF;
+    ALTER TABLE QUESTION RENAME TO QUESTION_LEGACY;
+    ALTER INDEX question_pkey RENAME TO question_legacy_pkey;
+    ALTER INDEX question_uuid_uk RENAME TO question_legacy_uuid_uk;
+    ALTER INDEX question_date_id_idx RENAME TO question_legacy_date_id_idx;
+    ALTER INDEX question_user_id_date_idx RENAME TO question_legacy_user_id_date_idx;
+    DROP TRIGGER QUESTION_UUID_TRG ON QUESTION_LEGACY;
+
+    CREATE TABLE QUESTION(id INTEGER NOT NULL DEFAULT nextval('question_id_seq'), uuid VARCHAR(200) NOT NULL, content VARCHAR(500) NOT NULL, date TIMESTAMP NOT NULL , user_id INTEGER NOT NULL, PRIMARY KEY(id, date), FOREIGN KEY (user_id) REFERENCES USERS(id) ON DELETE CASCADE) PARTITION BY RANGE (date);
+    ALTER SEQUENCE question_id_seq OWNED BY QUESTION.id;
+    CREATE INDEX QUESTION_UUID_IDX ON QUESTION(uuid);
+    CREATE INDEX QUESTION_DATE_ID_IDX ON QUESTION(date, id);
+    CREATE INDEX QUESTION_USER_ID_DATE_IDX ON QUESTION(user_id, date, id);
+    CREATE TRIGGER QUESTION_UUID_TRG AFTER INSERT OR DELETE OR UPDATE OF uuid ON QUESTION
+        FOR EACH ROW EXECUTE PROCEDURE QUORA_RESERVE_QUESTION_UUID();
+
+    IF EXISTS (SELECT 1 FROM QUESTION_LEGACY) THEN
+        ALTER TABLE QUESTION_LEGACY ADD CONSTRAINT QUESTION_LEGACY_ID_DATE_UK UNIQUE USING INDEX QUESTION_LEGACY_ID_DATE_UK;
+        bound := substring(pg_get_constraintdef((SELECT oid FROM pg_constraint WHERE conname = 'question_legacy_bound_ck'
+            AND conrelid = 'question_legacy'::REGCLASS)) FROM '''([^'']*)''');
+        EXECUTE format('ALTER TABLE QUESTION ATTACH PARTITION QUESTION_LEGACY FOR VALUES FROM (MINVALUE) TO (%L)', bound);
+        ALTER TABLE QUESTION_LEGACY DROP CONSTRAINT QUESTION_LEGACY_BOUND_CK;
+    ELSE
+        ALTER TABLE ANSWER DROP CONSTRAINT IF EXISTS answer_question_id_fkey;
+        DROP TABLE QUESTION_LEGACY;
+    END IF;
+    PERFORM QUORA_CREATE_MONTHLY_PARTITIONS('QUESTION', now()::DATE, (now() + INTERVAL '3 months')::DATE);
+END
+$$;
+
+--Foreign key of the existing answers to the partitioned QUESTION, validated without blocking writes and taken over by
+--the partitioned ANSWER when they are attached
+DO $$
+BEGIN
+    IF (SELECT relkind FROM pg_class WHERE oid = 'answer'::REGCLASS) = 'r' THEN
+        ALTER TABLE ANSWER DROP CONSTRAINT IF EXISTS ANSWER_LEGACY_QUESTION_FK;
+        ALTER TABLE ANSWER ADD CONSTRAINT ANSWER_LEGACY_QUESTION_FK FOREIGN KEY (question_id, question_date)
+            REFERENCES QUESTION(id, date) ON DELETE CASCADE NOT VALID;
+    END IF;
+END
+$$;
+DO $$
+BEGIN
+    IF (SELECT relkind FROM pg_class WHERE oid = 'answer'::REGCLASS) = 'r' THEN
+        ALTER TABLE ANSWER VALIDATE CONSTRAINT ANSWER_LEGACY_QUESTION_FK;
+    END IF;
+END
+$$;
+
+--The partitioned ANSWER, replacing the existing table in one transaction
+DO $$
+DECLARE
+    bound TEXT;
+BEGIN
+    IF (SELECT relkind FROM pg_class WHERE oid = 'answer'::REGCLASS) = 'p' THEN
+        RETURN;
+    END IF;
+    ALTER TABLE ANSWER RENAME TO ANSWER_LEGACY;
+    ALTER TABLE ANSWER_LEGACY DROP CONSTRAINT IF EXISTS answer_question_id_fkey;
+    ALTER INDEX answer_pkey RENAME TO answer_legacy_pkey;
+    ALTER INDEX answer_uuid_uk RENAME TO answer_legacy_uuid_uk;
+    ALTER INDEX answer_question_id_date_idx RENAME TO answer_legacy_question_id_date_idx;
+    ALTER INDEX answer_user_id_idx RENAME TO answer_legacy_user_id_idx;
+    DROP TRIGGER ANSWER_UUID_TRG ON ANSWER_LEGACY;
+    DROP TRIGGER ANSWER_QUESTION_DATE_TRG ON ANSWER_LEGACY;
+
+    CREATE TABLE ANSWER(id INTEGER NOT NULL DEFAULT nextval('answer_id_seq'), uuid VARCHAR(200) NOT NULL, ans VARCHAR(255) NOT NULL, date TIMESTAMP NOT NULL , user_id INTEGER NOT NULL, question_id INTEGER NOT NULL, question_date TIMESTAMP NOT NULL, PRIMARY KEY(id, date), FOREIGN KEY (user_id) REFERENCES USERS(id) ON DELETE CASCADE, FOREIGN KEY (question_id, question_date) REFERENCES QUESTION(id, date) ON DELETE CASCADE) PARTITION BY RANGE (date);
+    ALTER SEQUENCE answer_id_seq OWNED BY ANSWER.id;
+    CREATE INDEX ANSWER_UUID_IDX ON ANSWER(uuid);
+    CREATE INDEX ANSWER_QUESTION_ID_DATE_IDX ON ANSWER(question_id, date, id);
+    CREATE INDEX ANSWER_USER_ID_IDX ON ANSWER(user_id);
+    CREATE TRIGGER ANSWER_UUID_TRG AFTER INSERT OR DELETE OR UPDATE OF uuid ON ANSWER
+        FOR EACH ROW EXECUTE PROCEDURE QUORA_RESERVE_ANSWER_UUID();
+    --answers inserted by the previous version of the application during a rolling upgrade
+    CREATE TRIGGER ANSWER_QUESTION_DATE_TRG BEFORE INSERT ON ANSWER FOR EACH ROW EXECUTE PROCEDURE QUORA_FILL_QUESTION_DATE();
+
+    IF EXISTS (SELECT 1 FROM ANSWER_LEGACY) THEN
+        ALTER TABLE ANSWER_LEGACY ADD CONSTRAINT ANSWER_LEGACY_ID_DATE_UK UNIQUE USING INDEX ANSWER_LEGACY_ID_DATE_UK;
+        bound := substring(pg_get_constraintdef((SELECT oid FROM pg_constraint WHERE conname = 'answer_legacy_bound_ck'
+            AND conrelid = 'answer_legacy'::REGCLASS)) FROM '''([^'']*)''');
+        EXECUTE format('ALTER TABLE ANSWER ATTACH PARTITION ANSWER_LEGACY FOR VALUES FROM (MINVALUE) TO (%L)', bound);
+        ALTER TABLE ANSWER_LEGACY DROP CONSTRAINT ANSWER_LEGACY_BOUND_CK;
+    ELSE
+        DROP TABLE ANSWER_LEGACY;
+    END IF;
+    PERFORM QUORA_CREATE_MONTHLY_PARTITIONS('ANSWER', now()::DATE, (now() + INTERVAL '3 months')::DATE);
+END
+$$;
+
+--the unique uuid indexes of version 002, replaced by QUESTION_UUID and ANSWER_UUID
+DROP INDEX CONCURRENTLY IF EXISTS QUESTION_LEGACY_UUID_UK;
+DROP INDEX CONCURRENTLY IF EXISTS ANSWER_LEGACY_UUID_UK;
@@ -0,0 +1,27 @@
+--Number of answers of each question, kept in QUESTION so that question lists do not count the answers of every question.
+--The count is maintained by a trigger on ANSWER in the transaction which inserts, moves or deletes the answer, including
+--the answers deleted by the ON DELETE CASCADE of USERS and QUESTION.
+--The trigger locks the row of the question until the transaction ends: the answers posted at the same time to one
+--question are committed one after the other, so transactions inserting answers should stay short. Detaching an ANSWER
+--partition does not fire the trigger, PartitionMaintainer takes the detached answers off the count instead.
+
+ALTER TABLE QUESTION ADD COLUMN answer_count INTEGER NOT NULL DEFAULT 0;
+
+UPDATE QUESTION q SET answer_count = a.answers
+    FROM (SELECT question_id, question_date, count(*) AS answers FROM ANSWER GROUP BY question_id, question_date) a
+    WHERE q.id = a.question_id AND q.date = a.question_date;
+
+CREATE OR REPLACE FUNCTION QUORA_COUNT_ANSWERS() RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP IN ('DELETE', 'UPDATE') THEN
+        UPDATE QUESTION SET answer_count = answer_count - 1 WHERE id = OLD.question_id AND date = OLD.question_date;
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        UPDATE QUESTION SET answer_count = answer_count + 1 WHERE id = NEW.question_id AND date = NEW.question_date;
+    END IF;
+    RETURN NULL;
+END
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER ANSWER_COUNT_TRG AFTER INSERT OR DELETE OR UPDATE OF question_id, question_date ON ANSWER
+    FOR EACH ROW EXECUTE PROCEDURE QUORA_COUNT_ANSWERS();
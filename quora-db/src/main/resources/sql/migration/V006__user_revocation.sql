@@ -0,0 +1,9 @@
+--Users deleted while access tokens issued to them may still be unexpired, one row per user until the last of these
+--tokens has expired. Their USER_AUTH rows are deleted with them, so with quora.auth.token-verification set to STATELESS
+--RevokedTokenRegistry loads this table when the application starts and polls it for the deletions made by the other
+--instances. The expired rows are deleted by the same poll.
+CREATE TABLE IF NOT EXISTS USER_REVOCATION(
+	USER_UUID VARCHAR(200) PRIMARY KEY,
+	REVOKED_AT TIMESTAMP NOT NULL,
+	EXPIRES_AT TIMESTAMP NOT NULL
+);
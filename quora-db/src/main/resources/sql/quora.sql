@@ -1,3 +1,11 @@
+--Drops and recreates the schema of a development database. The versioned scripts in migration/ are applied afterwards.
+DROP TABLE IF EXISTS SCHEMA_VERSION;
+--uuids of the questions and answers, created by migration V003
+DROP TABLE IF EXISTS QUESTION_UUID;
+DROP TABLE IF EXISTS ANSWER_UUID;
+--revocations of the deleted users, created by migration V006
+DROP TABLE IF EXISTS USER_REVOCATION;
+
 
 --USERS table is created to store the details of all the users
 DROP TABLE IF EXISTS USERS CASCADE;
@@ -20,9 +20,11 @@ insert into user_auth (id , uuid , user_id , access_token , expires_at , login_a
 insert into user_auth (id , uuid , user_id , access_token , expires_at , login_at , logout_at) values(1027 , 'database_uuid3' , 1028 , 'database_accesstoken3' , '2018-09-17 21:07:02.07' , '2018-09-17 13:07:02.07' , '2018-09-17 15:07:02.07' );
 
 
---Insert values in QUESTION table
+--Insert values in QUESTION table, the test records are older than the partitions created by the migrations
+SELECT QUORA_CREATE_MONTHLY_PARTITIONS('QUESTION', '2018-09-01', '2018-09-01');
+SELECT QUORA_CREATE_MONTHLY_PARTITIONS('ANSWER', '2018-09-01', '2018-09-01');
 insert into question (id,uuid,content,date,user_id) values(1024,'database_question_uuid','database_question_content','2018-09-17 19:41:19.593',1026);
 
 
 --Insert values in ANSWER table
-insert into answer(id,uuid,ans,date,user_id,question_id) values (1024,'database_answer_uuid','my_answer','2018-09-17 19:41:19.593',1026,1024);
+insert into answer(id,uuid,ans,date,user_id,question_id,question_date) values (1024,'database_answer_uuid','my_answer','2018-09-17 19:41:19.593',1026,1024,'2018-09-17 19:41:19.593');
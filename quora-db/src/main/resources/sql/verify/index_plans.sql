@@ -0,0 +1,38 @@
+--Fails if the queries issued by the application cannot be served by the indexes of the migration scripts.
+--Sequential scans are disabled so that the planner picks an index whenever one applies, even on the small test tables.
+--The expected index is a regular expression; the indexes of the partitioned QUESTION and ANSWER tables are matched by
+--the names PostgreSQL gives to the index of each monthly partition.
+DO $$
+DECLARE
+    checks TEXT[][] := ARRAY[
+        ['SELECT * FROM USERS WHERE uuid = ''database_uuid''', 'users_uuid_uk'],
+        ['SELECT * FROM USERS WHERE uuid IN (''database_uuid'', ''database_uuid1'')', 'users_uuid_uk'],
+        ['SELECT * FROM USER_AUTH WHERE uuid = ''database_uuid''', 'user_auth_uuid_uk'],
+        ['SELECT * FROM USER_AUTH ua JOIN USERS u ON u.id = ua.user_id WHERE ua.access_token = ''database_accesstoken''', 'user_auth_access_token_uk'],
+        ['SELECT * FROM QUESTION WHERE uuid = ''database_question_uuid''', 'question_p\d{4}_\d{2}_uuid_idx'],
+        ['SELECT * FROM ANSWER WHERE uuid = ''database_answer_uuid''', 'answer_p\d{4}_\d{2}_uuid_idx'],
+        ['SELECT * FROM QUESTION ORDER BY date DESC, id DESC LIMIT 101', 'question_p\d{4}_\d{2}_date_id_idx'],
+        ['SELECT * FROM QUESTION WHERE (date, id) < (now(), 1024) AND date <= now() ORDER BY date DESC, id DESC LIMIT 101', 'question_p\d{4}_\d{2}_date_id_idx'],
+        ['SELECT * FROM QUESTION WHERE user_id = 1026 ORDER BY date DESC, id DESC LIMIT 101', 'question_p\d{4}_\d{2}_user_id_date_id_idx'],
+        ['SELECT * FROM ANSWER WHERE question_id = 1024 ORDER BY date DESC, id DESC LIMIT 101', 'answer_p\d{4}_\d{2}_question_id_date_id_idx'],
+        ['SELECT * FROM ANSWER WHERE question_id = 1024 AND (date, id) < (now(), 1024) AND date <= now() ORDER BY date DESC, id DESC LIMIT 101', 'answer_p\d{4}_\d{2}_question_id_date_id_idx'],
+        ['SELECT a.* FROM QUESTION q CROSS JOIN LATERAL (SELECT * FROM ANSWER WHERE question_id = q.id ORDER BY date DESC, id DESC LIMIT 101) a WHERE q.id IN (1024, 1025)', 'answer_p\d{4}_\d{2}_question_id_date_id_idx'],
+        ['DELETE FROM USER_AUTH WHERE user_id = 1024', 'user_auth_user_id_idx'],
+        ['DELETE FROM ANSWER WHERE user_id = 1024', 'answer_p\d{4}_\d{2}_user_id_idx']
+    ];
+    line TEXT;
+    plan TEXT;
+BEGIN
+    SET LOCAL enable_seqscan = off;
+    FOR i IN 1 .. array_length(checks, 1) LOOP
+        plan := '';
+        FOR line IN EXECUTE 'EXPLAIN ' || checks[i][1] LOOP
+            plan := plan || line || E'\n';
+        END LOOP;
+        IF lower(plan) !~ checks[i][2] THEN
+            RAISE EXCEPTION E'Query % does not use an index matching %:\n%', checks[i][1], checks[i][2], plan;
+        END IF;
+    END LOOP;
+END
+$$
+/
@@ -0,0 +1,79 @@
+package com.upgrad.quora.db.migration;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Runs the index pack of version 002 again after a concurrent index build failed and left an INVALID index behind.
+ */
+public class IndexPackMigrationTest {
+
+    private static final String INDEX_PACK = "sql/migration/V002__index_pack.sql";
+
+    private TestDatabase database;
+
+    @Before
+    public void setUpDatabase() throws SQLException {
+        database = TestDatabase.create();
+        database.executeScript("sql/quora.sql");
+        database.executeScript("sql/migration/V001__baseline.sql");
+    }
+
+    @After
+    public void dropDatabase() throws SQLException {
+        if (database != null) {
+            database.close();
+        }
+    }
+
+    private void execute(final String sql) throws SQLException {
+        try (Connection connection = database.getDataSource().getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private String validity(final String index) throws SQLException {
+        try (Connection connection = database.getDataSource().getConnection(); Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT i.indisvalid FROM pg_index i JOIN pg_class c ON c.oid = i.indexrelid "
+                     + "WHERE c.relname = '" + index + "'")) {
+            return resultSet.next() ? (resultSet.getBoolean(1) ? "valid" : "invalid") : "missing";
+        }
+    }
+
+    //This test case passes when running the script again, once the duplicate uuid which made a unique index build fail is removed, replaces the INVALID index by a valid one.
+    @Test
+    public void rerunRebuildsInvalidIndex() throws SQLException {
+        execute("INSERT INTO USERS(id, uuid, firstname, lastname, username, email, password, salt) "
+                + "VALUES (2, 'rdtrdtdyt', 'first', 'last', 'duplicate', 'duplicate_email', 'password', 'salt')");
+        try {
+            database.executeScript(INDEX_PACK);
+            fail();
+        } catch (SQLException e) {
+            assertEquals("23505", e.getSQLState());
+        }
+        assertEquals("invalid", validity("users_uuid_uk"));
+
+        execute("DELETE FROM USERS WHERE id = 2");
+        database.executeScript(INDEX_PACK);
+        assertEquals("valid", validity("users_uuid_uk"));
+        assertEquals("valid", validity("answer_user_id_idx"));
+    }
+
+    //This test case passes when running the script on a database where it was applied keeps its valid indexes.
+    @Test
+    public void rerunKeepsValidIndexes() throws SQLException {
+        database.executeScript(INDEX_PACK);
+        database.executeScript(INDEX_PACK);
+        assertEquals("valid", validity("users_uuid_uk"));
+        assertEquals("valid", validity("question_date_id_idx"));
+    }
+}
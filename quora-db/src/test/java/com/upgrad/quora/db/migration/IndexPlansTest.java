@@ -0,0 +1,85 @@
+package com.upgrad.quora.db.migration;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that the queries issued by the application are served by the indexes of the migration scripts, as
+ * verify/index_plans.sql does in the setup profile. Sequential scans are disabled so that the planner picks an index
+ * whenever one applies, even on the small test tables.
+ */
+@RunWith(Parameterized.class)
+public class IndexPlansTest {
+
+    private static TestDatabase database;
+
+    private final String query;
+
+    private final String index;
+
+    public IndexPlansTest(final String query, final String index) {
+        this.query = query;
+        this.index = index;
+    }
+
+    @Parameterized.Parameters(name = "{1}: {0}")
+    public static List<Object[]> checks() {
+        return Arrays.asList(new Object[][]{
+                {"SELECT * FROM USERS WHERE uuid = 'database_uuid'", "users_uuid_uk"},
+                {"SELECT * FROM USERS WHERE uuid IN ('database_uuid', 'database_uuid1')", "users_uuid_uk"},
+                {"SELECT * FROM USER_AUTH WHERE uuid = 'database_uuid'", "user_auth_uuid_uk"},
+                {"SELECT * FROM USER_AUTH ua JOIN USERS u ON u.id = ua.user_id WHERE ua.access_token = 'database_accesstoken'", "user_auth_access_token_uk"},
+                {"SELECT * FROM QUESTION WHERE uuid = 'database_question_uuid'", "question_p\\d{4}_\\d{2}_uuid_idx"},
+                {"SELECT * FROM ANSWER WHERE uuid = 'database_answer_uuid'", "answer_p\\d{4}_\\d{2}_uuid_idx"},
+                {"SELECT * FROM QUESTION ORDER BY date DESC, id DESC LIMIT 101", "question_p\\d{4}_\\d{2}_date_id_idx"},
+                {"SELECT * FROM QUESTION WHERE (date, id) < (now(), 1024) AND date <= now() ORDER BY date DESC, id DESC LIMIT 101", "question_p\\d{4}_\\d{2}_date_id_idx"},
+                {"SELECT * FROM QUESTION WHERE user_id = 1026 ORDER BY date DESC, id DESC LIMIT 101", "question_p\\d{4}_\\d{2}_user_id_date_id_idx"},
+                {"SELECT * FROM ANSWER WHERE question_id = 1024 ORDER BY date DESC, id DESC LIMIT 101", "answer_p\\d{4}_\\d{2}_question_id_date_id_idx"},
+                {"SELECT * FROM ANSWER WHERE question_id = 1024 AND (date, id) < (now(), 1024) AND date <= now() ORDER BY date DESC, id DESC LIMIT 101", "answer_p\\d{4}_\\d{2}_question_id_date_id_idx"},
+                {"SELECT a.* FROM QUESTION q CROSS JOIN LATERAL (SELECT * FROM ANSWER WHERE question_id = q.id ORDER BY date DESC, id DESC LIMIT 101) a WHERE q.id IN (1024, 1025)", "answer_p\\d{4}_\\d{2}_question_id_date_id_idx"},
+                {"DELETE FROM USER_AUTH WHERE user_id = 1024", "user_auth_user_id_idx"},
+                {"DELETE FROM ANSWER WHERE user_id = 1024", "answer_p\\d{4}_\\d{2}_user_id_idx"}
+        });
+    }
+
+    @BeforeClass
+    public static void setUpDatabase() throws SQLException {
+        database = TestDatabase.create().setUp();
+    }
+
+    @AfterClass
+    public static void dropDatabase() throws SQLException {
+        if (database != null) {
+            database.close();
+        }
+    }
+
+    //This test case passes when the plan of the query names the expected index.
+    @Test
+    public void queryUsesIndex() throws SQLException {
+        final StringBuilder plan = new StringBuilder();
+        try (Connection connection = database.getDataSource().getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("SET enable_seqscan = off");
+            try (ResultSet resultSet = statement.executeQuery("EXPLAIN " + query)) {
+                while (resultSet.next()) {
+                    plan.append(resultSet.getString(1)).append('\n');
+                }
+            }
+        }
+        assertTrue("Query does not use an index matching " + index + ":\n" + plan,
+                Pattern.compile(index).matcher(plan.toString().toLowerCase()).find());
+    }
+}
@@ -0,0 +1,88 @@
+package com.upgrad.quora.db.migration;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Migrates a database holding questions and answers in the unpartitioned tables of version 002 and checks that they
+ * are kept in the legacy partitions of the partitioned tables.
+ */
+public class PartitionMigrationTest {
+
+    private static TestDatabase database;
+
+    @BeforeClass
+    public static void setUpDatabase() throws SQLException {
+        database = TestDatabase.create();
+        database.executeScript("sql/quora.sql");
+        database.executeScript("sql/migration/V001__baseline.sql");
+        database.executeScript("sql/migration/V002__index_pack.sql");
+        execute("INSERT INTO USERS(id, uuid, firstname, lastname, username, email, password, salt) "
+                + "VALUES (1, 'user_uuid', 'first', 'last', 'user', 'email', 'password', 'salt')");
+        execute("INSERT INTO QUESTION(id, uuid, content, date, user_id) VALUES "
+                + "(1, 'question_uuid1', 'content1', '2018-09-17 19:41:19', 1), (2, 'question_uuid2', 'content2', now(), 1)");
+        execute("INSERT INTO ANSWER(id, uuid, ans, date, user_id, question_id) VALUES "
+                + "(1, 'answer_uuid1', 'answer1', '2018-09-18 10:00:00', 1, 1), (2, 'answer_uuid2', 'answer2', now(), 1, 2)");
+        new SchemaMigrationRunner(database.getDataSource()).migrate();
+    }
+
+    @AfterClass
+    public static void dropDatabase() throws SQLException {
+        if (database != null) {
+            database.close();
+        }
+    }
+
+    private static void execute(final String sql) throws SQLException {
+        try (Connection connection = database.getDataSource().getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private static String queryForString(final String sql) throws SQLException {
+        try (Connection connection = database.getDataSource().getConnection(); Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(sql)) {
+            return resultSet.next() ? resultSet.getString(1) : null;
+        }
+    }
+
+    //This test case passes when the existing tables are attached as the legacy partitions with their rows.
+    @Test
+    public void existingRowsAreAttached() throws SQLException {
+        assertEquals("question", queryForString("SELECT inhparent::REGCLASS FROM pg_inherits WHERE inhrelid = 'question_legacy'::REGCLASS"));
+        assertEquals("answer", queryForString("SELECT inhparent::REGCLASS FROM pg_inherits WHERE inhrelid = 'answer_legacy'::REGCLASS"));
+        assertEquals("2", queryForString("SELECT count(*) FROM QUESTION"));
+        assertEquals("0", queryForString("SELECT count(*) FROM ANSWER a JOIN QUESTION q ON q.id = a.question_id WHERE a.question_date <> q.date"));
+    }
+
+    //This test case passes when a uuid is rejected in another month than the question holding it.
+    @Test
+    public void uuidIsUniqueAcrossPartitions() throws SQLException {
+        try {
+            execute("INSERT INTO QUESTION(uuid, content, date, user_id) VALUES ('question_uuid1', 'content', now() + INTERVAL '3 months', 1)");
+            fail();
+        } catch (SQLException e) {
+            assertEquals("23505", e.getSQLState());
+        }
+    }
+
+    //This test case passes when deleting a question of the legacy partition deletes its answers of a monthly partition.
+    @Test
+    public void legacyQuestionDeletionCascades() throws SQLException {
+        execute("INSERT INTO QUESTION(id, uuid, content, date, user_id) VALUES (3, 'question_uuid3', 'content3', '2018-10-01', 1)");
+        execute("INSERT INTO ANSWER(uuid, ans, date, user_id, question_id) VALUES ('answer_uuid3', 'answer3', now() + INTERVAL '3 months', 1, 3)");
+        assertEquals("2018-10-01 00:00:00", queryForString("SELECT question_date FROM ANSWER WHERE uuid = 'answer_uuid3'"));
+        execute("DELETE FROM QUESTION WHERE id = 3");
+        assertEquals("0", queryForString("SELECT count(*) FROM ANSWER WHERE question_id = 3"));
+        assertEquals("0", queryForString("SELECT count(*) FROM ANSWER_UUID WHERE uuid = 'answer_uuid3'"));
+    }
+}
@@ -0,0 +1,89 @@
+package com.upgrad.quora.db.migration;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Applies a script built without a transaction whose concurrent index is left INVALID by an earlier failed build.
+ */
+public class SchemaMigrationRunnerTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private TestDatabase database;
+
+    private SchemaMigrationRunner runner;
+
+    @Before
+    public void setUpDatabase() throws SQLException, IOException {
+        database = TestDatabase.create();
+        final File script = folder.newFile("V001__index.sql");
+        Files.write(script.toPath(), ("--quora:no-transaction\n"
+                + "--the index of an earlier failed build is kept by IF NOT EXISTS\n"
+                + "CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS ITEM_VALUE_UK ON ITEM(value);\n").getBytes(StandardCharsets.UTF_8));
+        runner = new SchemaMigrationRunner(database.getDataSource(), "file:" + folder.getRoot().getAbsolutePath() + "/V*.sql");
+        execute("CREATE TABLE ITEM(value INTEGER)");
+        execute("INSERT INTO ITEM VALUES (1), (1)");
+        try {
+            execute("CREATE UNIQUE INDEX CONCURRENTLY ITEM_VALUE_UK ON ITEM(value)");
+            fail();
+        } catch (SQLException e) {
+            assertEquals("23505", e.getSQLState());
+        }
+    }
+
+    @After
+    public void dropDatabase() throws SQLException {
+        if (database != null) {
+            database.close();
+        }
+    }
+
+    private void execute(final String sql) throws SQLException {
+        try (Connection connection = database.getDataSource().getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private int appliedVersions() throws SQLException {
+        try (Connection connection = database.getDataSource().getConnection(); Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT count(*) FROM SCHEMA_VERSION")) {
+            resultSet.next();
+            return resultSet.getInt(1);
+        }
+    }
+
+    //This test case passes when a script leaving one of its concurrent indexes INVALID fails and is not recorded, and is applied once the index is rebuilt.
+    @Test
+    public void invalidIndexIsNotRecorded() throws SQLException {
+        try {
+            runner.migrate();
+            fail();
+        } catch (IllegalStateException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("item_value_uk"));
+        }
+        assertEquals(0, appliedVersions());
+
+        execute("DELETE FROM ITEM");
+        execute("DROP INDEX ITEM_VALUE_UK");
+        runner.migrate();
+        assertEquals(1, appliedVersions());
+    }
+}
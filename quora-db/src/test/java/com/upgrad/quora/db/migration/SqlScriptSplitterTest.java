@@ -0,0 +1,68 @@
+package com.upgrad.quora.db.migration;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+
+public class SqlScriptSplitterTest {
+
+    //This test case passes when statements are split on ';' and blank statements are dropped.
+    @Test
+    public void splitsOnDelimiter() {
+        assertEquals(Arrays.asList("CREATE TABLE A(id INTEGER)", "INSERT INTO A VALUES (1)"),
+                SqlScriptSplitter.split("CREATE TABLE A(id INTEGER);\n\nINSERT INTO A VALUES (1);\n;\n"));
+    }
+
+    //This test case passes when a last statement without a delimiter is kept.
+    @Test
+    public void keepsLastStatementWithoutDelimiter() {
+        assertEquals(Arrays.asList("SELECT 1", "SELECT 2"), SqlScriptSplitter.split("SELECT 1; SELECT 2"));
+    }
+
+    //This test case passes when comments are dropped, including the delimiters inside them.
+    @Test
+    public void dropsComments() {
+        assertEquals(Arrays.asList("SELECT 1", "SELECT 2"),
+                SqlScriptSplitter.split("--first; statement\nSELECT 1;\n/* second;\nstatement */ SELECT 2;"));
+    }
+
+    //This test case passes when delimiters inside quoted strings and identifiers, with escaped quotes, do not end the statement.
+    @Test
+    public void keepsQuotedDelimiters() {
+        assertEquals(Arrays.asList("INSERT INTO \"A;B\" VALUES ('it''s; here', '--no comment')", "SELECT 1"),
+                SqlScriptSplitter.split("INSERT INTO \"A;B\" VALUES ('it''s; here', '--no comment'); SELECT 1;"));
+    }
+
+    //This test case passes when a quote escaped by a backslash in an escape string does not end it, while a backslash keeps no special meaning in a standard string.
+    @Test
+    public void keepsEscapeStrings() {
+        assertEquals(Arrays.asList("INSERT INTO A VALUES (E'it\\'s; here', e'\\\\', 'C:\\')", "SELECT 'E''s;'", "SELECT 1"),
+                SqlScriptSplitter.split("INSERT INTO A VALUES (E'it\\'s; here', e'\\\\', 'C:\\'); SELECT 'E''s;'; SELECT 1;"));
+        // a word ending in E before a quote is not an escape string prefix
+        assertEquals(Arrays.asList("SELECT NAME'\\'", "SELECT 2"), SqlScriptSplitter.split("SELECT NAME'\\'; SELECT 2;"));
+    }
+
+    //This test case passes when function bodies and DO blocks in dollar quotes, tagged or not, are kept whole.
+    @Test
+    public void keepsDollarQuotedBodies() {
+        final String function = "CREATE FUNCTION F() RETURNS INTEGER AS $body$ BEGIN RETURN 1; END; $body$ LANGUAGE plpgsql";
+        final String block = "DO $$ BEGIN PERFORM 1; END $$";
+        assertEquals(Arrays.asList(function, block), SqlScriptSplitter.split(function + ";\n" + block + ";"));
+    }
+
+    //This test case passes when positional parameters like $1 are not taken for dollar quotes.
+    @Test
+    public void positionalParameterIsNotDollarQuote() {
+        assertEquals(Arrays.asList("PREPARE P(INTEGER) AS SELECT $1", "SELECT 2"),
+                SqlScriptSplitter.split("PREPARE P(INTEGER) AS SELECT $1; SELECT 2;"));
+    }
+
+    //This test case passes when a script made of comments only has no statement.
+    @Test
+    public void commentsOnly() {
+        assertEquals(Collections.emptyList(), SqlScriptSplitter.split("--quora:no-transaction\n/* nothing */\n"));
+    }
+}
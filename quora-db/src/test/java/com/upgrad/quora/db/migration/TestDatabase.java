@@ -0,0 +1,119 @@
+package com.upgrad.quora.db.migration;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.util.StreamUtils;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+
+/**
+ * Fresh database of a test class, dropped when it is closed. The databases are created in an embedded PostgreSQL started
+ * once per JVM, or in the server of the system property "quora.test.jdbc-url" (with "quora.test.jdbc-user" and
+ * "quora.test.jdbc-password") where the embedded one cannot run, e.g. as root.
+ */
+public final class TestDatabase implements AutoCloseable {
+
+    private static final String JDBC_URL_PROPERTY = "quora.test.jdbc-url";
+
+    private static EmbeddedPostgres embeddedPostgres;
+
+    private final String name;
+
+    private final DataSource dataSource;
+
+    private TestDatabase(final String name, final DataSource dataSource) {
+        this.name = name;
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * @return - an empty database
+     */
+    public static TestDatabase create() throws SQLException {
+        final String name = "quora_test_" + UUID.randomUUID().toString().replace("-", "");
+        execute(adminDataSource(), "CREATE DATABASE " + name);
+        return new TestDatabase(name, dataSource(name));
+    }
+
+    /**
+     * Sets up the database as the setup profile of quora-db does: schema, migrations and test data.
+     */
+    public TestDatabase setUp() throws SQLException {
+        executeScript("sql/quora.sql");
+        new SchemaMigrationRunner(dataSource).migrate();
+        executeScript("sql/quora_test.sql");
+        return this;
+    }
+
+    public void executeScript(final String path) throws SQLException {
+        final String script;
+        try {
+            script = StreamUtils.copyToString(new ClassPathResource(path).getInputStream(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        for (final String statement : SqlScriptSplitter.split(script)) {
+            execute(dataSource, statement);
+        }
+    }
+
+    public DataSource getDataSource() {
+        return dataSource;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        execute(adminDataSource(), "DROP DATABASE IF EXISTS " + name);
+    }
+
+    private static DataSource adminDataSource() {
+        final String jdbcUrl = System.getProperty(JDBC_URL_PROPERTY);
+        if (jdbcUrl != null && !jdbcUrl.isEmpty()) {
+            return new DriverManagerDataSource(jdbcUrl, System.getProperty("quora.test.jdbc-user", "postgres"),
+                    System.getProperty("quora.test.jdbc-password", "password"));
+        }
+        return embeddedPostgres().getPostgresDatabase();
+    }
+
+    private static DataSource dataSource(final String name) {
+        final String jdbcUrl = System.getProperty(JDBC_URL_PROPERTY);
+        if (jdbcUrl != null && !jdbcUrl.isEmpty()) {
+            return new DriverManagerDataSource(jdbcUrl.replaceFirst("/[^/?]*(\\?|$)", "/" + name + "$1"),
+                    System.getProperty("quora.test.jdbc-user", "postgres"), System.getProperty("quora.test.jdbc-password", "password"));
+        }
+        return embeddedPostgres().getDatabase("postgres", name);
+    }
+
+    private static synchronized EmbeddedPostgres embeddedPostgres() {
+        if (embeddedPostgres == null) {
+            try {
+                embeddedPostgres = EmbeddedPostgres.start();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            final EmbeddedPostgres started = embeddedPostgres;
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    started.close();
+                } catch (IOException e) {
+                    // the process exits anyway
+                }
+            }));
+        }
+        return embeddedPostgres;
+    }
+
+    private static void execute(final DataSource dataSource, final String sql) throws SQLException {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
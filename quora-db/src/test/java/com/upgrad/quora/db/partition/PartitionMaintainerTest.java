@@ -0,0 +1,92 @@
+package com.upgrad.quora.db.partition;
+
+import com.upgrad.quora.db.migration.TestDatabase;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PartitionMaintainerTest {
+
+    private TestDatabase database;
+
+    @Before
+    public void setUpDatabase() throws SQLException {
+        database = TestDatabase.create().setUp();
+    }
+
+    @After
+    public void dropDatabase() throws SQLException {
+        database.close();
+    }
+
+    private void execute(final String sql) throws SQLException {
+        try (Connection connection = database.getDataSource().getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private String queryForString(final String sql) throws SQLException {
+        try (Connection connection = database.getDataSource().getConnection(); Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(sql)) {
+            return resultSet.next() ? resultSet.getString(1) : null;
+        }
+    }
+
+    //This test case passes when the partitions of the coming months are created.
+    @Test
+    public void createsComingPartitions() throws SQLException {
+        final Clock clock = Clock.fixed(Instant.parse("2100-01-15T00:00:00Z"), ZoneOffset.UTC);
+        assertTrue(new PartitionMaintainer(database.getDataSource(), 2, 0, clock).maintain());
+        assertEquals("question_p2100_03", queryForString("SELECT to_regclass('question_p2100_03')"));
+        assertEquals("answer_p2100_03", queryForString("SELECT to_regclass('answer_p2100_03')"));
+    }
+
+    //This test case passes when the maintenance is skipped while another node holds the lock.
+    @Test
+    public void skipsWhileLocked() throws SQLException {
+        final Clock clock = Clock.fixed(Instant.parse("2100-01-15T00:00:00Z"), ZoneOffset.UTC);
+        try (Connection connection = database.getDataSource().getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("SELECT pg_advisory_lock(" + PartitionMaintainer.LOCK_KEY + ")");
+            assertFalse(new PartitionMaintainer(database.getDataSource(), 2, 0, clock).maintain());
+        }
+        assertEquals(null, queryForString("SELECT to_regclass('question_p2100_03')"));
+        assertTrue(new PartitionMaintainer(database.getDataSource(), 2, 0, clock).maintain());
+    }
+
+    //This test case passes when the partitions which fell out of the retention are detached, answers first.
+    @Test
+    public void detachesPartitionsOutOfRetention() throws SQLException {
+        final Clock clock = Clock.fixed(Instant.parse("2018-12-15T00:00:00Z"), ZoneOffset.UTC);
+        assertTrue(new PartitionMaintainer(database.getDataSource(), 0, 2, clock).maintain());
+        assertEquals("0", queryForString("SELECT count(*) FROM pg_inherits WHERE inhrelid = 'question_p2018_09'::REGCLASS"));
+        assertEquals("0", queryForString("SELECT count(*) FROM QUESTION WHERE id = 1024"));
+    }
+
+    //This test case passes when the answers of a detached partition are taken off the answer count of their question.
+    @Test
+    public void detachedAnswersAreUncounted() throws SQLException {
+        execute("SELECT QUORA_CREATE_MONTHLY_PARTITIONS('QUESTION', '2018-11-01', '2018-11-01')");
+        execute("SELECT QUORA_CREATE_MONTHLY_PARTITIONS('ANSWER', '2018-11-01', '2018-11-01')");
+        execute("INSERT INTO QUESTION(id, uuid, content, date, user_id) VALUES (2000, 'question_uuid', 'content', '2018-09-20', 1026)");
+        execute("INSERT INTO ANSWER(uuid, ans, date, user_id, question_id) VALUES "
+                + "('answer_uuid1', 'answer1', '2018-09-21', 1026, 2000), ('answer_uuid2', 'answer2', '2018-11-02', 1026, 2000)");
+        assertEquals("2", queryForString("SELECT answer_count FROM QUESTION WHERE id = 2000"));
+        final Clock clock = Clock.fixed(Instant.parse("2018-11-15T00:00:00Z"), ZoneOffset.UTC);
+        assertTrue(new PartitionMaintainer(database.getDataSource(), 0, 1, clock).maintain());
+        assertEquals("0", queryForString("SELECT count(*) FROM pg_inherits WHERE inhrelid = 'answer_p2018_09'::REGCLASS"));
+        // the question stays attached as long as one of its answers is
+        assertEquals("1", queryForString("SELECT answer_count FROM QUESTION WHERE id = 2000"));
+    }
+}
@@ -0,0 +1,53 @@
+package com.upgrad.quora.service;
+
+import com.upgrad.quora.db.partition.PartitionMaintainer;
+import com.upgrad.quora.service.business.ContentVersions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+
+/**
+ * Keeps the monthly partitions of the QUESTION and ANSWER tables ahead of the current date, once the application has
+ * started and then every day. Set "quora.db.partition.maintenance.enabled" to false to maintain them outside of the
+ * application. A failed maintenance is logged and retried on the next run, it does not stop the application: the
+ * partitions are created months ahead of their use.
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "quora.db.partition.maintenance.enabled", matchIfMissing = true)
+public class PartitionMaintenanceConfiguration {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PartitionMaintenanceConfiguration.class);
+
+    private final PartitionMaintainer partitionMaintainer;
+
+    private final ContentVersions contentVersions;
+
+    public PartitionMaintenanceConfiguration(final DataSource dataSource, final ContentVersions contentVersions,
+                                             @Value("${quora.db.partition.months-ahead:3}") final int monthsAhead,
+                                             @Value("${quora.db.partition.retention-months:0}") final int retentionMonths) {
+        this.partitionMaintainer = new PartitionMaintainer(dataSource, monthsAhead, retentionMonths);
+        this.contentVersions = contentVersions;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${quora.db.partition.maintenance.cron:0 0 3 * * *}")
+    public void maintainPartitions() {
+        try {
+            if (partitionMaintainer.maintain()) {
+                // detached partitions take their questions and answers out of the responses
+                contentVersions.allChanged();
+            }
+        } catch (RuntimeException e) {
+            LOGGER.error("Partition maintenance failed", e);
+        }
+    }
+}
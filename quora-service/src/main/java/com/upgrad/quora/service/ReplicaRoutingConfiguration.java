@@ -0,0 +1,65 @@
+package com.upgrad.quora.service;
+
+import com.upgrad.quora.service.datasource.ReplicaRoutingDataSource;
+import com.upgrad.quora.service.datasource.ReplicaRoutingProperties;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Routes read-only transactions to the read replicas configured under "quora.datasource.replicas" and everything else
+ * to the primary of "spring.datasource". Each replica gets a pool of its own with the settings of the primary pool.
+ * Without replicas, the data source of Spring Boot is used unchanged.
+ */
+@Configuration
+@ConditionalOnProperty(name = "quora.datasource.replicas[0].url")
+@EnableConfigurationProperties(ReplicaRoutingProperties.class)
+@EnableScheduling
+public class ReplicaRoutingConfiguration {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(final DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public ReplicaRoutingDataSource replicaRoutingDataSource(final HikariDataSource primaryDataSource,
+                                                             final ReplicaRoutingProperties properties) {
+        final List<ReplicaRoutingDataSource.Replica> replicas = new ArrayList<>();
+        for (final ReplicaRoutingProperties.Replica replica : properties.getReplicas()) {
+            final String name = "replica-" + (replicas.size() + 1);
+            final HikariConfig config = new HikariConfig();
+            primaryDataSource.copyStateTo(config);
+            config.setPoolName(primaryDataSource.getPoolName() == null ? name : primaryDataSource.getPoolName() + "-" + name);
+            config.setJdbcUrl(replica.getUrl());
+            if (replica.getUsername() != null) {
+                config.setUsername(replica.getUsername());
+                config.setPassword(replica.getPassword());
+            }
+            config.setReadOnly(true);
+            // a replica that is down at startup is skipped by the lag check instead of failing the application
+            config.setInitializationFailTimeout(-1);
+            replicas.add(new ReplicaRoutingDataSource.Replica(name, new HikariDataSource(config), replica.getWeight()));
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, properties.getMaxLagSeconds());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(final ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+}
@@ -0,0 +1,31 @@
+package com.upgrad.quora.service;
+
+import com.upgrad.quora.db.migration.SchemaMigrationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.data.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Migrates the database schema with the versioned scripts of quora-db when the application starts, before the
+ * entity manager factory is created. Set "quora.db.migration.enabled" to false to manage the schema outside of the
+ * application.
+ */
+@Configuration
+@ConditionalOnProperty(name = "quora.db.migration.enabled", matchIfMissing = true)
+public class SchemaMigrationConfiguration {
+
+    static final String SCHEMA_MIGRATION_RUNNER = "schemaMigrationRunner";
+
+    @Bean(name = SCHEMA_MIGRATION_RUNNER, initMethod = "migrate")
+    public SchemaMigrationRunner schemaMigrationRunner(final DataSource dataSource) {
+        return new SchemaMigrationRunner(dataSource);
+    }
+
+    @Bean
+    public static EntityManagerFactoryDependsOnPostProcessor entityManagerFactoryDependsOnSchemaMigration() {
+        return new EntityManagerFactoryDependsOnPostProcessor(SCHEMA_MIGRATION_RUNNER);
+    }
+}
@@ -0,0 +1,242 @@
+package com.upgrad.quora.service.business;
+
+import com.upgrad.quora.service.common.GenericErrorCode;
+import com.upgrad.quora.service.common.ServiceErrorCode;
+import com.upgrad.quora.service.common.UnexpectedException;
+import com.upgrad.quora.service.dao.AnswerDao;
+import com.upgrad.quora.service.dao.QuestionDao;
+import com.upgrad.quora.service.dao.UserDao;
+import com.upgrad.quora.service.entity.AnswerEntity;
+import com.upgrad.quora.service.entity.QuestionEntity;
+import com.upgrad.quora.service.entity.UserEntity;
+import com.upgrad.quora.service.exception.AuthorizationFailedException;
+import com.upgrad.quora.service.exception.InvalidQuestionException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * This class holds the business logic of the answer endpoints.
+ */
+@Service
+public class AnswerBusinessService {
+
+    private static final int MAX_ANSWER_LENGTH = 255;
+
+    @Autowired
+    private AuthorizationService authorizationService;
+
+    @Autowired
+    private QuestionDao questionDao;
+
+    @Autowired
+    private AnswerDao answerDao;
+
+    @Autowired
+    private UserDao userDao;
+
+    @Autowired
+    private WriteCoalescer writeCoalescer;
+
+    @Autowired
+    private ContentVersions contentVersions;
+
+    @Value("${quora.answer.page-size:100}")
+    private int defaultPageSize;
+
+    @Value("${quora.answer.max-page-size:1000}")
+    private int maxPageSize;
+
+    @Value("${quora.answer.bulk.max-questions:100}")
+    private int maxBulkQuestions;
+
+    @Value("${quora.answer.batch.max-size:1000}")
+    private int maxBatchSize;
+
+    /**
+     * Authorizes the reader of the answers, once per request, before their ETag is compared or they are read.
+     *
+     * @param accessToken - access token sent in the authorization header
+     * @return - the signed in user
+     * @throws AuthorizationFailedException - if the user has not signed in or is signed out
+     */
+    public AuthorizedUser authorizeReader(final String accessToken) throws AuthorizationFailedException {
+        return authorizationService.authorize(accessToken, "User is signed out.Sign in first to get the answers");
+    }
+
+    /**
+     * @param questionUuids - uuids of the questions
+     * @return - ETag of the answers to all the questions, null when ETags are disabled
+     */
+    public String getAllAnswersToQuestionsTag(final List<String> questionUuids) {
+        return contentVersions.answersTag(new LinkedHashSet<>(questionUuids));
+    }
+
+    /**
+     * Reads the first page of the answers to each of several questions with one query on the question ids. The following
+     * pages of a question are read with its next cursor from the answers of that question. The reader is authorized
+     * beforehand with {@link #authorizeReader(String)}.
+     *
+     * @param questionUuids - uuids of the questions
+     * @param limit         - requested page size of each question, null for the default page size
+     * @return - the first page of the answers of each existing question, newest first, in the order of the uuids; unknown
+     * uuids are left out
+     * @throws UnexpectedException - GEN-004 if there are more questions than "quora.answer.bulk.max-questions"
+     */
+    @Transactional(readOnly = true)
+    public Map<QuestionEntity, KeysetPage<AnswerEntity>> getAllAnswersToQuestions(final List<String> questionUuids, final Integer limit) {
+        final Set<String> uuids = new LinkedHashSet<>(questionUuids);
+        if (uuids.size() > maxBulkQuestions) {
+            throw new UnexpectedException(GenericErrorCode.GEN_004, String.valueOf(uuids.size()), String.valueOf(maxBulkQuestions));
+        }
+        final Map<QuestionEntity, KeysetPage<AnswerEntity>> answersOfQuestions = new LinkedHashMap<>();
+        if (uuids.isEmpty()) {
+            return answersOfQuestions;
+        }
+        final Map<String, QuestionEntity> questionsByUuid = new HashMap<>();
+        for (final QuestionEntity questionEntity : questionDao.getQuestionsByUuids(uuids)) {
+            questionsByUuid.put(questionEntity.getUuid(), questionEntity);
+        }
+        final Map<Integer, List<AnswerEntity>> answersByQuestionId = new LinkedHashMap<>();
+        for (final String uuid : uuids) {
+            final QuestionEntity questionEntity = questionsByUuid.get(uuid);
+            if (questionEntity != null) {
+                answersByQuestionId.put(questionEntity.getId(), new ArrayList<>());
+            }
+        }
+        final int pageSize = pageSize(limit);
+        if (!answersByQuestionId.isEmpty()) {
+            for (final AnswerEntity answerEntity : answerDao.getAnswersByQuestions(answersByQuestionId.keySet(), pageSize + 1)) {
+                answersByQuestionId.get(answerEntity.getQuestion().getId()).add(answerEntity);
+            }
+        }
+        for (final String uuid : uuids) {
+            final QuestionEntity questionEntity = questionsByUuid.get(uuid);
+            if (questionEntity != null) {
+                answersOfQuestions.put(questionEntity, KeysetPage.of(answersByQuestionId.get(questionEntity.getId()), pageSize,
+                        answer -> new PageCursor(answer.getDate(), answer.getId())));
+            }
+        }
+        return answersOfQuestions;
+    }
+
+    /**
+     * Creates the answers of a batch request to one question on behalf of one user who is authorized once for the whole
+     * batch. The question is read and the valid answers are inserted with JDBC batches in one mutation of the
+     * {@link WriteCoalescer}.
+     *
+     * @param questionUuid - uuid of the question
+     * @param accessToken  - access token sent in the authorization header
+     * @param answers      - content of each answer
+     * @return - the result of each answer, at the index of its content
+     * @throws AuthorizationFailedException - if the user has not signed in or is signed out
+     * @throws InvalidQuestionException     - if the question does not exist
+     * @throws UnexpectedException          - GEN-004 if the batch has more answers than "quora.answer.batch.max-size"
+     */
+    public List<BatchItemResult<AnswerEntity>> createAnswers(final String questionUuid, final String accessToken, final List<String> answers)
+            throws AuthorizationFailedException, InvalidQuestionException {
+        final AuthorizedUser authorizedUser = authorizationService.authorize(accessToken, "User is signed out.Sign in first to post an answer");
+        if (answers.size() > maxBatchSize) {
+            throw new UnexpectedException(GenericErrorCode.GEN_004, String.valueOf(answers.size()), String.valueOf(maxBatchSize));
+        }
+        final UserEntity user = userDao.getUserByUuid(authorizedUser.getUserUuid());
+        if (user == null) {
+            throw new AuthorizationFailedException(ServiceErrorCode.ATHR_001);
+        }
+
+        final List<BatchItemResult<AnswerEntity>> results = new ArrayList<>(answers.size());
+        final List<AnswerEntity> answerEntities = new ArrayList<>(answers.size());
+        final ZonedDateTime now = ZonedDateTime.now();
+        for (final String answer : answers) {
+            if (answer == null || answer.trim().isEmpty() || answer.length() > MAX_ANSWER_LENGTH) {
+                results.add(BatchItemResult.failure(ServiceErrorCode.ANS_002, "The answer must have 1 to " + MAX_ANSWER_LENGTH + " characters"));
+                continue;
+            }
+            final AnswerEntity answerEntity = new AnswerEntity();
+            answerEntity.setUuid(UUID.randomUUID().toString());
+            answerEntity.setAnswer(answer);
+            answerEntity.setDate(now);
+            answerEntity.setUser(user);
+            answerEntities.add(answerEntity);
+            results.add(BatchItemResult.success(answerEntity));
+        }
+        writeCoalescer.execute(answerEntities.size(), () -> {
+            final QuestionEntity questionEntity = questionDao.getQuestionByUuid(questionUuid);
+            if (questionEntity == null) {
+                throw new InvalidQuestionException(ServiceErrorCode.QUES_001);
+            }
+            for (final AnswerEntity answerEntity : answerEntities) {
+                answerEntity.setQuestion(questionEntity);
+            }
+            if (!answerEntities.isEmpty()) {
+                answerDao.createAnswers(answerEntities);
+            }
+            return null;
+        });
+        if (!answerEntities.isEmpty()) {
+            contentVersions.answersChanged(questionUuid);
+        }
+        return results;
+    }
+
+    /**
+     * @param questionUuid - uuid of the question
+     * @return - ETag of the answers to the question, null when ETags are disabled
+     */
+    public String getAllAnswersToQuestionTag(final String questionUuid) {
+        return contentVersions.answersTag(questionUuid);
+    }
+
+    /**
+     * The reader is authorized beforehand with {@link #authorizeReader(String)}.
+     *
+     * @param questionUuid - uuid of the question
+     * @param cursor       - cursor of the page handed out with the previous page, null for the first page
+     * @param limit        - requested page size, null for the default page size
+     * @return - the question and a page of its answers, newest first
+     * @throws InvalidQuestionException - if the question does not exist
+     */
+    @Transactional(readOnly = true)
+    public AnswersOfQuestion getAllAnswersToQuestion(final String questionUuid, final String cursor, final Integer limit)
+            throws InvalidQuestionException {
+        final QuestionEntity questionEntity = questionDao.getQuestionByUuid(questionUuid);
+        if (questionEntity == null) {
+            throw new InvalidQuestionException(ServiceErrorCode.QUES_001, "The question with entered uuid whose details are to be seen does not exist");
+        }
+        return new AnswersOfQuestion(questionEntity, getAnswersPage(questionEntity, PageCursor.decode(cursor), pageSize(limit)));
+    }
+
+    /**
+     * @param questionEntity - question the answers belong to
+     * @param cursor         - position after which the page starts, null for the first page
+     * @param pageSize       - number of answers of the page
+     * @return - a page of the answers to the question, newest first
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<AnswerEntity> getAnswersPage(final QuestionEntity questionEntity, final PageCursor cursor, final int pageSize) {
+        return KeysetPage.of(answerDao.getAnswersByQuestion(questionEntity.getId(), cursor, pageSize + 1), pageSize,
+                answer -> new PageCursor(answer.getDate(), answer.getId()));
+    }
+
+    /**
+     * @param limit - requested page size, null for the default page size
+     * @return - page size within [1, max page size]
+     */
+    public int pageSize(final Integer limit) {
+        if (limit == null) {
+            return defaultPageSize;
+        }
+        return Math.max(1, Math.min(limit, maxPageSize));
+    }
+}
@@ -0,0 +1,27 @@
+package com.upgrad.quora.service.business;
+
+import com.upgrad.quora.service.entity.AnswerEntity;
+import com.upgrad.quora.service.entity.QuestionEntity;
+
+/**
+ * A page of the answers to a question, together with the question which is read only once per page.
+ */
+public final class AnswersOfQuestion {
+
+    private final QuestionEntity question;
+
+    private final KeysetPage<AnswerEntity> answers;
+
+    public AnswersOfQuestion(final QuestionEntity question, final KeysetPage<AnswerEntity> answers) {
+        this.question = question;
+        this.answers = answers;
+    }
+
+    public QuestionEntity getQuestion() {
+        return question;
+    }
+
+    public KeysetPage<AnswerEntity> getAnswers() {
+        return answers;
+    }
+}
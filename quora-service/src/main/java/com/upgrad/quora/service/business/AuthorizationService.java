@@ -0,0 +1,198 @@
+package com.upgrad.quora.service.business;
+
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.upgrad.quora.service.common.ServiceErrorCode;
+import com.upgrad.quora.service.dao.UserAuthDao;
+import com.upgrad.quora.service.dao.UserRevocationDao;
+import com.upgrad.quora.service.datasource.ReplicaRoutingDataSource;
+import com.upgrad.quora.service.entity.UserAuthEntity;
+import com.upgrad.quora.service.entity.UserRevocationEntity;
+import com.upgrad.quora.service.exception.AuthorizationFailedException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+/**
+ * This class resolves the access token sent in the authorization header of the protected endpoints.
+ */
+@Service
+public class AuthorizationService {
+
+    @Autowired
+    private UserAuthDao userAuthDao;
+
+    @Autowired
+    private UserRevocationDao userRevocationDao;
+
+    @Autowired
+    private UserAuthTokenCache userAuthTokenCache;
+
+    /**
+     * Null unless tokens are verified statelessly with the deny-list enabled.
+     */
+    @Autowired(required = false)
+    private RevokedTokenRegistry revokedTokenRegistry;
+
+    /**
+     * Null unless read-only transactions are routed to read replicas.
+     */
+    @Autowired(required = false)
+    private ReplicaRoutingDataSource replicaRoutingDataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${quora.auth.token-verification:DATABASE}")
+    private TokenVerificationMode verificationMode;
+
+    @Value("${quora.auth.jwt-secret:}")
+    private String jwtSecret;
+
+    private JwtTokenProvider statelessTokenProvider;
+
+    /**
+     * Reads USER_AUTH from the primary inside a read-only transaction, null without read replicas.
+     */
+    private TransactionTemplate primaryReadTemplate;
+
+    @PostConstruct
+    public void init() {
+        if (verificationMode == TokenVerificationMode.STATELESS) {
+            statelessTokenProvider = new JwtTokenProvider(jwtSecret.isEmpty() ? null : jwtSecret);
+        }
+        if (replicaRoutingDataSource != null) {
+            primaryReadTemplate = new TransactionTemplate(transactionManager);
+            primaryReadTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        }
+    }
+
+    /**
+     * @param accessToken      - access token sent in the authorization header
+     * @param signedOutMessage - error message of the endpoint for a signed out user
+     * @return - the user the access token belongs to
+     * @throws AuthorizationFailedException - ATHR-001 if the token was never issued, ATHR-002 if the user is signed out
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public AuthorizedUser authorize(final String accessToken, final String signedOutMessage) throws AuthorizationFailedException {
+        AuthorizedUser authorizedUser = userAuthTokenCache.get(accessToken);
+        if (authorizedUser == null) {
+            authorizedUser = verificationMode == TokenVerificationMode.STATELESS ? verify(accessToken) : lookup(accessToken);
+            userAuthTokenCache.put(accessToken, authorizedUser);
+        }
+        if (authorizedUser.isSignedOut()) {
+            throw new AuthorizationFailedException(ServiceErrorCode.ATHR_002, signedOutMessage);
+        }
+        return authorizedUser;
+    }
+
+    /**
+     * Forgets the access token once it is signed out, so that the next request carrying it sees LOGOUT_AT.
+     *
+     * @param userAuthEntity - USER_AUTH row of the signed out access token
+     */
+    public void revoke(final UserAuthEntity userAuthEntity) {
+        userAuthTokenCache.invalidate(userAuthEntity.getAccessToken());
+        if (revokedTokenRegistry != null) {
+            revokedTokenRegistry.revoke(userAuthEntity.getAccessToken(), userAuthEntity.getLogoutAt(), userAuthEntity.getExpiresAt());
+        }
+    }
+
+    /**
+     * Rejects every token of a deleted user. To be called by the user deletion flow in the transaction deleting the user;
+     * the tree has no such flow yet. The revocation is stored in USER_REVOCATION with the deletion, so that it survives
+     * a restart and reaches the other instances, and this instance rejects the tokens once the transaction has committed.
+     *
+     * @param userUuid      - uuid of the deleted user
+     * @param lastExpiresAt - latest EXPIRES_AT of the USER_AUTH rows of the user, read before they were deleted, null if
+     *                      the user never signed in
+     */
+    @Transactional
+    public void revokeUser(final String userUuid, final ZonedDateTime lastExpiresAt) {
+        final ZonedDateTime revokedAt = ZonedDateTime.now();
+        if (lastExpiresAt != null) {
+            final UserRevocationEntity userRevocationEntity = new UserRevocationEntity();
+            userRevocationEntity.setUserUuid(userUuid);
+            userRevocationEntity.setRevokedAt(revokedAt);
+            userRevocationEntity.setExpiresAt(lastExpiresAt);
+            userRevocationDao.revokeUser(userRevocationEntity);
+        }
+        final Runnable revoke = () -> {
+            userAuthTokenCache.invalidateUser(userUuid);
+            if (revokedTokenRegistry != null && lastExpiresAt != null) {
+                revokedTokenRegistry.revokeUser(userUuid, revokedAt, lastExpiresAt);
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    revoke.run();
+                }
+            });
+        } else {
+            revoke.run();
+        }
+    }
+
+    /**
+     * @return - the provider signing tokens with the application wide secret when tokens are verified statelessly, null otherwise
+     */
+    public JwtTokenProvider getStatelessTokenProvider() {
+        return statelessTokenProvider;
+    }
+
+    private AuthorizedUser lookup(final String accessToken) throws AuthorizationFailedException {
+        final UserAuthEntity userAuthEntity = getUserAuth(accessToken);
+        if (userAuthEntity == null) {
+            throw new AuthorizationFailedException(ServiceErrorCode.ATHR_001);
+        }
+        return AuthorizedUser.of(userAuthEntity);
+    }
+
+    private AuthorizedUser verify(final String accessToken) throws AuthorizationFailedException {
+        final DecodedJWT decodedJWT = statelessTokenProvider.verifyToken(accessToken);
+        if (decodedJWT.getExpiresAt() == null || decodedJWT.getAudience() == null || decodedJWT.getAudience().isEmpty()) {
+            throw new AuthorizationFailedException(ServiceErrorCode.ATHR_001);
+        }
+        final String userUuid = decodedJWT.getAudience().get(0);
+        final ZonedDateTime expiresAt = ZonedDateTime.ofInstant(decodedJWT.getExpiresAt().toInstant(), ZoneId.systemDefault());
+        final ZonedDateTime logoutAt;
+        if (revokedTokenRegistry != null) {
+            if (revokedTokenRegistry.isUserRevoked(userUuid)) {
+                throw new AuthorizationFailedException(ServiceErrorCode.ATHR_001);
+            }
+            logoutAt = revokedTokenRegistry.getLogoutAt(decodedJWT.getKeyId());
+        } else {
+            // without the deny-list the USER_AUTH row is read; it is gone once the user is deleted
+            final UserAuthEntity userAuthEntity = getUserAuth(accessToken);
+            if (userAuthEntity == null) {
+                throw new AuthorizationFailedException(ServiceErrorCode.ATHR_001);
+            }
+            logoutAt = userAuthEntity.getLogoutAt();
+        }
+        return new AuthorizedUser(userUuid, decodedJWT.getClaim(JwtTokenProvider.ROLE_CLAIM).asString(), expiresAt, logoutAt);
+    }
+
+    /**
+     * Reads the USER_AUTH row from the primary: a replica may not have the row of a fresh sign in or the LOGOUT_AT of a
+     * sign out yet. Inside a read-only transaction, which is routed to a replica, the row is read in a transaction of
+     * its own.
+     */
+    private UserAuthEntity getUserAuth(final String accessToken) {
+        if (primaryReadTemplate != null && TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return primaryReadTemplate.execute(status -> userAuthDao.getUserAuthByAccessToken(accessToken));
+        }
+        return userAuthDao.getUserAuthByAccessToken(accessToken);
+    }
+}
@@ -0,0 +1,53 @@
+package com.upgrad.quora.service.business;
+
+import com.upgrad.quora.service.entity.UserAuthEntity;
+
+import java.time.ZonedDateTime;
+
+/**
+ * Immutable view of a resolved access token: the user it belongs to and the validity window of the token.
+ * Instances are held by {@link UserAuthTokenCache} so that they can be shared between request threads.
+ */
+public final class AuthorizedUser {
+
+    private final String userUuid;
+    private final String role;
+    private final ZonedDateTime expiresAt;
+    private final ZonedDateTime logoutAt;
+
+    public AuthorizedUser(final String userUuid, final String role, final ZonedDateTime expiresAt, final ZonedDateTime logoutAt) {
+        this.userUuid = userUuid;
+        this.role = role;
+        this.expiresAt = expiresAt;
+        this.logoutAt = logoutAt;
+    }
+
+    /**
+     * @param userAuthEntity - USER_AUTH row joined with its user
+     * @return - snapshot of the USER_AUTH row
+     */
+    public static AuthorizedUser of(final UserAuthEntity userAuthEntity) {
+        return new AuthorizedUser(userAuthEntity.getUser().getUuid(), userAuthEntity.getUser().getRole(),
+                userAuthEntity.getExpiresAt(), userAuthEntity.getLogoutAt());
+    }
+
+    public String getUserUuid() {
+        return userUuid;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public ZonedDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public ZonedDateTime getLogoutAt() {
+        return logoutAt;
+    }
+
+    public boolean isSignedOut() {
+        return logoutAt != null;
+    }
+}
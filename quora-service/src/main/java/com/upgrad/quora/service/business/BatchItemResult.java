@@ -0,0 +1,55 @@
+package com.upgrad.quora.service.business;
+
+import com.upgrad.quora.service.common.ErrorCode;
+
+/**
+ * Outcome of one item of a batch request: the created item, or the code and message of the error which prevented it.
+ */
+public final class BatchItemResult<T> {
+
+    private final T item;
+
+    private final String code;
+
+    private final String errorMessage;
+
+    private BatchItemResult(final T item, final String code, final String errorMessage) {
+        this.item = item;
+        this.code = code;
+        this.errorMessage = errorMessage;
+    }
+
+    public static <T> BatchItemResult<T> success(final T item) {
+        return new BatchItemResult<>(item, null, null);
+    }
+
+    public static <T> BatchItemResult<T> failure(final String code, final String errorMessage) {
+        return new BatchItemResult<>(null, code, errorMessage);
+    }
+
+    public static <T> BatchItemResult<T> failure(final ErrorCode errorCode, final String errorMessage) {
+        return new BatchItemResult<>(null, errorCode.getCode(), errorMessage);
+    }
+
+    public boolean isSuccess() {
+        return code == null;
+    }
+
+    /**
+     * @return - the created item, null if the item failed
+     */
+    public T getItem() {
+        return item;
+    }
+
+    /**
+     * @return - error code, null if the item succeeded
+     */
+    public String getCode() {
+        return code;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+}
@@ -0,0 +1,67 @@
+package com.upgrad.quora.service.business;
+
+import com.upgrad.quora.service.common.GenericErrorCode;
+import com.upgrad.quora.service.common.UnexpectedException;
+import com.upgrad.quora.service.dao.UserDao;
+import com.upgrad.quora.service.entity.UserEntity;
+import com.upgrad.quora.service.exception.AuthorizationFailedException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * This class holds the business logic of the user profile endpoints.
+ */
+@Service
+public class CommonBusinessService {
+
+    @Autowired
+    private AuthorizationService authorizationService;
+
+    @Autowired
+    private UserDao userDao;
+
+    @Value("${quora.user.batch.max-size:100}")
+    private int maxBatchSize;
+
+    /**
+     * Reads the profiles of several users with one query on the uuids.
+     *
+     * @param userUuids   - uuids of the users
+     * @param accessToken - access token sent in the authorization header
+     * @return - the users which exist by uuid, in the order of the uuids; unknown uuids are left out
+     * @throws AuthorizationFailedException - if the user has not signed in or is signed out
+     * @throws UnexpectedException          - GEN-004 if there are more users than "quora.user.batch.max-size"
+     */
+    @Transactional(readOnly = true)
+    public Map<String, UserEntity> getUsers(final List<String> userUuids, final String accessToken) throws AuthorizationFailedException {
+        authorizationService.authorize(accessToken, "User is signed out.Sign in first to get user details");
+        final Set<String> uuids = new LinkedHashSet<>(userUuids);
+        if (uuids.size() > maxBatchSize) {
+            throw new UnexpectedException(GenericErrorCode.GEN_004, String.valueOf(uuids.size()), String.valueOf(maxBatchSize));
+        }
+        final Map<String, UserEntity> users = new LinkedHashMap<>();
+        if (uuids.isEmpty()) {
+            return users;
+        }
+        final Map<String, UserEntity> usersByUuid = new HashMap<>();
+        for (final UserEntity userEntity : userDao.getUsersByUuids(uuids)) {
+            usersByUuid.put(userEntity.getUuid(), userEntity);
+        }
+        for (final String uuid : uuids) {
+            final UserEntity userEntity = usersByUuid.get(uuid);
+            if (userEntity != null) {
+                users.put(uuid, userEntity);
+            }
+        }
+        return users;
+    }
+}
@@ -0,0 +1,203 @@
+package com.upgrad.quora.service.business;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * In-memory version counters of the question feed and of the answers of each question, from which the strong ETags of
+ * the read endpoints are built; the {@link QuestionFeedCache} is told about the same changes. A counter is bumped after
+ * the commit of every write through this application, so a tag read before the data it describes never outlives the
+ * data. The answers of the questions share a fixed number of counters, picked by the hash of the question uuid: a write
+ * to one question also changes the tag of the questions sharing its counter, which costs them a full response but never
+ * a stale one.
+ * <p>
+ * Writes made by other application instances or outside of the application are not seen, so ETags are only enabled when
+ * "quora.single-writer" declares this instance the only writer, or explicitly with "quora.etag.enabled". When read
+ * replicas are configured, every version is changed again once the replicas may have caught up with a write, since a
+ * read routed to a lagging replica can return the data before it.
+ */
+@Component
+public class ContentVersions {
+
+    private final boolean enabled;
+
+    private final String epoch = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+
+    private final AtomicLong questions = new AtomicLong();
+
+    private final AtomicLongArray answers;
+
+    private final long replicaLagMillis;
+
+    private final ScheduledExecutorService replicaCatchUp;
+
+    private final AtomicBoolean catchUpPending = new AtomicBoolean();
+
+    private volatile long lastWriteMillis;
+
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    public ContentVersions(@Value("${quora.etag.enabled:${quora.single-writer:false}}") final boolean enabled,
+                           @Value("${quora.etag.answer-counters:4096}") final int answerCounters,
+                           @Value("${quora.datasource.replicas[0].url:}") final String replicaUrl,
+                           @Value("${quora.datasource.max-lag-seconds:5}") final long maxLagSeconds) {
+        this.enabled = enabled;
+        this.answers = new AtomicLongArray(Integer.highestOneBit(Math.max(1, answerCounters)));
+        if (!replicaUrl.isEmpty()) {
+            this.replicaLagMillis = TimeUnit.SECONDS.toMillis(maxLagSeconds) + 1000;
+            this.replicaCatchUp = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                final Thread thread = new Thread(runnable, "content-versions");
+                thread.setDaemon(true);
+                return thread;
+            });
+        } else {
+            this.replicaLagMillis = 0;
+            this.replicaCatchUp = null;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (replicaCatchUp != null) {
+            replicaCatchUp.shutdownNow();
+        }
+    }
+
+    /**
+     * @param listener - called after every change, whether or not ETags are enabled
+     */
+    public void addListener(final Listener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * @return - ETag of the question feed, null when ETags are disabled
+     */
+    public String questionsTag() {
+        return enabled ? tag(questions.get()) : null;
+    }
+
+    /**
+     * @param questionUuid - uuid of the question
+     * @return - ETag of the answers to the question, null when ETags are disabled
+     */
+    public String answersTag(final String questionUuid) {
+        return enabled ? tag(answers.get(index(questionUuid))) : null;
+    }
+
+    /**
+     * @param questionUuids - uuids of the questions
+     * @return - ETag of the answers to all the questions, null when ETags are disabled
+     */
+    public String answersTag(final Collection<String> questionUuids) {
+        if (!enabled) {
+            return null;
+        }
+        long version = 1;
+        for (final String questionUuid : questionUuids) {
+            version = 31 * version + answers.get(index(questionUuid));
+        }
+        return tag(version);
+    }
+
+    /**
+     * Called once questions have been committed.
+     */
+    public void questionsChanged() {
+        questions.incrementAndGet();
+        for (final Listener listener : listeners) {
+            listener.questionsChanged();
+        }
+        replicasBehind();
+    }
+
+    /**
+     * Called once answers to the question have been committed; the answer count of the question feed changes as well.
+     *
+     * @param questionUuid - uuid of the question
+     */
+    public void answersChanged(final String questionUuid) {
+        answers.incrementAndGet(index(questionUuid));
+        questions.incrementAndGet();
+        for (final Listener listener : listeners) {
+            listener.answersChanged(questionUuid);
+        }
+        replicasBehind();
+    }
+
+    /**
+     * Called once questions or answers may have been removed, e.g. by the partition maintenance.
+     */
+    public void allChanged() {
+        questions.incrementAndGet();
+        for (int i = 0; i < answers.length(); i++) {
+            answers.incrementAndGet(i);
+        }
+        for (final Listener listener : listeners) {
+            listener.questionsChanged();
+        }
+    }
+
+    private void replicasBehind() {
+        if (replicaCatchUp == null) {
+            return;
+        }
+        lastWriteMillis = System.currentTimeMillis();
+        if (catchUpPending.compareAndSet(false, true)) {
+            replicaCatchUp.schedule(this::catchUp, replicaLagMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void catchUp() {
+        final long wait = lastWriteMillis + replicaLagMillis - System.currentTimeMillis();
+        if (wait > 0) {
+            // a later write has to be waited for as well
+            replicaCatchUp.schedule(this::catchUp, wait, TimeUnit.MILLISECONDS);
+            return;
+        }
+        catchUpPending.set(false);
+        allChanged();
+        if (lastWriteMillis + replicaLagMillis > System.currentTimeMillis() && catchUpPending.compareAndSet(false, true)) {
+            replicaCatchUp.schedule(this::catchUp, replicaLagMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private int index(final String questionUuid) {
+        final int hash = questionUuid.hashCode();
+        return (hash ^ (hash >>> 16)) & (answers.length() - 1);
+    }
+
+    private String tag(final long version) {
+        return "\"" + epoch + "-" + Long.toString(version, 36) + "\"";
+    }
+
+    /**
+     * Told about the changes of the content, e.g. to invalidate what was read before them.
+     */
+    public interface Listener {
+
+        /**
+         * Called once questions have been committed or removed; any page of the question feed may have changed.
+         */
+        void questionsChanged();
+
+        /**
+         * Called once answers to the question have been committed; only the answer count of that question changed.
+         *
+         * @param questionUuid - uuid of the question
+         */
+        void answersChanged(String questionUuid);
+    }
+}
@@ -1,12 +1,17 @@
 package com.upgrad.quora.service.business;
 
 import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTCreator;
+import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
 import com.upgrad.quora.service.common.GenericErrorCode;
+import com.upgrad.quora.service.common.ServiceErrorCode;
 import com.upgrad.quora.service.common.UnexpectedException;
+import com.upgrad.quora.service.exception.AuthorizationFailedException;
 
 import java.time.ZonedDateTime;
-import java.time.temporal.ChronoField;
 import java.util.Date;
 import java.util.UUID;
 
@@ -16,8 +21,12 @@ import java.util.UUID;
 public class JwtTokenProvider {
     private static final String TOKEN_ISSUER = "https://quora.io";
 
+    static final String ROLE_CLAIM = "role";
+
     private final Algorithm algorithm;
 
+    private final JWTVerifier verifier;
+
     /**
      * A constructor for JwtTokenProvider class which receives user password as an argument to be used in the signature part of JWT access token.
      */
@@ -27,6 +36,7 @@ public class JwtTokenProvider {
         } catch (IllegalArgumentException e) {
             throw new UnexpectedException(GenericErrorCode.GEN_001);
         }
+        verifier = JWT.require(algorithm).withIssuer(TOKEN_ISSUER).build();
     }
 
 
@@ -41,14 +51,44 @@ public class JwtTokenProvider {
      * @return - generated JWT token
      */
     public String generateToken(final String userUuid, final ZonedDateTime issuedDateTime, final ZonedDateTime expiresDateTime) {
+        return generateToken(userUuid, null, issuedDateTime, expiresDateTime);
+    }
 
-        final Date issuedAt = new Date(issuedDateTime.getLong(ChronoField.INSTANT_SECONDS));
-        final Date expiresAt = new Date(expiresDateTime.getLong(ChronoField.INSTANT_SECONDS));
+    /**
+     * @param userUuid        - uuid of the user
+     * @param role            - role of the user, stored as the "role" claim so that stateless verification can authorize admin endpoints
+     * @param issuedDateTime  - current time
+     * @param expiresDateTime - expiry time of the JWT token
+     * @return - generated JWT token
+     */
+    public String generateToken(final String userUuid, final String role, final ZonedDateTime issuedDateTime, final ZonedDateTime expiresDateTime) {
 
-        return JWT.create().withIssuer(TOKEN_ISSUER) //
+        final Date issuedAt = Date.from(issuedDateTime.toInstant());
+        final Date expiresAt = Date.from(expiresDateTime.toInstant());
+
+        final JWTCreator.Builder builder = JWT.create().withIssuer(TOKEN_ISSUER) //
                 .withKeyId(UUID.randomUUID().toString())
                 .withAudience(userUuid) //
-                .withIssuedAt(issuedAt).withExpiresAt(expiresAt).sign(algorithm);
+                .withIssuedAt(issuedAt).withExpiresAt(expiresAt);
+        if (role != null) {
+            builder.withClaim(ROLE_CLAIM, role);
+        }
+        return builder.sign(algorithm);
+    }
+
+    /**
+     * This method checks the signature, the issuer and the expiry of the JWT token without any database access.
+     *
+     * @param accessToken - JWT token sent in the authorization header
+     * @return - decoded JWT token
+     * @throws AuthorizationFailedException - ATHR-001 if the token was not issued by this application or has expired
+     */
+    public DecodedJWT verifyToken(final String accessToken) throws AuthorizationFailedException {
+        try {
+            return verifier.verify(accessToken);
+        } catch (JWTVerificationException e) {
+            throw new AuthorizationFailedException(ServiceErrorCode.ATHR_001);
+        }
     }
 
 }
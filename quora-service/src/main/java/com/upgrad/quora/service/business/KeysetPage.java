@@ -0,0 +1,44 @@
+package com.upgrad.quora.service.business;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset paginated list and the cursor of the following page.
+ */
+public final class KeysetPage<T> {
+
+    private final List<T> items;
+
+    private final PageCursor nextCursor;
+
+    public KeysetPage(final List<T> items, final PageCursor nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * @param rows     - rows read with a limit of one more than the page size
+     * @param pageSize - number of items of the page
+     * @param cursorOf - keyset position of a row
+     * @return - the page, with a next cursor only if the extra row was read
+     */
+    public static <T> KeysetPage<T> of(final List<T> rows, final int pageSize, final Function<T, PageCursor> cursorOf) {
+        if (rows.size() <= pageSize) {
+            return new KeysetPage<>(rows, null);
+        }
+        final List<T> items = rows.subList(0, pageSize);
+        return new KeysetPage<>(items, cursorOf.apply(items.get(pageSize - 1)));
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * @return - cursor of the following page, null if this is the last page
+     */
+    public PageCursor getNextCursor() {
+        return nextCursor;
+    }
+}
@@ -0,0 +1,62 @@
+package com.upgrad.quora.service.business;
+
+import com.upgrad.quora.service.common.GenericErrorCode;
+import com.upgrad.quora.service.common.UnexpectedException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Keyset position in a list ordered by (date, id) descending. The cursor handed out to clients is the
+ * URL safe Base64 encoding of the date and id of the last row of a page, so that the next page is read
+ * with an index range scan instead of an OFFSET.
+ */
+public final class PageCursor {
+
+    private static final char SEPARATOR = ',';
+
+    private final ZonedDateTime date;
+
+    private final Integer id;
+
+    public PageCursor(final ZonedDateTime date, final Integer id) {
+        this.date = date;
+        this.id = id;
+    }
+
+    /**
+     * @param cursor - cursor sent by the client, may be null
+     * @return - decoded cursor, null if no cursor was sent
+     */
+    public static PageCursor decode(final String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        try {
+            final String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            final int separator = decoded.lastIndexOf(SEPARATOR);
+            final Instant instant = Instant.parse(decoded.substring(0, separator));
+            final Integer id = Integer.valueOf(decoded.substring(separator + 1));
+            return new PageCursor(ZonedDateTime.ofInstant(instant, ZoneId.systemDefault()), id);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new UnexpectedException(GenericErrorCode.GEN_003, cursor);
+        }
+    }
+
+    public String encode() {
+        final String plain = date.toInstant().toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(plain.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public ZonedDateTime getDate() {
+        return date;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+}
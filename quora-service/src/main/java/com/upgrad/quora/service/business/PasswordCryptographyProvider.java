@@ -1,40 +1,141 @@
 package com.upgrad.quora.service.business;
 
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
 import java.security.spec.InvalidKeySpecException;
 import java.util.Base64;
-import java.util.Random;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.crypto.SecretKey;
 import javax.crypto.SecretKeyFactory;
 import javax.crypto.spec.PBEKeySpec;
 
+import com.upgrad.quora.service.common.GenericErrorCode;
+import com.upgrad.quora.service.common.UnexpectedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 
 @Component
 public class PasswordCryptographyProvider {
 
-    private static String SECRET_KEY_ALGORITHM = "PBKDF2WithHmacSHA512";
-    private static int HASHING_ITERATIONS = 1000;
-    private static int HASHING_KEY_LENGTH = 64;
+    private static final Logger LOGGER = LoggerFactory.getLogger(PasswordCryptographyProvider.class);
+
+    private static final int CALIBRATION_ROUNDS = 5;
     private final static char[] hexArray = "0123456789ABCDEF".toCharArray();
 
+    private static final ThreadLocal<Map<String, SecretKeyFactory>> SECRET_KEY_FACTORIES = ThreadLocal.withInitial(HashMap::new);
+    private static final ThreadLocal<SecureRandom> SECURE_RANDOM = ThreadLocal.withInitial(SecureRandom::new);
+
+    @Value("${quora.password.algorithm:PBKDF2WithHmacSHA512}")
+    private String algorithm;
+
+    @Value("${quora.password.iterations:1000}")
+    private int iterations;
+
+    @Value("${quora.password.key-length:64}")
+    private int keyLength;
+
+    @Value("${quora.password.target-millis:0}")
+    private long targetMillis;
+
+    @Value("${quora.password.executor.threads:0}")
+    private int executorThreads;
+
+    @Value("${quora.password.executor.queue-capacity:64}")
+    private int executorQueueCapacity;
+
+    private PasswordHashSpec hashSpec = PasswordHashSpec.LEGACY;
+
+    private ThreadPoolExecutor hashingExecutor;
+
+    /**
+     * Applies the configured hashing parameters. When a target latency is configured the number of iterations
+     * is calibrated on this host instead of being taken from the configuration.
+     */
+    @PostConstruct
+    public void init() {
+        final int hashingIterations = targetMillis > 0 ? calibrate(algorithm, keyLength, targetMillis) : iterations;
+        hashSpec = new PasswordHashSpec(algorithm, hashingIterations, keyLength);
+        LOGGER.info("Hashing passwords with {}", hashSpec);
+
+        final int threads = executorThreads > 0 ? executorThreads : Runtime.getRuntime().availableProcessors();
+        hashingExecutor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, executorQueueCapacity)), new HashingThreadFactory(), new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (hashingExecutor != null) {
+            hashingExecutor.shutdown();
+        }
+    }
+
+    /**
+     * Same as {@link #encrypt(String)}, but the hashing runs on the bounded hashing executor instead of the request thread.
+     *
+     * @param password raw password.
+     * @return future of the String array with [0] encoded salt [1] hashed password, failed with GEN-002 if the executor is saturated.
+     */
+    public CompletableFuture<String[]> encryptAsync(final String password) {
+        return submit(() -> encrypt(password));
+    }
+
+    /**
+     * Same as {@link #matches(String, String, String)}, but the hashing runs on the bounded hashing executor instead of the request thread.
+     *
+     * @param password   raw password.
+     * @param salt       encoded salt stored with the user.
+     * @param storedHash hashed password stored with the user.
+     * @return future of the comparison, failed with GEN-002 if the executor is saturated.
+     */
+    public CompletableFuture<Boolean> matchesAsync(final String password, final String salt, final String storedHash) {
+        return submit(() -> matches(password, salt, storedHash));
+    }
+
+    /**
+     * Hashing requests beyond the queue capacity are rejected right away rather than queued without bound,
+     * so that a burst of signins cannot hold on to every request thread.
+     */
+    private <T> CompletableFuture<T> submit(final Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, hashingExecutor);
+        } catch (RejectedExecutionException e) {
+            final CompletableFuture<T> rejected = new CompletableFuture<>();
+            rejected.completeExceptionally(new UnexpectedException(GenericErrorCode.GEN_002, e));
+            return rejected;
+        }
+    }
+
     /**
      * This method generates Salt and hashed Password
      *
      * @param password char array.
-     * @return String array with [0] encoded salt [1] hashed password.
+     * @return String array with [0] encoded salt [1] hashed password, prefixed with the hashing parameters unless they are the legacy ones.
      */
     public String[] encrypt(final String password) {
         byte[] salt = generateSaltBytes();
-        byte[] hashedPassword = hashPassword(password.toCharArray(), salt);
-        return new String[]{getBase64EncodedBytesAsString(salt), bytesToHex(hashedPassword)};
+        byte[] hashedPassword = hashPassword(password.toCharArray(), salt, hashSpec);
+        return new String[]{getBase64EncodedBytesAsString(salt), hashSpec.encode(bytesToHex(hashedPassword))};
     }
 
     /**
-     * This method re-generates hashed Password from raw-password and salt.
+     * This method re-generates hashed Password from raw-password and salt with the legacy hashing parameters.
      * This will be used during authentication.
      *
      * @param password char array.
@@ -42,7 +143,62 @@ public class PasswordCryptographyProvider {
      * @return byte array of hashed password.
      */
     public static String encrypt(final String password, String salt) {
-        return bytesToHex(hashPassword(password.toCharArray(), getBase64DecodedStringAsBytes(salt)));
+        return bytesToHex(hashPassword(password.toCharArray(), getBase64DecodedStringAsBytes(salt), PasswordHashSpec.LEGACY));
+    }
+
+    /**
+     * This method re-generates hashed Password with the parameters encoded in the stored hash and compares it in constant time.
+     * This will be used during authentication.
+     *
+     * @param password   raw password.
+     * @param salt       encoded salt stored with the user.
+     * @param storedHash hashed password stored with the user.
+     * @return true if the password matches the stored hash.
+     */
+    public boolean matches(final String password, final String salt, final String storedHash) {
+        final PasswordHashSpec storedSpec = PasswordHashSpec.of(storedHash);
+        final String hashedPassword = bytesToHex(hashPassword(password.toCharArray(), getBase64DecodedStringAsBytes(salt), storedSpec));
+        return MessageDigest.isEqual(hashedPassword.getBytes(StandardCharsets.US_ASCII),
+                PasswordHashSpec.hexOf(storedHash).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * @param storedHash hashed password stored with the user.
+     * @return true if the stored hash was computed with other parameters than the configured ones and should be replaced on the next signin.
+     */
+    public boolean needsRehash(final String storedHash) {
+        return !hashSpec.equals(PasswordHashSpec.of(storedHash));
+    }
+
+    /**
+     * This method finds the number of iterations for which hashing a password takes about the target latency on this host.
+     *
+     * @param algorithm    SecretKeyFactory algorithm.
+     * @param keyLength    key length in bits.
+     * @param targetMillis target latency of a single hash.
+     * @return number of iterations, a multiple of 1000 and never less than the legacy iterations.
+     */
+    public static int calibrate(final String algorithm, final int keyLength, final long targetMillis) {
+        final char[] password = "calibration".toCharArray();
+        final byte[] salt = generateSaltBytes();
+        int sampleIterations = PasswordHashSpec.LEGACY.getIterations();
+        long elapsedNanos;
+        while (true) {
+            final PasswordHashSpec spec = new PasswordHashSpec(algorithm, sampleIterations, keyLength);
+            hashPassword(password, salt, spec);
+            final long start = System.nanoTime();
+            for (int i = 0; i < CALIBRATION_ROUNDS; i++) {
+                hashPassword(password, salt, spec);
+            }
+            elapsedNanos = (System.nanoTime() - start) / CALIBRATION_ROUNDS;
+            if (elapsedNanos * 4 >= targetMillis * 1_000_000L || sampleIterations > Integer.MAX_VALUE / 2) {
+                break;
+            }
+            sampleIterations *= 2;
+        }
+        final double scaled = (double) sampleIterations * targetMillis * 1_000_000L / Math.max(1L, elapsedNanos);
+        final long rounded = Math.round(scaled / 1000.0) * 1000L;
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(PasswordHashSpec.LEGACY.getIterations(), rounded));
     }
 
     /**
@@ -51,9 +207,8 @@ public class PasswordCryptographyProvider {
      * @return 32 bytes long array
      */
     private static byte[] generateSaltBytes() {
-        final Random random = new SecureRandom();
         byte[] saltBytes = new byte[32];
-        random.nextBytes(saltBytes);
+        SECURE_RANDOM.get().nextBytes(saltBytes);
         return saltBytes;
     }
 
@@ -62,13 +217,15 @@ public class PasswordCryptographyProvider {
      *
      * @param password char array.
      * @param salt     byte array.
+     * @param spec     hashing parameters.
      * @return byte array of hashed password.
      */
-    private static byte[] hashPassword(final char[] password, final byte[] salt) {
+    private static byte[] hashPassword(final char[] password, final byte[] salt, final PasswordHashSpec spec) {
         try {
-            SecretKeyFactory skf = SecretKeyFactory.getInstance(SECRET_KEY_ALGORITHM);
-            PBEKeySpec spec = new PBEKeySpec(password, salt, HASHING_ITERATIONS, HASHING_KEY_LENGTH);
-            SecretKey key = skf.generateSecret(spec);
+            SecretKeyFactory skf = secretKeyFactory(spec.getAlgorithm());
+            PBEKeySpec keySpec = new PBEKeySpec(password, salt, spec.getIterations(), spec.getKeyLength());
+            SecretKey key = skf.generateSecret(keySpec);
+            keySpec.clearPassword();
             byte[] res = key.getEncoded();
             return res;
         } catch (NoSuchAlgorithmException | InvalidKeySpecException e) {
@@ -76,6 +233,30 @@ public class PasswordCryptographyProvider {
         }
     }
 
+    /**
+     * SecretKeyFactory instances are not thread safe and expensive to look up, hence each thread keeps its own.
+     */
+    private static SecretKeyFactory secretKeyFactory(final String algorithm) throws NoSuchAlgorithmException {
+        final Map<String, SecretKeyFactory> factories = SECRET_KEY_FACTORIES.get();
+        SecretKeyFactory skf = factories.get(algorithm);
+        if (skf == null) {
+            skf = SecretKeyFactory.getInstance(algorithm);
+            factories.put(algorithm, skf);
+        }
+        return skf;
+    }
+
+    private static final class HashingThreadFactory implements ThreadFactory {
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+        @Override
+        public Thread newThread(final Runnable runnable) {
+            final Thread thread = new Thread(runnable, "password-hashing-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
     private static String bytesToHex(byte[] bytes) {
         char[] hexChars = new char[bytes.length * 2];
         for (int j = 0; j < bytes.length; j++) {
@@ -0,0 +1,101 @@
+package com.upgrad.quora.service.business;
+
+import java.util.Objects;
+
+/**
+ * Parameters of a password hash: the SecretKeyFactory algorithm, the number of iterations and the key length in bits.
+ * The parameters are encoded into the stored hash as <code>$algorithm$iterations$keyLength$HEX</code> so that they can be
+ * raised over time without breaking existing USERS.password rows. Rows without the prefix were hashed with {@link #LEGACY}.
+ */
+public final class PasswordHashSpec {
+
+    /**
+     * Parameters of every password hashed before they were encoded into the stored hash.
+     */
+    public static final PasswordHashSpec LEGACY = new PasswordHashSpec("PBKDF2WithHmacSHA512", 1000, 64);
+
+    private static final char SEPARATOR = '$';
+
+    private final String algorithm;
+
+    private final int iterations;
+
+    private final int keyLength;
+
+    public PasswordHashSpec(final String algorithm, final int iterations, final int keyLength) {
+        this.algorithm = algorithm;
+        this.iterations = iterations;
+        this.keyLength = keyLength;
+    }
+
+    /**
+     * @param storedHash - value of USERS.password
+     * @return - parameters the stored hash was computed with
+     */
+    public static PasswordHashSpec of(final String storedHash) {
+        if (storedHash.isEmpty() || storedHash.charAt(0) != SEPARATOR) {
+            return LEGACY;
+        }
+        final String[] parts = storedHash.substring(1).split("\\$");
+        if (parts.length != 4) {
+            throw new IllegalArgumentException("Malformed password hash");
+        }
+        return new PasswordHashSpec(parts[0], Integer.parseInt(parts[1]), Integer.parseInt(parts[2]));
+    }
+
+    /**
+     * @param storedHash - value of USERS.password
+     * @return - hex encoded hash without the parameter prefix
+     */
+    public static String hexOf(final String storedHash) {
+        if (storedHash.isEmpty() || storedHash.charAt(0) != SEPARATOR) {
+            return storedHash;
+        }
+        return storedHash.substring(storedHash.lastIndexOf(SEPARATOR) + 1);
+    }
+
+    /**
+     * @param hexHash - hex encoded hash computed with these parameters
+     * @return - value to be stored in USERS.password; legacy hashes are stored without a prefix
+     */
+    public String encode(final String hexHash) {
+        if (LEGACY.equals(this)) {
+            return hexHash;
+        }
+        return SEPARATOR + algorithm + SEPARATOR + iterations + SEPARATOR + keyLength + SEPARATOR + hexHash;
+    }
+
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    public int getKeyLength() {
+        return keyLength;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final PasswordHashSpec that = (PasswordHashSpec) o;
+        return iterations == that.iterations && keyLength == that.keyLength && algorithm.equals(that.algorithm);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(algorithm, iterations, keyLength);
+    }
+
+    @Override
+    public String toString() {
+        return algorithm + SEPARATOR + iterations + SEPARATOR + keyLength;
+    }
+}
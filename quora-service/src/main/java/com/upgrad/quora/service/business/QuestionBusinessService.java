@@ -0,0 +1,223 @@
+package com.upgrad.quora.service.business;
+
+import com.upgrad.quora.service.common.GenericErrorCode;
+import com.upgrad.quora.service.common.ServiceErrorCode;
+import com.upgrad.quora.service.common.UnexpectedException;
+import com.upgrad.quora.service.dao.QuestionDao;
+import com.upgrad.quora.service.dao.UserDao;
+import com.upgrad.quora.service.entity.QuestionEntity;
+import com.upgrad.quora.service.entity.UserEntity;
+import com.upgrad.quora.service.exception.AuthorizationFailedException;
+import com.upgrad.quora.service.exception.InvalidQuestionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.PersistenceException;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * This class holds the business logic of the question endpoints.
+ */
+@Service
+public class QuestionBusinessService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(QuestionBusinessService.class);
+
+    private static final int MAX_CONTENT_LENGTH = 500;
+
+    @Autowired
+    private AuthorizationService authorizationService;
+
+    @Autowired
+    private QuestionDao questionDao;
+
+    @Autowired
+    private UserDao userDao;
+
+    @Autowired
+    private WriteCoalescer writeCoalescer;
+
+    @Autowired
+    private ContentVersions contentVersions;
+
+    @Value("${quora.question.page-size:100}")
+    private int defaultPageSize;
+
+    @Value("${quora.question.max-page-size:1000}")
+    private int maxPageSize;
+
+    @Value("${quora.question.batch.max-size:1000}")
+    private int maxBatchSize;
+
+    @Value("${quora.question.batch.transaction-size:0}")
+    private int batchTransactionSize;
+
+    /**
+     * Creates one question. Its insert is a single row mutation of the {@link WriteCoalescer}, committed together
+     * with the questions and answers created concurrently.
+     *
+     * @param accessToken - access token sent in the authorization header
+     * @param content     - content of the question
+     * @return - the created question
+     * @throws AuthorizationFailedException - if the user has not signed in or is signed out
+     * @throws InvalidQuestionException     - QUES-002 if the content is empty or too long
+     */
+    public QuestionEntity createQuestion(final String accessToken, final String content)
+            throws AuthorizationFailedException, InvalidQuestionException {
+        final AuthorizedUser authorizedUser = authorizationService.authorize(accessToken, "User is signed out.Sign in first to post a question");
+        if (!isValidContent(content)) {
+            throw new InvalidQuestionException(ServiceErrorCode.QUES_002, "The content of the question must have 1 to " + MAX_CONTENT_LENGTH + " characters");
+        }
+        final UserEntity user = userDao.getUserByUuid(authorizedUser.getUserUuid());
+        if (user == null) {
+            throw new AuthorizationFailedException(ServiceErrorCode.ATHR_001);
+        }
+        final QuestionEntity question = new QuestionEntity();
+        question.setUuid(UUID.randomUUID().toString());
+        question.setContent(content);
+        question.setDate(ZonedDateTime.now());
+        question.setUser(user);
+        try {
+            writeCoalescer.execute(1, () -> {
+                questionDao.createQuestions(Collections.singletonList(question));
+                return null;
+            });
+        } finally {
+            contentVersions.questionsChanged();
+        }
+        return question;
+    }
+
+    /**
+     * Creates the questions of a batch request on behalf of one user, who is authorized once for the whole batch.
+     * The valid questions are inserted with JDBC batches through the {@link WriteCoalescer}, all together or, when
+     * "quora.question.batch.transaction-size" is set, in chunks of that many questions; the questions of a failed chunk are
+     * reported as failed.
+     *
+     * @param accessToken - access token sent in the authorization header
+     * @param contents    - content of each question
+     * @return - the result of each question, at the index of its content
+     * @throws AuthorizationFailedException - if the user has not signed in or is signed out
+     * @throws UnexpectedException          - GEN-004 if the batch has more questions than "quora.question.batch.max-size"
+     */
+    public List<BatchItemResult<QuestionEntity>> createQuestions(final String accessToken, final List<String> contents) throws AuthorizationFailedException {
+        final AuthorizedUser authorizedUser = authorizationService.authorize(accessToken, "User is signed out.Sign in first to post a question");
+        if (contents.size() > maxBatchSize) {
+            throw new UnexpectedException(GenericErrorCode.GEN_004, String.valueOf(contents.size()), String.valueOf(maxBatchSize));
+        }
+        final UserEntity user = userDao.getUserByUuid(authorizedUser.getUserUuid());
+        if (user == null) {
+            throw new AuthorizationFailedException(ServiceErrorCode.ATHR_001);
+        }
+
+        final List<BatchItemResult<QuestionEntity>> results = new ArrayList<>(contents.size());
+        final List<QuestionEntity> questions = new ArrayList<>(contents.size());
+        final List<Integer> positions = new ArrayList<>(contents.size());
+        final ZonedDateTime now = ZonedDateTime.now();
+        for (final String content : contents) {
+            if (!isValidContent(content)) {
+                results.add(BatchItemResult.failure(ServiceErrorCode.QUES_002, "The content of the question must have 1 to " + MAX_CONTENT_LENGTH + " characters"));
+                continue;
+            }
+            final QuestionEntity question = new QuestionEntity();
+            question.setUuid(UUID.randomUUID().toString());
+            question.setContent(content);
+            question.setDate(now);
+            question.setUser(user);
+            questions.add(question);
+            positions.add(results.size());
+            results.add(BatchItemResult.success(question));
+        }
+
+        final int transactionSize = batchTransactionSize > 0 ? batchTransactionSize : Math.max(1, questions.size());
+        for (int from = 0; from < questions.size(); from += transactionSize) {
+            final int to = Math.min(from + transactionSize, questions.size());
+            final List<QuestionEntity> chunk = questions.subList(from, to);
+            try {
+                writeCoalescer.execute(chunk.size(), () -> {
+                    questionDao.createQuestions(chunk);
+                    return null;
+                });
+            } catch (UnexpectedException e) {
+                LOGGER.warn("Batch of {} questions was not committed", chunk.size(), e);
+                for (int i = from; i < to; i++) {
+                    results.set(positions.get(i), BatchItemResult.failure(e.getErrorCode(), e.getMessage()));
+                }
+            } catch (DataAccessException | TransactionException | PersistenceException e) {
+                LOGGER.warn("Batch of {} questions failed", chunk.size(), e);
+                for (int i = from; i < to; i++) {
+                    results.set(positions.get(i), BatchItemResult.failure(GenericErrorCode.GEN_001.getCode(), GenericErrorCode.GEN_001.getDefaultMessage()));
+                }
+            } finally {
+                contentVersions.questionsChanged();
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Authorizes the reader of the question feed, once per request, before its ETag is compared or the feed is read.
+     *
+     * @param accessToken - access token sent in the authorization header
+     * @return - the signed in user
+     * @throws AuthorizationFailedException - if the user has not signed in or is signed out
+     */
+    public AuthorizedUser authorizeReader(final String accessToken) throws AuthorizationFailedException {
+        return authorizationService.authorize(accessToken, "User is signed out.Sign in first to get all questions");
+    }
+
+    /**
+     * @return - ETag of all the questions, null when ETags are disabled
+     */
+    public String getAllQuestionsTag() {
+        return contentVersions.questionsTag();
+    }
+
+    /**
+     * The reader is authorized beforehand with {@link #authorizeReader(String)}.
+     *
+     * @param cursor - cursor of the page handed out with the previous page, null for the first page
+     * @param limit  - requested page size, null for the default page size
+     * @return - a page of all the questions, newest first
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<QuestionEntity> getAllQuestions(final String cursor, final Integer limit) {
+        return getQuestionFeedPage(PageCursor.decode(cursor), pageSize(limit));
+    }
+
+    /**
+     * @param cursor   - position after which the page starts, null for the first page
+     * @param pageSize - number of questions of the page
+     * @return - a page of all the questions, newest first
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<QuestionEntity> getQuestionFeedPage(final PageCursor cursor, final int pageSize) {
+        return KeysetPage.of(questionDao.getQuestionFeed(cursor, pageSize + 1), pageSize,
+                question -> new PageCursor(question.getDate(), question.getId()));
+    }
+
+    /**
+     * @param limit - requested page size, null for the default page size
+     * @return - page size within [1, max page size]
+     */
+    public int pageSize(final Integer limit) {
+        if (limit == null) {
+            return defaultPageSize;
+        }
+        return Math.max(1, Math.min(limit, maxPageSize));
+    }
+
+    private static boolean isValidContent(final String content) {
+        return content != null && !content.trim().isEmpty() && content.length() <= MAX_CONTENT_LENGTH;
+    }
+}
@@ -0,0 +1,202 @@
+package com.upgrad.quora.service.business;
+
+import com.upgrad.quora.service.entity.QuestionEntity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Encoded pages of the question feed, keyed on their cursor and page size, so that a cached page is served without JPA
+ * or Jackson. The cache holds at most "quora.question.feed-cache.max-bytes" bytes of pages and evicts the least recently
+ * used ones first. It is told about the writes by {@link ContentVersions}: the cache is emptied when questions are
+ * committed, while answers only evict the pages holding their question, whose answer count changed. A page read while
+ * any of them happened is not cached. Only the paged requests of the feed, which give a limit or a cursor, are served
+ * from the cache; a request for every question is streamed from the database.
+ * <p>
+ * Like the ETags, the cache does not see the writes of other application instances, so it is only enabled when
+ * "quora.single-writer" declares this instance the only writer, or explicitly with "quora.question.feed-cache.enabled".
+ */
+@Component
+public class QuestionFeedCache implements ContentVersions.Listener {
+
+    /**
+     * Rough size of the map entry, key and page objects of a cached page.
+     */
+    private static final int ENTRY_OVERHEAD = 128;
+
+    @Autowired
+    private QuestionBusinessService questionBusinessService;
+
+    @Autowired
+    private ContentVersions contentVersions;
+
+    @Value("${quora.question.feed-cache.enabled:${quora.single-writer:false}}")
+    private boolean enabled;
+
+    @Value("${quora.question.feed-cache.max-bytes:16777216}")
+    private long maxBytes;
+
+    private final LinkedHashMap<String, CachedPage> pages = new LinkedHashMap<>(64, 0.75f, true);
+
+    private long bytes;
+
+    /**
+     * Number of invalidations so far, read before a page is and compared when it is put.
+     */
+    private long invalidations;
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            maxBytes = 0;
+        }
+        contentVersions.addListener(this);
+    }
+
+    /**
+     * The user must have been authorized already, with {@link QuestionBusinessService#authorizeReader(String)}.
+     *
+     * @param cursor  - cursor of the page handed out with the previous page, null for the first page
+     * @param limit   - requested page size, null for the default page size
+     * @param encoder - encodes a page of questions into the response body
+     * @return - the encoded page of all the questions, newest first
+     */
+    public EncodedPage getFeedPage(final String cursor, final Integer limit, final Function<KeysetPage<QuestionEntity>, byte[]> encoder) {
+        final int pageSize = questionBusinessService.pageSize(limit);
+        final String key = pageSize + ":" + (cursor == null ? "" : cursor);
+        long invalidations = 0;
+        if (maxBytes > 0) {
+            synchronized (this) {
+                final CachedPage cachedPage = pages.get(key);
+                if (cachedPage != null) {
+                    return cachedPage.page;
+                }
+                invalidations = this.invalidations;
+            }
+        }
+        final KeysetPage<QuestionEntity> page = questionBusinessService.getQuestionFeedPage(PageCursor.decode(cursor), pageSize);
+        final EncodedPage encodedPage = new EncodedPage(encoder.apply(page),
+                page.getNextCursor() == null ? null : page.getNextCursor().encode());
+        if (maxBytes > 0) {
+            final Set<String> questionUuids = new HashSet<>();
+            for (final QuestionEntity questionEntity : page.getItems()) {
+                questionUuids.add(questionEntity.getUuid());
+            }
+            put(key, invalidations, new CachedPage(encodedPage, questionUuids, size(key, encodedPage)));
+        }
+        return encodedPage;
+    }
+
+    /**
+     * Drops all the cached pages.
+     */
+    @Override
+    public synchronized void questionsChanged() {
+        invalidations++;
+        pages.clear();
+        bytes = 0;
+    }
+
+    /**
+     * Drops the cached pages holding the question.
+     *
+     * @param questionUuid - uuid of the answered question
+     */
+    @Override
+    public synchronized void answersChanged(final String questionUuid) {
+        invalidations++;
+        final Iterator<CachedPage> cachedPages = pages.values().iterator();
+        while (cachedPages.hasNext()) {
+            final CachedPage cachedPage = cachedPages.next();
+            if (cachedPage.questionUuids.contains(questionUuid)) {
+                bytes -= cachedPage.size;
+                cachedPages.remove();
+            }
+        }
+    }
+
+    /**
+     * @return - bytes of the cached pages
+     */
+    public synchronized long size() {
+        return bytes;
+    }
+
+    private synchronized void put(final String key, final long invalidations, final CachedPage cachedPage) {
+        if (invalidations != this.invalidations) {
+            // questions or answers were committed while the page was read
+            return;
+        }
+        final long size = cachedPage.size;
+        if (size > maxBytes) {
+            return;
+        }
+        final CachedPage previous = pages.put(key, cachedPage);
+        if (previous != null) {
+            bytes -= previous.size;
+        }
+        bytes += size;
+        final Iterator<Map.Entry<String, CachedPage>> eldest = pages.entrySet().iterator();
+        while (bytes > maxBytes && eldest.hasNext()) {
+            bytes -= eldest.next().getValue().size;
+            eldest.remove();
+        }
+    }
+
+    private static long size(final String key, final EncodedPage page) {
+        return ENTRY_OVERHEAD + 2L * key.length() + page.getBody().length
+                + (page.getNextCursor() == null ? 0 : 2L * page.getNextCursor().length());
+    }
+
+    /**
+     * Response body of a page of the question feed and the cursor of the following page.
+     */
+    public static final class EncodedPage {
+
+        private final byte[] body;
+
+        private final String nextCursor;
+
+        public EncodedPage(final byte[] body, final String nextCursor) {
+            this.body = body;
+            this.nextCursor = nextCursor;
+        }
+
+        /**
+         * @return - the encoded page, shared by all the responses; it must not be modified
+         */
+        public byte[] getBody() {
+            return body;
+        }
+
+        /**
+         * @return - encoded cursor of the following page, null if this is the last page
+         */
+        public String getNextCursor() {
+            return nextCursor;
+        }
+    }
+
+    private static final class CachedPage {
+
+        private final EncodedPage page;
+
+        private final Set<String> questionUuids;
+
+        private final long size;
+
+        private CachedPage(final EncodedPage page, final Set<String> questionUuids, final long size) {
+            this.page = page;
+            this.questionUuids = questionUuids;
+            this.size = size;
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package com.upgrad.quora.service.business;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.exceptions.JWTDecodeException;
+import com.upgrad.quora.service.dao.UserAuthDao;
+import com.upgrad.quora.service.dao.UserRevocationDao;
+import com.upgrad.quora.service.entity.UserAuthEntity;
+import com.upgrad.quora.service.entity.UserRevocationEntity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.ZonedDateTime;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * In-memory deny-list of signed out JWT tokens, keyed on the "kid" header stamped by {@link JwtTokenProvider}.
+ * A bloom filter answers the common "not signed out" case with a few bit probes; only its positives are confirmed
+ * against the exact set. Entries are dropped once the token has expired, and the deny-list is rebuilt from USER_AUTH
+ * when the application starts.
+ * <p>
+ * The deny-list also holds the deleted users, whose tokens are all rejected until the last of them has expired. Their
+ * USER_AUTH rows are deleted with them, so the deletions are kept in USER_REVOCATION instead: the table is loaded at
+ * startup and polled every "quora.auth.revocation.refresh-ms" milliseconds, so that a user deleted through another
+ * instance is rejected here as well once the next poll has run.
+ * The registry only exists when tokens are verified statelessly with the deny-list enabled.
+ */
+@Component
+@EnableScheduling
+@ConditionalOnExpression("'${quora.auth.token-verification:DATABASE}' == 'STATELESS' and ${quora.auth.revocation.deny-list:true}")
+public class RevokedTokenRegistry {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RevokedTokenRegistry.class);
+
+    private static final int HASH_FUNCTIONS = 5;
+
+    private final Map<String, Revocation> revocations = new ConcurrentHashMap<>();
+
+    private final Map<String, Revocation> deletedUsers = new ConcurrentHashMap<>();
+
+    private final int bloomBits;
+
+    private final int purgeInterval;
+
+    private volatile AtomicLongArray bloom;
+
+    private int revokedSincePurge;
+
+    @Autowired
+    private UserAuthDao userAuthDao;
+
+    @Autowired
+    private UserRevocationDao userRevocationDao;
+
+    public RevokedTokenRegistry(@Value("${quora.auth.revocation.bloom-bits:1048576}") final int bloomBits,
+                                @Value("${quora.auth.revocation.purge-interval:1024}") final int purgeInterval) {
+        this.bloomBits = Math.max(64, bloomBits);
+        this.purgeInterval = purgeInterval;
+        this.bloom = new AtomicLongArray((this.bloomBits + 63) / 64);
+    }
+
+    /**
+     * Loads every signed out but unexpired token from USER_AUTH and the deleted users from USER_REVOCATION, on the
+     * primary which has every sign out and deletion.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void rebuild() {
+        int loaded = 0;
+        for (final UserAuthEntity userAuthEntity : userAuthDao.getUnexpiredSignedOutUserAuths(ZonedDateTime.now())) {
+            if (revoke(userAuthEntity.getAccessToken(), userAuthEntity.getLogoutAt(), userAuthEntity.getExpiresAt())) {
+                loaded++;
+            }
+        }
+        LOGGER.info("Loaded {} signed out access tokens into the deny-list", loaded);
+        refreshUserRevocations();
+    }
+
+    /**
+     * Loads the users deleted through any instance from USER_REVOCATION and deletes the rows whose tokens have all
+     * expired.
+     */
+    @Scheduled(fixedDelayString = "${quora.auth.revocation.refresh-ms:30000}", initialDelayString = "${quora.auth.revocation.refresh-ms:30000}")
+    @Transactional
+    public void refreshUserRevocations() {
+        final ZonedDateTime now = ZonedDateTime.now();
+        for (final UserRevocationEntity userRevocationEntity : userRevocationDao.getUnexpiredUserRevocations(now)) {
+            revokeUser(userRevocationEntity.getUserUuid(), userRevocationEntity.getRevokedAt(), userRevocationEntity.getExpiresAt());
+        }
+        userRevocationDao.deleteExpiredUserRevocations(now);
+    }
+
+    /**
+     * Adds the access token to the deny-list until it expires.
+     *
+     * @param accessToken - signed out JWT token
+     * @param logoutAt    - LOGOUT_AT of the token
+     * @param expiresAt   - EXPIRES_AT of the token
+     * @return - false if the access token is not a JWT token carrying a "kid" and therefore cannot be tracked
+     */
+    public boolean revoke(final String accessToken, final ZonedDateTime logoutAt, final ZonedDateTime expiresAt) {
+        final String keyId;
+        try {
+            keyId = JWT.decode(accessToken).getKeyId();
+        } catch (JWTDecodeException e) {
+            return false;
+        }
+        if (keyId == null) {
+            return false;
+        }
+        synchronized (this) {
+            revocations.put(keyId, new Revocation(logoutAt, expiresAt.toInstant().toEpochMilli()));
+            setBits(bloom, keyId);
+            if (++revokedSincePurge >= purgeInterval) {
+                purgeExpired();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Rejects every token of the user until the last of them has expired. The revocation is only kept by this instance;
+     * {@link AuthorizationService#revokeUser(String, ZonedDateTime)} stores it in USER_REVOCATION for the others.
+     *
+     * @param userUuid      - uuid of the deleted user
+     * @param deletedAt     - time of the deletion
+     * @param lastExpiresAt - latest EXPIRES_AT of the tokens of the user
+     */
+    public void revokeUser(final String userUuid, final ZonedDateTime deletedAt, final ZonedDateTime lastExpiresAt) {
+        deletedUsers.put(userUuid, new Revocation(deletedAt, lastExpiresAt.toInstant().toEpochMilli()));
+    }
+
+    /**
+     * @param userUuid - audience of a verified JWT token
+     * @return - true if the user has been deleted while tokens issued to the user may still be unexpired
+     */
+    public boolean isUserRevoked(final String userUuid) {
+        if (deletedUsers.isEmpty()) {
+            return false;
+        }
+        final Revocation revocation = deletedUsers.get(userUuid);
+        if (revocation == null) {
+            return false;
+        }
+        if (revocation.expiresAt <= System.currentTimeMillis()) {
+            deletedUsers.remove(userUuid, revocation);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * @param keyId - "kid" of a verified JWT token
+     * @return - LOGOUT_AT of the token, null if the token is not signed out
+     */
+    public ZonedDateTime getLogoutAt(final String keyId) {
+        if (keyId == null || !mightContain(bloom, keyId)) {
+            return null;
+        }
+        final Revocation revocation = revocations.get(keyId);
+        if (revocation == null) {
+            return null;
+        }
+        if (revocation.expiresAt <= System.currentTimeMillis()) {
+            revocations.remove(keyId, revocation);
+            return null;
+        }
+        return revocation.logoutAt;
+    }
+
+    /**
+     * Drops the expired entries and rebuilds the bloom filter from the remaining ones, as bits cannot be cleared individually.
+     */
+    public synchronized void purgeExpired() {
+        final long now = System.currentTimeMillis();
+        final AtomicLongArray rebuilt = new AtomicLongArray(bloom.length());
+        final Iterator<Map.Entry<String, Revocation>> iterator = revocations.entrySet().iterator();
+        while (iterator.hasNext()) {
+            final Map.Entry<String, Revocation> entry = iterator.next();
+            if (entry.getValue().expiresAt <= now) {
+                iterator.remove();
+            } else {
+                setBits(rebuilt, entry.getKey());
+            }
+        }
+        bloom = rebuilt;
+        revokedSincePurge = 0;
+        deletedUsers.values().removeIf(revocation -> revocation.expiresAt <= now);
+    }
+
+    private void setBits(final AtomicLongArray bits, final String keyId) {
+        final int hash1 = keyId.hashCode();
+        final int hash2 = mix(hash1);
+        for (int i = 0; i < HASH_FUNCTIONS; i++) {
+            final int bit = ((hash1 + i * hash2) & Integer.MAX_VALUE) % bloomBits;
+            final int word = bit >>> 6;
+            final long mask = 1L << bit;
+            long current;
+            do {
+                current = bits.get(word);
+            } while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask));
+        }
+    }
+
+    private boolean mightContain(final AtomicLongArray bits, final String keyId) {
+        final int hash1 = keyId.hashCode();
+        final int hash2 = mix(hash1);
+        for (int i = 0; i < HASH_FUNCTIONS; i++) {
+            final int bit = ((hash1 + i * hash2) & Integer.MAX_VALUE) % bloomBits;
+            if ((bits.get(bit >>> 6) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int mix(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        hash ^= hash >>> 16;
+        return hash | 1;
+    }
+
+    private static final class Revocation {
+        private final ZonedDateTime logoutAt;
+        private final long expiresAt;
+
+        private Revocation(final ZonedDateTime logoutAt, final long expiresAt) {
+            this.logoutAt = logoutAt;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
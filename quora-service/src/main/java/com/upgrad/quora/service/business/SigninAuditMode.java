@@ -0,0 +1,25 @@
+package com.upgrad.quora.service.business;
+
+/**
+ * Durability of the USER_AUTH row written by {@link UserAuthWriter} when a user signs in.
+ */
+public enum SigninAuditMode {
+
+    /**
+     * The row is inserted in its own transaction before the signin returns.
+     */
+    SYNC,
+
+    /**
+     * The row is queued and the signin returns at once; the background writer inserts it with the next batch.
+     * A row still queued when the process dies is lost, and the access token has no USER_AUTH row until it is written,
+     * so this mode requires {@link TokenVerificationMode#STATELESS}.
+     */
+    ASYNC,
+
+    /**
+     * The row is queued and the signin waits until the batch it was coalesced into has committed. The background writer
+     * commits a batch at most every quora.auth.signin-audit.group-commit-ms milliseconds.
+     */
+    GROUP_COMMIT
+}
@@ -0,0 +1,19 @@
+package com.upgrad.quora.service.business;
+
+/**
+ * Strategy used by {@link AuthorizationService} to resolve the access token of a request.
+ */
+public enum TokenVerificationMode {
+
+    /**
+     * The access token is looked up in USER_AUTH.
+     */
+    DATABASE,
+
+    /**
+     * The signature, issuer and expiry of the access token are checked locally with the application wide secret.
+     * The revocation state (LOGOUT_AT) of the token comes from the {@link RevokedTokenRegistry} deny-list,
+     * or from USER_AUTH when the deny-list is disabled.
+     */
+    STATELESS
+}
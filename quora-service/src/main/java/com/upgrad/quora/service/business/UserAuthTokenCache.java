@@ -0,0 +1,164 @@
+package com.upgrad.quora.service.business;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * In-process cache of resolved access tokens which keeps the USER_AUTH lookup off the hot path of every protected endpoint.
+ * The cache is bounded (least recently used entries are evicted first) and an entry never outlives the EXPIRES_AT of its token.
+ * Signed out tokens are cached as well because LOGOUT_AT, once set, never changes back.
+ * <p>
+ * The entries are spread by the hash of the token over "quora.auth.token-cache.stripes" independently locked LRU maps, so
+ * that concurrent requests rarely wait on each other; each stripe holds its share of "quora.auth.token-cache.max-size".
+ * The tree has no signout or user deletion flow yet; they are to call {@link #invalidate(String)} and
+ * {@link #invalidateUser(String)} (through {@link AuthorizationService}) as soon as they commit.
+ */
+@Component
+public class UserAuthTokenCache {
+
+    private final int maxSize;
+
+    private final long ttlMillis;
+
+    private final Stripe[] stripes;
+
+    public UserAuthTokenCache(@Value("${quora.auth.token-cache.max-size:10000}") final int maxSize,
+                              @Value("${quora.auth.token-cache.ttl-seconds:300}") final long ttlSeconds,
+                              @Value("${quora.auth.token-cache.stripes:16}") final int stripes) {
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlSeconds * 1000L;
+        final int stripeCount = Integer.highestOneBit(Math.max(1, Math.min(stripes, Math.max(1, maxSize))));
+        final int stripeSize = (Math.max(0, maxSize) + stripeCount - 1) / stripeCount;
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            this.stripes[i] = new Stripe(stripeSize);
+        }
+    }
+
+    /**
+     * @param accessToken - access token sent in the authorization header
+     * @return - the cached user for the token, null if the token is not cached or its entry has expired
+     */
+    public AuthorizedUser get(final String accessToken) {
+        if (maxSize <= 0) {
+            return null;
+        }
+        final Stripe stripe = stripe(accessToken);
+        synchronized (stripe) {
+            final Entry entry = stripe.get(accessToken);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.deadline <= System.currentTimeMillis()) {
+                stripe.remove(accessToken);
+                return null;
+            }
+            return entry.user;
+        }
+    }
+
+    /**
+     * Caches the user resolved for the access token. Tokens which have already expired are not cached.
+     *
+     * @param accessToken - access token sent in the authorization header
+     * @param user        - user resolved from USER_AUTH
+     */
+    public void put(final String accessToken, final AuthorizedUser user) {
+        if (maxSize <= 0) {
+            return;
+        }
+        long deadline = System.currentTimeMillis() + ttlMillis;
+        if (user.getExpiresAt() != null) {
+            deadline = Math.min(deadline, user.getExpiresAt().toInstant().toEpochMilli());
+        }
+        if (deadline <= System.currentTimeMillis()) {
+            return;
+        }
+        final Stripe stripe = stripe(accessToken);
+        synchronized (stripe) {
+            stripe.put(accessToken, new Entry(user, deadline));
+        }
+    }
+
+    /**
+     * Drops the cached entry of a single token. To be called as soon as the token is signed out.
+     *
+     * @param accessToken - access token which is signed out
+     */
+    public void invalidate(final String accessToken) {
+        final Stripe stripe = stripe(accessToken);
+        synchronized (stripe) {
+            stripe.remove(accessToken);
+        }
+    }
+
+    /**
+     * Drops every cached token of the user. To be called when the user is deleted.
+     *
+     * @param userUuid - uuid of the deleted user
+     */
+    public void invalidateUser(final String userUuid) {
+        for (final Stripe stripe : stripes) {
+            synchronized (stripe) {
+                final Iterator<Entry> iterator = stripe.values().iterator();
+                while (iterator.hasNext()) {
+                    if (iterator.next().user.getUserUuid().equals(userUuid)) {
+                        iterator.remove();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return - number of cached tokens, expired entries included
+     */
+    public int size() {
+        int size = 0;
+        for (final Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+
+    private Stripe stripe(final String accessToken) {
+        final int hash = accessToken.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+    }
+
+    /**
+     * Access-ordered LRU map of one share of the tokens, guarded by its own monitor.
+     */
+    private static final class Stripe extends LinkedHashMap<String, Entry> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int maxSize;
+
+        private Stripe(final int maxSize) {
+            super(16, 0.75f, true);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, Entry> eldest) {
+            return size() > maxSize;
+        }
+    }
+
+    private static final class Entry {
+        private final AuthorizedUser user;
+        private final long deadline;
+
+        private Entry(final AuthorizedUser user, final long deadline) {
+            this.user = user;
+            this.deadline = deadline;
+        }
+    }
+}
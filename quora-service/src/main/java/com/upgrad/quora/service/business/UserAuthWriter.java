@@ -0,0 +1,208 @@
+package com.upgrad.quora.service.business;
+
+import com.upgrad.quora.service.dao.UserAuthDao;
+import com.upgrad.quora.service.entity.UserAuthEntity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes the USER_AUTH row (LOGIN_AT) of a signin. Depending on quora.auth.signin-audit.mode the row is inserted
+ * before the signin returns, or handed to a bounded in-memory queue which a background thread drains into JDBC batch
+ * inserts. When the queue is full the caller inserts its row itself, so a slow database throttles the signins instead of
+ * growing the queue. The queue is flushed when the application context is closed.
+ */
+@Component
+public class UserAuthWriter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UserAuthWriter.class);
+
+    private static final long POLL_MILLIS = 100;
+
+    @Autowired
+    private UserAuthDao userAuthDao;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${quora.auth.signin-audit.mode:SYNC}")
+    private SigninAuditMode mode;
+
+    @Value("${quora.auth.signin-audit.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${quora.auth.signin-audit.batch-size:500}")
+    private int batchSize;
+
+    @Value("${quora.auth.signin-audit.group-commit-ms:10}")
+    private long groupCommitMillis;
+
+    @Value("${quora.auth.signin-audit.shutdown-timeout-ms:10000}")
+    private long shutdownTimeoutMillis;
+
+    @Value("${quora.auth.token-verification:DATABASE}")
+    private TokenVerificationMode verificationMode;
+
+    private TransactionTemplate transactionTemplate;
+
+    private BlockingQueue<PendingUserAuth> queue;
+
+    private Thread writerThread;
+
+    private volatile boolean running;
+
+    @PostConstruct
+    public void init() {
+        if (mode == SigninAuditMode.ASYNC && verificationMode == TokenVerificationMode.DATABASE) {
+            throw new IllegalStateException("quora.auth.signin-audit.mode ASYNC requires quora.auth.token-verification STATELESS,"
+                    + " a token is looked up in USER_AUTH before its row is written");
+        }
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        if (mode != SigninAuditMode.SYNC) {
+            queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+            running = true;
+            writerThread = new Thread(this::drain, "user-auth-writer");
+            writerThread.setDaemon(true);
+            writerThread.start();
+        }
+    }
+
+    /**
+     * @param userAuthEntity - USER_AUTH row of the signed in user
+     * @return - future completed with the row once it is durable as required by the mode: at once for ASYNC, after the
+     * commit of its batch for GROUP_COMMIT and after its own commit for SYNC
+     */
+    public CompletableFuture<UserAuthEntity> write(final UserAuthEntity userAuthEntity) {
+        if (!running) {
+            return writeNow(userAuthEntity);
+        }
+        final PendingUserAuth pending = new PendingUserAuth(userAuthEntity);
+        if (!queue.offer(pending)) {
+            return writeNow(userAuthEntity);
+        }
+        // the writer stopped while the row was queued; unless its final flush took the row, write it here
+        if (!running && queue.remove(pending)) {
+            return writeNow(userAuthEntity);
+        }
+        return mode == SigninAuditMode.ASYNC ? CompletableFuture.completedFuture(userAuthEntity) : pending.future;
+    }
+
+    /**
+     * Stops the background writer once it has flushed the queued rows.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (writerThread == null) {
+            return;
+        }
+        running = false;
+        writerThread.join(shutdownTimeoutMillis);
+        if (writerThread.isAlive()) {
+            LOGGER.warn("USER_AUTH writer did not stop within {} ms, {} queued rows are not written", shutdownTimeoutMillis, queue.size());
+        } else {
+            // rows queued after the writer left its loop
+            final List<PendingUserAuth> batch = new ArrayList<>();
+            while (queue.drainTo(batch, batchSize) > 0) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private CompletableFuture<UserAuthEntity> writeNow(final UserAuthEntity userAuthEntity) {
+        try {
+            insert(Collections.singletonList(userAuthEntity));
+            return CompletableFuture.completedFuture(userAuthEntity);
+        } catch (RuntimeException e) {
+            final CompletableFuture<UserAuthEntity> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+    }
+
+    private void drain() {
+        final List<PendingUserAuth> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                final PendingUserAuth first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                if (mode == SigninAuditMode.GROUP_COMMIT) {
+                    final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(groupCommitMillis);
+                    long remaining;
+                    while (batch.size() < batchSize && (remaining = deadline - System.nanoTime()) > 0) {
+                        final PendingUserAuth next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                        if (next == null) {
+                            break;
+                        }
+                        batch.add(next);
+                    }
+                } else {
+                    queue.drainTo(batch, batchSize - 1);
+                }
+                flush(batch);
+                batch.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void flush(final List<PendingUserAuth> batch) {
+        final List<UserAuthEntity> userAuths = new ArrayList<>(batch.size());
+        for (final PendingUserAuth pending : batch) {
+            userAuths.add(pending.userAuthEntity);
+        }
+        try {
+            insert(userAuths);
+            for (final PendingUserAuth pending : batch) {
+                pending.future.complete(pending.userAuthEntity);
+            }
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                LOGGER.error("Could not write the USER_AUTH row {}", batch.get(0).userAuthEntity.getUuid(), e);
+                batch.get(0).future.completeExceptionally(e);
+                return;
+            }
+            // one bad row rolls back its whole batch, retry the rows one by one so that it does not take the others with it
+            for (final PendingUserAuth pending : batch) {
+                flush(Collections.singletonList(pending));
+            }
+        }
+    }
+
+    private void insert(final List<UserAuthEntity> userAuths) {
+        transactionTemplate.execute(status -> {
+            userAuthDao.createUserAuths(userAuths);
+            return null;
+        });
+    }
+
+    private static final class PendingUserAuth {
+
+        private final UserAuthEntity userAuthEntity;
+
+        private final CompletableFuture<UserAuthEntity> future = new CompletableFuture<>();
+
+        private PendingUserAuth(final UserAuthEntity userAuthEntity) {
+            this.userAuthEntity = userAuthEntity;
+        }
+    }
+}
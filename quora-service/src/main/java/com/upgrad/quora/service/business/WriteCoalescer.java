@@ -0,0 +1,315 @@
+package com.upgrad.quora.service.business;
+
+import com.upgrad.quora.service.common.GenericErrorCode;
+import com.upgrad.quora.service.common.UnexpectedException;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.PersistenceException;
+import java.sql.Connection;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Group commit of small question and answer mutations. The mutations of at most quora.write-coalescer.max-rows rows
+ * submitted within quora.write-coalescer.window-ms of each other are run by one background thread in one transaction,
+ * so that they share a single commit; larger mutations run in a transaction of their own on the calling thread.
+ * <p>
+ * Each mutation of a group runs inside its own savepoint: a mutation which throws is rolled back alone and its caller
+ * gets the exception, while the others are committed. A mutation which fails in the persistence layer leaves the
+ * persistence context unusable, as does one which throws with unflushed changes: the whole transaction is rolled back,
+ * the caller of that mutation gets its exception and the callers of the other mutations get GEN-002, to retry. So do all
+ * the callers of a group whose commit fails. Mutations are never run twice.
+ * <p>
+ * A caller waits at most quora.write-coalescer.timeout-ms for the commit and then gets GEN-002. A mutation which has
+ * not started by then is skipped; one which has started may still be committed.
+ * <p>
+ * A mutation runs on another thread than its caller, it must not have side effects outside the transaction. The caller
+ * must not hold a transaction of its own, which the coalesced transaction could wait on.
+ */
+@Component
+public class WriteCoalescer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(WriteCoalescer.class);
+
+    private static final long POLL_MILLIS = 100;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${quora.write-coalescer.enabled:true}")
+    private boolean enabled;
+
+    @Value("${quora.write-coalescer.window-ms:2}")
+    private long windowMillis;
+
+    @Value("${quora.write-coalescer.max-mutations:64}")
+    private int maxMutations;
+
+    @Value("${quora.write-coalescer.max-rows:1}")
+    private int maxRows;
+
+    @Value("${quora.write-coalescer.timeout-ms:5000}")
+    private long timeoutMillis;
+
+    @Value("${quora.write-coalescer.queue-capacity:1024}")
+    private int queueCapacity;
+
+    @Value("${quora.write-coalescer.shutdown-timeout-ms:10000}")
+    private long shutdownTimeoutMillis;
+
+    private TransactionTemplate transactionTemplate;
+
+    private BlockingQueue<PendingMutation<?>> queue;
+
+    private Thread committerThread;
+
+    private volatile boolean running;
+
+    /**
+     * A write to the database, run in the shared transaction.
+     *
+     * @param <T> - result of the mutation
+     * @param <E> - checked exception through which the mutation reports its outcome to the caller
+     */
+    @FunctionalInterface
+    public interface Mutation<T, E extends Exception> {
+
+        T apply() throws E;
+    }
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        if (enabled) {
+            queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+            running = true;
+            committerThread = new Thread(this::drain, "write-coalescer");
+            committerThread.setDaemon(true);
+            committerThread.start();
+        }
+    }
+
+    /**
+     * Runs the mutation in the next group commit and waits for the commit. When the mutation writes more rows than
+     * quora.write-coalescer.max-rows, or the coalescer is disabled, stopped or its queue is full, the mutation runs in
+     * its own transaction on the calling thread.
+     *
+     * @param rows     - number of rows the mutation writes
+     * @param mutation - the write
+     * @return - the result of the mutation once it is committed
+     * @throws E                   - the exception thrown by the mutation, in which case none of its writes is committed
+     * @throws UnexpectedException - GEN-002 if the group of the mutation failed because of another mutation or the
+     *                             commit did not happen within quora.write-coalescer.timeout-ms
+     */
+    public <T, E extends Exception> T execute(final int rows, final Mutation<T, E> mutation) throws E {
+        final PendingMutation<T> pending = new PendingMutation<>(mutation);
+        if (rows > maxRows || !running || !queue.offer(pending)) {
+            commit(Collections.<PendingMutation<?>>singletonList(pending));
+        } else if (!running && queue.remove(pending)) {
+            // the committer stopped while the mutation was queued and its final flush did not take it
+            commit(Collections.<PendingMutation<?>>singletonList(pending));
+        }
+        return pending.<E>await(timeoutMillis);
+    }
+
+    /**
+     * Stops the committer once it has committed the queued mutations.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (committerThread == null) {
+            return;
+        }
+        running = false;
+        committerThread.join(shutdownTimeoutMillis);
+        if (committerThread.isAlive()) {
+            LOGGER.warn("Write coalescer did not stop within {} ms, {} queued mutations are not committed", shutdownTimeoutMillis, queue.size());
+        } else {
+            // mutations queued after the committer left its loop
+            final List<PendingMutation<?>> group = new ArrayList<>();
+            while (queue.drainTo(group, maxMutations) > 0) {
+                commit(group);
+                group.clear();
+            }
+        }
+    }
+
+    private void drain() {
+        final List<PendingMutation<?>> group = new ArrayList<>(maxMutations);
+        while (running || !queue.isEmpty()) {
+            try {
+                final PendingMutation<?> first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                group.add(first);
+                final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(windowMillis);
+                long remaining;
+                while (group.size() < maxMutations && (remaining = deadline - System.nanoTime()) > 0) {
+                    final PendingMutation<?> next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    group.add(next);
+                }
+                queue.drainTo(group, maxMutations - group.size());
+                commit(group);
+                group.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void commit(final List<PendingMutation<?>> group) {
+        try {
+            transactionTemplate.execute(status -> {
+                final boolean savepoints = group.size() > 1;
+                for (final PendingMutation<?> pending : group) {
+                    if (!pending.start()) {
+                        // the caller gave up waiting
+                        continue;
+                    }
+                    final Savepoint savepoint = savepoints ? session().doReturningWork(Connection::setSavepoint) : null;
+                    try {
+                        pending.run();
+                        entityManager.flush();
+                        if (savepoint != null) {
+                            session().doWork(connection -> connection.releaseSavepoint(savepoint));
+                        }
+                    } catch (PersistenceException | DataAccessException e) {
+                        pending.failure = e;
+                        throw e;
+                    } catch (Exception e) {
+                        pending.failure = e;
+                        if (savepoint == null) {
+                            status.setRollbackOnly();
+                        } else if (session().isDirty()) {
+                            throw new IllegalStateException("Mutation failed with unflushed changes", e);
+                        } else {
+                            session().doWork(connection -> connection.rollback(savepoint));
+                        }
+                    }
+                }
+                return null;
+            });
+        } catch (RuntimeException | Error e) {
+            if (group.size() > 1) {
+                LOGGER.warn("Group commit of {} mutations failed", group.size(), e);
+            }
+            for (final PendingMutation<?> pending : group) {
+                if (pending.failure == null) {
+                    pending.failure = group.size() > 1 ? new UnexpectedException(GenericErrorCode.GEN_002, e) : e;
+                }
+            }
+        }
+        for (final PendingMutation<?> pending : group) {
+            pending.complete();
+        }
+    }
+
+    /**
+     * The savepoints are set on the JDBC connection of the transaction, the Hibernate JpaDialect does not provide them.
+     */
+    private Session session() {
+        return entityManager.unwrap(Session.class);
+    }
+
+    private static final class PendingMutation<T> {
+
+        private static final int QUEUED = 0;
+
+        private static final int STARTED = 1;
+
+        private static final int ABANDONED = 2;
+
+        private final Mutation<T, ?> mutation;
+
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+
+        private final AtomicInteger state = new AtomicInteger(QUEUED);
+
+        private T result;
+
+        private Throwable failure;
+
+        private PendingMutation(final Mutation<T, ?> mutation) {
+            this.mutation = mutation;
+        }
+
+        /**
+         * @return - false if the caller gave up waiting before the mutation started, in which case it must not run
+         */
+        private boolean start() {
+            return state.compareAndSet(QUEUED, STARTED);
+        }
+
+        private void run() throws Exception {
+            result = mutation.apply();
+        }
+
+        private void complete() {
+            if (failure == null) {
+                future.complete(result);
+            } else {
+                future.completeExceptionally(failure);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private <E extends Exception> T await(final long timeoutMillis) throws E {
+            try {
+                return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                if (state.compareAndSet(QUEUED, ABANDONED)) {
+                    LOGGER.warn("Mutation was not committed within {} ms and is abandoned", timeoutMillis);
+                } else {
+                    LOGGER.warn("Mutation was not committed within {} ms and may still be committed", timeoutMillis);
+                }
+                throw new UnexpectedException(GenericErrorCode.GEN_002, e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                state.compareAndSet(QUEUED, ABANDONED);
+                throw new UnexpectedException(GenericErrorCode.GEN_002, e);
+            } catch (ExecutionException e) {
+                final Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                if (cause instanceof Exception) {
+                    // the mutation only throws the checked exception of its type
+                    throw (E) cause;
+                }
+                throw new UnexpectedException(GenericErrorCode.GEN_001, cause);
+            }
+        }
+    }
+}
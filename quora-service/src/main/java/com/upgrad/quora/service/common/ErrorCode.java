@@ -6,4 +6,9 @@ public interface ErrorCode {
 
     String getDefaultMessage();
 
+    /**
+     * @return - status of the HTTP response reporting the error
+     */
+    int getHttpStatus();
+
 }
\ No newline at end of file
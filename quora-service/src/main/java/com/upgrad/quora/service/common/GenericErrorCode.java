@@ -1,8 +1,5 @@
 package com.upgrad.quora.service.common;
 
-import java.util.HashMap;
-import java.util.Map;
-
 public enum GenericErrorCode implements ErrorCode {
 
     /**
@@ -10,23 +7,39 @@ public enum GenericErrorCode implements ErrorCode {
      * <b>Cause:</b> This error could have occurred due to undetermined runtime errors.<br>
      * <b>Action: None</b><br>
      */
-    GEN_001("GEN-001", "An unexpected error occurred. Please contact System Administrator");
+    GEN_001("GEN-001", "An unexpected error occurred. Please contact System Administrator", 500),
 
-    private static final Map<String, GenericErrorCode> LOOKUP = new HashMap<String, GenericErrorCode>();
+    /**
+     * Error message: <b>The service is busy. Please try again later</b><br>
+     * <b>Cause:</b> This error could have occurred because the bounded pool of an expensive operation (e.g. password hashing) is saturated.<br>
+     * <b>Action: Retry the request after a short delay</b><br>
+     */
+    GEN_002("GEN-002", "The service is busy. Please try again later", 503),
 
-    static {
-        for (final GenericErrorCode enumeration : GenericErrorCode.values()) {
-            LOOKUP.put(enumeration.getCode(), enumeration);
-        }
-    }
+    /**
+     * Error message: <b>The pagination cursor {0} is invalid</b><br>
+     * <b>Cause:</b> This error could have occurred because the cursor was not handed out by a previous page of the same list.<br>
+     * <b>Action: Request the first page again</b><br>
+     */
+    GEN_003("GEN-003", "The pagination cursor {0} is invalid", 400),
+
+    /**
+     * Error message: <b>The batch of {0} items exceeds the limit of {1} items</b><br>
+     * <b>Cause:</b> This error could have occurred because a batch request carried more items than the endpoint accepts at once.<br>
+     * <b>Action: Split the items into several requests</b><br>
+     */
+    GEN_004("GEN-004", "The batch of {0} items exceeds the limit of {1} items", 400);
 
     private final String code;
 
     private final String defaultMessage;
 
-    private GenericErrorCode(final String code, final String defaultMessage) {
+    private final int httpStatus;
+
+    private GenericErrorCode(final String code, final String defaultMessage, final int httpStatus) {
         this.code = code;
         this.defaultMessage = defaultMessage;
+        this.httpStatus = httpStatus;
     }
 
     @Override
@@ -39,4 +52,9 @@ public enum GenericErrorCode implements ErrorCode {
         return defaultMessage;
     }
 
+    @Override
+    public int getHttpStatus() {
+        return httpStatus;
+    }
+
 }
@@ -0,0 +1,128 @@
+package com.upgrad.quora.service.common;
+
+/**
+ * Error codes of the checked exceptions of com.upgrad.quora.service.exception and of the failed items of batch requests.
+ * An exception may carry a message of its own endpoint instead of the default message of its code.
+ */
+public enum ServiceErrorCode implements ErrorCode {
+
+    /**
+     * Error message: <b>User has not signed in</b><br>
+     * <b>Cause:</b> This error could have occurred because the access token was never issued, has expired or was not signed by this application.<br>
+     * <b>Action: Sign in</b><br>
+     */
+    ATHR_001("ATHR-001", "User has not signed in", 403),
+
+    /**
+     * Error message: <b>User is signed out</b><br>
+     * <b>Cause:</b> This error could have occurred because the user signed out with the access token.<br>
+     * <b>Action: Sign in again</b><br>
+     */
+    ATHR_002("ATHR-002", "User is signed out", 403),
+
+    /**
+     * Error message: <b>The user is not allowed to perform this operation</b><br>
+     * <b>Cause:</b> This error could have occurred because the user neither owns the item nor is an admin.<br>
+     * <b>Action: None</b><br>
+     */
+    ATHR_003("ATHR-003", "The user is not allowed to perform this operation", 403),
+
+    /**
+     * Error message: <b>User with entered uuid does not exist</b><br>
+     * <b>Cause:</b> This error could have occurred because no user has the uuid.<br>
+     * <b>Action: None</b><br>
+     */
+    USR_001("USR-001", "User with entered uuid does not exist", 404),
+
+    /**
+     * Error message: <b>The question entered is invalid</b><br>
+     * <b>Cause:</b> This error could have occurred because no question has the uuid.<br>
+     * <b>Action: None</b><br>
+     */
+    QUES_001("QUES-001", "The question entered is invalid", 404),
+
+    /**
+     * Error message: <b>The content of the question is invalid</b><br>
+     * <b>Cause:</b> This error could have occurred because the content of the question or of an item of a question batch is empty or too long.<br>
+     * <b>Action: Correct the content of the item</b><br>
+     */
+    QUES_002("QUES-002", "The content of the question is invalid", 400),
+
+    /**
+     * Error message: <b>Entered answer uuid does not exist</b><br>
+     * <b>Cause:</b> This error could have occurred because no answer has the uuid.<br>
+     * <b>Action: None</b><br>
+     */
+    ANS_001("ANS-001", "Entered answer uuid does not exist", 404),
+
+    /**
+     * Error message: <b>The answer is invalid</b><br>
+     * <b>Cause:</b> This error could have occurred because an item of an answer batch is empty or too long.<br>
+     * <b>Action: Correct the answer of the item</b><br>
+     */
+    ANS_002("ANS-002", "The answer is invalid", 400),
+
+    /**
+     * Error message: <b>Try any other Username, this Username has already been taken</b><br>
+     * <b>Cause:</b> This error could have occurred because another user signed up with the username.<br>
+     * <b>Action: Sign up with another username</b><br>
+     */
+    SGR_001("SGR-001", "Try any other Username, this Username has already been taken", 409),
+
+    /**
+     * Error message: <b>This user has already been registered, try with any other emailId</b><br>
+     * <b>Cause:</b> This error could have occurred because another user signed up with the email address.<br>
+     * <b>Action: Sign up with another email address</b><br>
+     */
+    SGR_002("SGR-002", "This user has already been registered, try with any other emailId", 409),
+
+    /**
+     * Error message: <b>User is not Signed in</b><br>
+     * <b>Cause:</b> This error could have occurred because the access token sent to sign out was never issued or the user already signed out with it.<br>
+     * <b>Action: Sign in</b><br>
+     * The sign out endpoint reports this error with the code of SGR_001, under its own status.
+     */
+    SGR_001_SIGNOUT("SGR-001", "User is not Signed in", 401),
+
+    /**
+     * Error message: <b>This username does not exist</b><br>
+     * <b>Cause:</b> This error could have occurred because no user signed up with the username sent to sign in.<br>
+     * <b>Action: Sign in with the username of an account or sign up</b><br>
+     */
+    ATH_001("ATH-001", "This username does not exist", 401),
+
+    /**
+     * Error message: <b>Password failed</b><br>
+     * <b>Cause:</b> This error could have occurred because the password sent to sign in does not match the one of the user.<br>
+     * <b>Action: Sign in with the right password</b><br>
+     */
+    ATH_002("ATH-002", "Password failed", 401);
+
+    private final String code;
+
+    private final String defaultMessage;
+
+    private final int httpStatus;
+
+    private ServiceErrorCode(final String code, final String defaultMessage, final int httpStatus) {
+        this.code = code;
+        this.defaultMessage = defaultMessage;
+        this.httpStatus = httpStatus;
+    }
+
+    @Override
+    public String getCode() {
+        return code;
+    }
+
+    @Override
+    public String getDefaultMessage() {
+        return defaultMessage;
+    }
+
+    @Override
+    public int getHttpStatus() {
+        return httpStatus;
+    }
+
+}
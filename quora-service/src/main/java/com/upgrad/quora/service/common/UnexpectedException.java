@@ -32,6 +32,13 @@ public class UnexpectedException extends RuntimeException {
         return errorCode;
     }
 
+    /**
+     * @return - true if the message is formatted from parameters, false if it is the default message of the error code
+     */
+    public boolean hasParameters() {
+        return parameters != null && parameters.length > 0;
+    }
+
     @Override
     public String getMessage() {
         return MessageFormat.format(errorCode.getDefaultMessage(), this.parameters);
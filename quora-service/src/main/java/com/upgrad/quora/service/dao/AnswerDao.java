@@ -0,0 +1,85 @@
+package com.upgrad.quora.service.dao;
+
+import com.upgrad.quora.service.business.PageCursor;
+import com.upgrad.quora.service.entity.AnswerEntity;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * AnswerDao provides the database access for the ANSWER table.
+ */
+@Repository
+public class AnswerDao {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${quora.jdbc.batch-size:100}")
+    private int batchSize;
+
+    /**
+     * @param questionId - id of the question
+     * @param cursor     - position of the last answer of the previous page, null for the first page
+     * @param limit      - maximum number of answers to return
+     * @return - answers to the question, newest first, without their question
+     */
+    public List<AnswerEntity> getAnswersByQuestion(final Integer questionId, final PageCursor cursor, final int limit) {
+        final TypedQuery<AnswerEntity> query;
+        if (cursor == null) {
+            query = entityManager.createNamedQuery("answersByQuestion", AnswerEntity.class);
+        } else {
+            query = entityManager.createNamedQuery("answersByQuestionAfter", AnswerEntity.class)
+                    .setParameter("date", cursor.getDate()).setParameter("id", cursor.getId());
+        }
+        return query.setParameter("questionId", questionId).setMaxResults(limit).getResultList();
+    }
+
+    /**
+     * @param questionIds - ids of the questions
+     * @param limit       - maximum number of answers to return for each question
+     * @return - the newest answers to each of the questions, newest first, without their question
+     */
+    public List<AnswerEntity> getAnswersByQuestions(final Collection<Integer> questionIds, final int limit) {
+        return entityManager.createNamedQuery("firstAnswersByQuestions", AnswerEntity.class)
+                .setParameter("questionIds", questionIds).setParameter("limit", limit).getResultList();
+    }
+
+    /**
+     * Inserts the answers with JDBC batches of "quora.jdbc.batch-size" statements, in the current transaction.
+     * Identity ids are not read back, so the ids of the entities stay null; the answers are identified by their uuid.
+     *
+     * @param answers - new answers, with uuid, answer, date, user and question set
+     */
+    public void createAnswers(final List<AnswerEntity> answers) {
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "INSERT INTO ANSWER(UUID, ANS, DATE, USER_ID, QUESTION_ID, QUESTION_DATE) VALUES (?, ?, ?, ?, ?, ?)")) {
+                int batched = 0;
+                for (final AnswerEntity answer : answers) {
+                    statement.setString(1, answer.getUuid());
+                    statement.setString(2, answer.getAnswer());
+                    statement.setTimestamp(3, Timestamp.from(answer.getDate().toInstant()));
+                    statement.setInt(4, answer.getUser().getId());
+                    statement.setInt(5, answer.getQuestion().getId());
+                    statement.setTimestamp(6, Timestamp.from(answer.getQuestionDate().toInstant()));
+                    statement.addBatch();
+                    if (++batched % batchSize == 0) {
+                        statement.executeBatch();
+                    }
+                }
+                if (batched % batchSize != 0) {
+                    statement.executeBatch();
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,95 @@
+package com.upgrad.quora.service.dao;
+
+import com.upgrad.quora.service.business.PageCursor;
+import com.upgrad.quora.service.entity.QuestionEntity;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.NoResultException;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * QuestionDao provides the database access for the QUESTION table.
+ */
+@Repository
+public class QuestionDao {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${quora.jdbc.batch-size:100}")
+    private int batchSize;
+
+    /**
+     * @param questionUuid - uuid of the question
+     * @return - the question, null if it does not exist
+     */
+    public QuestionEntity getQuestionByUuid(final String questionUuid) {
+        try {
+            return entityManager.createNamedQuery("questionByUuid", QuestionEntity.class)
+                    .setParameter("uuid", questionUuid).getSingleResult();
+        } catch (NoResultException nre) {
+            return null;
+        }
+    }
+
+    /**
+     * @param questionUuids - uuids of the questions
+     * @return - the questions which exist, in no particular order
+     */
+    public List<QuestionEntity> getQuestionsByUuids(final Collection<String> questionUuids) {
+        return entityManager.createNamedQuery("questionsByUuids", QuestionEntity.class)
+                .setParameter("uuids", questionUuids).getResultList();
+    }
+
+    /**
+     * @param cursor - position of the last question of the previous page, null for the first page
+     * @param limit  - maximum number of questions to return
+     * @return - questions of the feed, newest first
+     */
+    public List<QuestionEntity> getQuestionFeed(final PageCursor cursor, final int limit) {
+        final TypedQuery<QuestionEntity> query;
+        if (cursor == null) {
+            query = entityManager.createNamedQuery("questionFeed", QuestionEntity.class);
+        } else {
+            query = entityManager.createNamedQuery("questionFeedAfter", QuestionEntity.class)
+                    .setParameter("date", cursor.getDate()).setParameter("id", cursor.getId());
+        }
+        return query.setMaxResults(limit).getResultList();
+    }
+
+    /**
+     * Inserts the questions with JDBC batches of "quora.jdbc.batch-size" statements, in the current transaction.
+     * Identity ids are not read back, so the ids of the entities stay null; the questions are identified by their uuid.
+     *
+     * @param questions - new questions, with uuid, content, date and user set
+     */
+    public void createQuestions(final List<QuestionEntity> questions) {
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "INSERT INTO QUESTION(UUID, CONTENT, DATE, USER_ID) VALUES (?, ?, ?, ?)")) {
+                int batched = 0;
+                for (final QuestionEntity question : questions) {
+                    statement.setString(1, question.getUuid());
+                    statement.setString(2, question.getContent());
+                    statement.setTimestamp(3, Timestamp.from(question.getDate().toInstant()));
+                    statement.setInt(4, question.getUser().getId());
+                    statement.addBatch();
+                    if (++batched % batchSize == 0) {
+                        statement.executeBatch();
+                    }
+                }
+                if (batched % batchSize != 0) {
+                    statement.executeBatch();
+                }
+            }
+        });
+    }
+}
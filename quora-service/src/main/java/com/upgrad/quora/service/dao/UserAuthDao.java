@@ -0,0 +1,83 @@
+package com.upgrad.quora.service.dao;
+
+import com.upgrad.quora.service.entity.UserAuthEntity;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.NoResultException;
+import javax.persistence.PersistenceContext;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+/**
+ * UserAuthDao provides the database access for the USER_AUTH table.
+ */
+@Repository
+public class UserAuthDao {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${quora.jdbc.batch-size:100}")
+    private int batchSize;
+
+    /**
+     * @param accessToken - access token sent in the authorization header
+     * @return - the USER_AUTH row (with its user) for the access token, null if the token was never issued
+     */
+    public UserAuthEntity getUserAuthByAccessToken(final String accessToken) {
+        try {
+            return entityManager.createNamedQuery("userAuthByAccessToken", UserAuthEntity.class)
+                    .setParameter("accessToken", accessToken).getSingleResult();
+        } catch (NoResultException nre) {
+            return null;
+        }
+    }
+
+    /**
+     * @param now - current time
+     * @return - all the USER_AUTH rows which are signed out but whose access token has not expired yet
+     */
+    public List<UserAuthEntity> getUnexpiredSignedOutUserAuths(final ZonedDateTime now) {
+        return entityManager.createNamedQuery("unexpiredSignedOutUserAuths", UserAuthEntity.class)
+                .setParameter("now", now).getResultList();
+    }
+
+    /**
+     * Inserts the USER_AUTH rows with JDBC batches. The rows are not attached to the persistence context.
+     *
+     * @param userAuths - USER_AUTH rows of the signed in users
+     */
+    public void createUserAuths(final List<UserAuthEntity> userAuths) {
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "INSERT INTO USER_AUTH(UUID, USER_ID, ACCESS_TOKEN, EXPIRES_AT, LOGIN_AT, LOGOUT_AT) VALUES (?, ?, ?, ?, ?, ?)")) {
+                int batched = 0;
+                for (final UserAuthEntity userAuth : userAuths) {
+                    statement.setString(1, userAuth.getUuid());
+                    statement.setInt(2, userAuth.getUser().getId());
+                    statement.setString(3, userAuth.getAccessToken());
+                    statement.setTimestamp(4, Timestamp.from(userAuth.getExpiresAt().toInstant()));
+                    statement.setTimestamp(5, Timestamp.from(userAuth.getLoginAt().toInstant()));
+                    if (userAuth.getLogoutAt() == null) {
+                        statement.setNull(6, Types.TIMESTAMP);
+                    } else {
+                        statement.setTimestamp(6, Timestamp.from(userAuth.getLogoutAt().toInstant()));
+                    }
+                    statement.addBatch();
+                    if (++batched % batchSize == 0) {
+                        statement.executeBatch();
+                    }
+                }
+                if (batched % batchSize != 0) {
+                    statement.executeBatch();
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,42 @@
+package com.upgrad.quora.service.dao;
+
+import com.upgrad.quora.service.entity.UserEntity;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.NoResultException;
+import javax.persistence.PersistenceContext;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * UserDao provides the database access for the USERS table.
+ */
+@Repository
+public class UserDao {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * @param userUuid - uuid of the user
+     * @return - the user, null if it does not exist
+     */
+    public UserEntity getUserByUuid(final String userUuid) {
+        try {
+            return entityManager.createNamedQuery("userByUuid", UserEntity.class)
+                    .setParameter("uuid", userUuid).getSingleResult();
+        } catch (NoResultException nre) {
+            return null;
+        }
+    }
+
+    /**
+     * @param userUuids - uuids of the users
+     * @return - the users which exist, in no particular order
+     */
+    public List<UserEntity> getUsersByUuids(final Collection<String> userUuids) {
+        return entityManager.createNamedQuery("usersByUuids", UserEntity.class)
+                .setParameter("uuids", userUuids).getResultList();
+    }
+}
@@ -0,0 +1,45 @@
+package com.upgrad.quora.service.dao;
+
+import com.upgrad.quora.service.entity.UserRevocationEntity;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+/**
+ * UserRevocationDao provides the database access for the USER_REVOCATION table.
+ */
+@Repository
+public class UserRevocationDao {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Inserts the revocation of the user, or replaces the one of a user uuid revoked before.
+     *
+     * @param userRevocationEntity - revocation of a deleted user
+     */
+    public void revokeUser(final UserRevocationEntity userRevocationEntity) {
+        entityManager.merge(userRevocationEntity);
+    }
+
+    /**
+     * @param now - current time
+     * @return - the revocations of the deleted users whose access tokens may still be unexpired
+     */
+    public List<UserRevocationEntity> getUnexpiredUserRevocations(final ZonedDateTime now) {
+        return entityManager.createNamedQuery("unexpiredUserRevocations", UserRevocationEntity.class)
+                .setParameter("now", now).getResultList();
+    }
+
+    /**
+     * @param now - current time
+     * @return - number of deleted revocations, whose access tokens have all expired
+     */
+    public int deleteExpiredUserRevocations(final ZonedDateTime now) {
+        return entityManager.createNamedQuery("deleteExpiredUserRevocations").setParameter("now", now).executeUpdate();
+    }
+}
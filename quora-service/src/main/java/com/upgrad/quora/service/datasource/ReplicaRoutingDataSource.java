@@ -0,0 +1,152 @@
+package com.upgrad.quora.service.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sends the connections of read-only transactions to the read replicas, by smooth weighted round-robin, and every
+ * other connection to the primary. A replica which cannot be reached or lags behind the primary by more than the
+ * configured limit is skipped until a later check finds it caught up; reads go to the primary when no replica is left.
+ * <p>
+ * The read-only flag of a transaction is only known once it has begun, so the data source has to be wrapped in a
+ * LazyConnectionDataSourceProxy which delays getting the connection until the first statement is executed.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    static final String PRIMARY = "primary";
+
+    /**
+     * Seconds the replica has not replayed the WAL it received; 0 when it is up to date or is not a standby.
+     */
+    private static final String LAG_QUERY = "SELECT CASE WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+            + "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END";
+
+    private final List<Replica> replicas;
+
+    private final double maxLagSeconds;
+
+    public ReplicaRoutingDataSource(final DataSource primary, final List<Replica> replicas, final double maxLagSeconds) {
+        this.replicas = replicas;
+        this.maxLagSeconds = maxLagSeconds;
+        final Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (final Replica replica : replicas) {
+            targets.put(replica.name, replica.dataSource);
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        super.afterPropertiesSet();
+        checkReplicas();
+    }
+
+    /**
+     * Closes the pools of the replicas; the primary is closed by its owner.
+     */
+    public void close() throws Exception {
+        for (final Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable) {
+                ((AutoCloseable) replica.dataSource).close();
+            }
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+        final Replica replica = nextReplica();
+        return replica == null ? PRIMARY : replica.name;
+    }
+
+    /**
+     * Measures the replication lag of every replica and takes the ones above the limit out of the rotation.
+     */
+    @Scheduled(fixedDelayString = "${quora.datasource.check-interval-ms:1000}")
+    public void checkReplicas() {
+        for (final Replica replica : replicas) {
+            boolean available;
+            try (Connection connection = replica.dataSource.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery(LAG_QUERY)) {
+                resultSet.next();
+                final double lagSeconds = resultSet.getDouble(1);
+                available = lagSeconds <= maxLagSeconds;
+                if (!available && replica.available) {
+                    LOGGER.warn("Replica {} lags {} seconds behind the primary, reads go to the other replicas", replica.name, lagSeconds);
+                }
+            } catch (SQLException e) {
+                available = false;
+                if (replica.available) {
+                    LOGGER.warn("Replica {} is not reachable, reads go to the other replicas", replica.name, e);
+                }
+            }
+            if (available && !replica.available) {
+                LOGGER.info("Replica {} receives reads", replica.name);
+            }
+            replica.available = available;
+        }
+    }
+
+    /**
+     * Smooth weighted round-robin: every available replica gains its weight, the one with the most is picked and
+     * gives back the total, so that the picks of a replica are spread evenly over the rotation.
+     */
+    private Replica nextReplica() {
+        synchronized (replicas) {
+            Replica next = null;
+            int totalWeight = 0;
+            for (final Replica replica : replicas) {
+                if (!replica.available) {
+                    continue;
+                }
+                replica.currentWeight += replica.weight;
+                totalWeight += replica.weight;
+                if (next == null || replica.currentWeight > next.currentWeight) {
+                    next = replica;
+                }
+            }
+            if (next != null) {
+                next.currentWeight -= totalWeight;
+            }
+            return next;
+        }
+    }
+
+    public static class Replica {
+
+        private final String name;
+
+        private final DataSource dataSource;
+
+        private final int weight;
+
+        private int currentWeight;
+
+        private volatile boolean available;
+
+        public Replica(final String name, final DataSource dataSource, final int weight) {
+            this.name = name;
+            this.dataSource = dataSource;
+            this.weight = weight;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.upgrad.quora.service.entity;
+
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.FetchType;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
+import javax.persistence.NamedNativeQueries;
+import javax.persistence.NamedNativeQuery;
+import javax.persistence.NamedQueries;
+import javax.persistence.NamedQuery;
+import javax.persistence.Table;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.io.Serializable;
+import java.time.ZonedDateTime;
+
+/**
+ * AnswerEntity class maps the ANSWER table which stores the answers posted in reply to the questions.
+ * The answers of a question are paged by keyset on (date, id), newest first, the following pages with a native row value
+ * comparison as for {@link QuestionEntity}. The first answers of several questions are read with a LATERAL join which
+ * limits the answers of each question.
+ * ANSWER is partitioned by date; it stores the date of the question as well, which is part of the key of the
+ * partitioned QUESTION table that the answer references.
+ */
+@Entity
+@Table(name = "ANSWER")
+@NamedQueries({
+        @NamedQuery(name = "answerByUuid", query = "select a from AnswerEntity a where a.uuid = :uuid"),
+        @NamedQuery(name = "answersByQuestion", query = "select a from AnswerEntity a where a.question.id = :questionId order by a.date desc, a.id desc")
+})
+@NamedNativeQueries({
+        @NamedNativeQuery(name = "answersByQuestionAfter", resultClass = AnswerEntity.class,
+                query = "select * from ANSWER where QUESTION_ID = :questionId and (DATE, ID) < (:date, :id) and DATE <= :date order by DATE desc, ID desc"),
+        @NamedNativeQuery(name = "firstAnswersByQuestions", resultClass = AnswerEntity.class,
+                query = "select a.* from QUESTION q cross join lateral (select * from ANSWER where QUESTION_ID = q.ID order by DATE desc, ID desc limit :limit) a "
+                        + "where q.ID in (:questionIds) order by a.QUESTION_ID, a.DATE desc, a.ID desc")
+})
+public class AnswerEntity implements Serializable {
+
+    @Id
+    @Column(name = "ID")
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(name = "UUID")
+    @NotNull
+    @Size(max = 200)
+    private String uuid;
+
+    @Column(name = "ANS")
+    @NotNull
+    @Size(max = 255)
+    private String answer;
+
+    @Column(name = "DATE")
+    @NotNull
+    private ZonedDateTime date;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @JoinColumn(name = "USER_ID")
+    private UserEntity user;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @JoinColumn(name = "QUESTION_ID")
+    private QuestionEntity question;
+
+    @Column(name = "QUESTION_DATE")
+    @NotNull
+    private ZonedDateTime questionDate;
+
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public String getUuid() {
+        return uuid;
+    }
+
+    public void setUuid(String uuid) {
+        this.uuid = uuid;
+    }
+
+    public String getAnswer() {
+        return answer;
+    }
+
+    public void setAnswer(String answer) {
+        this.answer = answer;
+    }
+
+    public ZonedDateTime getDate() {
+        return date;
+    }
+
+    public void setDate(ZonedDateTime date) {
+        this.date = date;
+    }
+
+    public UserEntity getUser() {
+        return user;
+    }
+
+    public void setUser(UserEntity user) {
+        this.user = user;
+    }
+
+    public QuestionEntity getQuestion() {
+        return question;
+    }
+
+    public void setQuestion(QuestionEntity question) {
+        this.question = question;
+        this.questionDate = question == null ? null : question.getDate();
+    }
+
+    public ZonedDateTime getQuestionDate() {
+        return questionDate;
+    }
+}
@@ -0,0 +1,115 @@
+package com.upgrad.quora.service.entity;
+
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.FetchType;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
+import javax.persistence.NamedNativeQuery;
+import javax.persistence.NamedQueries;
+import javax.persistence.NamedQuery;
+import javax.persistence.Table;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.io.Serializable;
+import java.time.ZonedDateTime;
+
+/**
+ * QuestionEntity class maps the QUESTION table which stores the questions posted by the users.
+ * The feed queries page by keyset on (date, id), newest first. The following pages compare the row value (date, id), which
+ * JPQL cannot express, hence the native query; its redundant bound on the date lets PostgreSQL prune the newer partitions.
+ * QUESTION is partitioned by date and its primary key is (id, date); ids come from a single sequence and stay unique,
+ * so the entity is identified by the id alone.
+ */
+@Entity
+@Table(name = "QUESTION")
+@NamedQueries({
+        @NamedQuery(name = "questionByUuid", query = "select q from QuestionEntity q where q.uuid = :uuid"),
+        @NamedQuery(name = "questionsByUuids", query = "select q from QuestionEntity q where q.uuid in :uuids"),
+        @NamedQuery(name = "questionFeed", query = "select q from QuestionEntity q order by q.date desc, q.id desc")
+})
+@NamedNativeQuery(name = "questionFeedAfter", resultClass = QuestionEntity.class,
+        query = "select * from QUESTION where (DATE, ID) < (:date, :id) and DATE <= :date order by DATE desc, ID desc")
+public class QuestionEntity implements Serializable {
+
+    @Id
+    @Column(name = "ID")
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(name = "UUID")
+    @NotNull
+    @Size(max = 200)
+    private String uuid;
+
+    @Column(name = "CONTENT")
+    @NotNull
+    @Size(max = 500)
+    private String content;
+
+    @Column(name = "DATE")
+    @NotNull
+    private ZonedDateTime date;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @JoinColumn(name = "USER_ID")
+    private UserEntity user;
+
+    /**
+     * Maintained by the database when answers are added or removed, never written by the application. Adding an answer
+     * locks the row of its question until the transaction commits.
+     */
+    @Column(name = "ANSWER_COUNT", insertable = false, updatable = false)
+    private Integer answerCount;
+
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public String getUuid() {
+        return uuid;
+    }
+
+    public void setUuid(String uuid) {
+        this.uuid = uuid;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public void setContent(String content) {
+        this.content = content;
+    }
+
+    public ZonedDateTime getDate() {
+        return date;
+    }
+
+    public void setDate(ZonedDateTime date) {
+        this.date = date;
+    }
+
+    public UserEntity getUser() {
+        return user;
+    }
+
+    public void setUser(UserEntity user) {
+        this.user = user;
+    }
+
+    public Integer getAnswerCount() {
+        return answerCount;
+    }
+}
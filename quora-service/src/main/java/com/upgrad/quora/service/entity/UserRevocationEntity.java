@@ -0,0 +1,62 @@
+package com.upgrad.quora.service.entity;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.NamedQueries;
+import javax.persistence.NamedQuery;
+import javax.persistence.Table;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.io.Serializable;
+import java.time.ZonedDateTime;
+
+/**
+ * UserRevocationEntity class maps the USER_REVOCATION table which stores the deleted users whose access tokens may
+ * still be unexpired.
+ */
+@Entity
+@Table(name = "USER_REVOCATION")
+@NamedQueries({
+        @NamedQuery(name = "unexpiredUserRevocations", query = "select ur from UserRevocationEntity ur where ur.expiresAt > :now"),
+        @NamedQuery(name = "deleteExpiredUserRevocations", query = "delete from UserRevocationEntity ur where ur.expiresAt <= :now")
+})
+public class UserRevocationEntity implements Serializable {
+
+    @Id
+    @Column(name = "USER_UUID")
+    @Size(max = 200)
+    private String userUuid;
+
+    @Column(name = "REVOKED_AT")
+    @NotNull
+    private ZonedDateTime revokedAt;
+
+    @Column(name = "EXPIRES_AT")
+    @NotNull
+    private ZonedDateTime expiresAt;
+
+    public String getUserUuid() {
+        return userUuid;
+    }
+
+    public void setUserUuid(String userUuid) {
+        this.userUuid = userUuid;
+    }
+
+    public ZonedDateTime getRevokedAt() {
+        return revokedAt;
+    }
+
+    public void setRevokedAt(ZonedDateTime revokedAt) {
+        this.revokedAt = revokedAt;
+    }
+
+    public ZonedDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(ZonedDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
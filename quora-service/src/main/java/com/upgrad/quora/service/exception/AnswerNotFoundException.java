@@ -1,5 +1,7 @@
 package com.upgrad.quora.service.exception;
 
+import com.upgrad.quora.service.common.ServiceErrorCode;
+
 import java.io.PrintStream;
 import java.io.PrintWriter;
 
@@ -9,10 +11,17 @@ import java.io.PrintWriter;
 public class AnswerNotFoundException extends Exception {
     private final String code;
     private final String errorMessage;
+    private final ServiceErrorCode errorCode;
 
-    public AnswerNotFoundException(final String code, final String errorMessage) {
-        this.code = code;
+    public AnswerNotFoundException(final ServiceErrorCode errorCode, final String errorMessage) {
+        super(null, null, true, StackTraces.writable());
+        this.code = errorCode.getCode();
         this.errorMessage = errorMessage;
+        this.errorCode = errorCode;
+    }
+
+    public AnswerNotFoundException(final ServiceErrorCode errorCode) {
+        this(errorCode, errorCode.getDefaultMessage());
     }
 
     @Override
@@ -38,5 +47,12 @@ public class AnswerNotFoundException extends Exception {
         return errorMessage;
     }
 
+    /**
+     * @return - the error code
+     */
+    public ServiceErrorCode getErrorCode() {
+        return errorCode;
+    }
+
 }
 
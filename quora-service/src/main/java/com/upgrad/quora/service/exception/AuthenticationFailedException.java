@@ -1,18 +1,27 @@
 package com.upgrad.quora.service.exception;
 
+import com.upgrad.quora.service.common.ServiceErrorCode;
+
 import java.io.PrintStream;
 import java.io.PrintWriter;
 
 /**
- * AuthenticationFailedException is thrown in case of authentication failure.
+ * AuthenticationFailedException is thrown in case of authentication failure, with ATH-001 for an unknown username or ATH-002 for a wrong password.
  */
 public class AuthenticationFailedException extends Exception {
     private final String code;
     private final String errorMessage;
+    private final ServiceErrorCode errorCode;
 
-    public AuthenticationFailedException(final String code, final String errorMessage) {
-        this.code = code;
+    public AuthenticationFailedException(final ServiceErrorCode errorCode, final String errorMessage) {
+        super(null, null, true, StackTraces.writable());
+        this.code = errorCode.getCode();
         this.errorMessage = errorMessage;
+        this.errorCode = errorCode;
+    }
+
+    public AuthenticationFailedException(final ServiceErrorCode errorCode) {
+        this(errorCode, errorCode.getDefaultMessage());
     }
 
     @Override
@@ -38,5 +47,12 @@ public class AuthenticationFailedException extends Exception {
         return errorMessage;
     }
 
+    /**
+     * @return - the error code
+     */
+    public ServiceErrorCode getErrorCode() {
+        return errorCode;
+    }
+
 }
 
@@ -1,18 +1,27 @@
 package com.upgrad.quora.service.exception;
 
+import com.upgrad.quora.service.common.ServiceErrorCode;
+
 import java.io.PrintStream;
 import java.io.PrintWriter;
 
 /**
- * InvalidQuestionException is thrown when the question is not found in the database.
+ * InvalidQuestionException is thrown when the question is not found in the database or its content is invalid.
  */
 public class InvalidQuestionException extends Exception {
     private final String code;
     private final String errorMessage;
+    private final ServiceErrorCode errorCode;
 
-    public InvalidQuestionException(final String code, final String errorMessage) {
-        this.code = code;
+    public InvalidQuestionException(final ServiceErrorCode errorCode, final String errorMessage) {
+        super(null, null, true, StackTraces.writable());
+        this.code = errorCode.getCode();
         this.errorMessage = errorMessage;
+        this.errorCode = errorCode;
+    }
+
+    public InvalidQuestionException(final ServiceErrorCode errorCode) {
+        this(errorCode, errorCode.getDefaultMessage());
     }
 
     @Override
@@ -38,5 +47,12 @@ public class InvalidQuestionException extends Exception {
         return errorMessage;
     }
 
+    /**
+     * @return - the error code
+     */
+    public ServiceErrorCode getErrorCode() {
+        return errorCode;
+    }
+
 }
 
@@ -1,18 +1,27 @@
 package com.upgrad.quora.service.exception;
 
+import com.upgrad.quora.service.common.ServiceErrorCode;
+
 import java.io.PrintStream;
 import java.io.PrintWriter;
 
 /**
- * SignOutRestrictedException is thrown when a user is not signed in the application and tries to sign out of the application.
+ * SignOutRestrictedException is thrown when a user is not signed in the application and tries to sign out of the application, with SGR_001_SIGNOUT.
  */
 public class SignOutRestrictedException extends Exception {
     private final String code;
     private final String errorMessage;
+    private final ServiceErrorCode errorCode;
 
-    public SignOutRestrictedException(final String code, final String errorMessage) {
-        this.code = code;
+    public SignOutRestrictedException(final ServiceErrorCode errorCode, final String errorMessage) {
+        super(null, null, true, StackTraces.writable());
+        this.code = errorCode.getCode();
         this.errorMessage = errorMessage;
+        this.errorCode = errorCode;
+    }
+
+    public SignOutRestrictedException(final ServiceErrorCode errorCode) {
+        this(errorCode, errorCode.getDefaultMessage());
     }
 
     @Override
@@ -38,4 +47,11 @@ public class SignOutRestrictedException extends Exception {
         return errorMessage;
     }
 
+    /**
+     * @return - the error code
+     */
+    public ServiceErrorCode getErrorCode() {
+        return errorCode;
+    }
+
 }
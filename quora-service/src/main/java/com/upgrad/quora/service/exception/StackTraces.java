@@ -0,0 +1,38 @@
+package com.upgrad.quora.service.exception;
+
+import java.util.Locale;
+
+/**
+ * Whether the exceptions of this package capture the stack trace of the place they are thrown from. They report an
+ * expected outcome of a request, e.g. a signed out user, and their stack trace is never logged; with the system
+ * property "quora.exceptions.stackless" (or the environment variable QUORA_EXCEPTIONS_STACKLESS) set to true they skip
+ * filling it in, which makes rejected requests cheaper. The flag is read once, when the class is loaded, so that it
+ * holds for every exception whatever the order in which the application is initialized.
+ */
+public final class StackTraces {
+
+    private static final String PROPERTY = "quora.exceptions.stackless";
+
+    private static final boolean WRITABLE = !stackless();
+
+    private StackTraces() {
+    }
+
+    /**
+     * @return - false if the exceptions of this package are created without a stack trace
+     */
+    public static boolean writable() {
+        return WRITABLE;
+    }
+
+    private static boolean stackless() {
+        String value = System.getProperty(PROPERTY);
+        if (value == null) {
+            value = System.getenv(PROPERTY.toUpperCase(Locale.ROOT).replace('.', '_'));
+        }
+        if (value == null) {
+            value = System.getenv(PROPERTY);
+        }
+        return Boolean.parseBoolean(value);
+    }
+}
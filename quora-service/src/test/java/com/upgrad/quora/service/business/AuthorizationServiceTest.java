@@ -0,0 +1,136 @@
+package com.upgrad.quora.service.business;
+
+import com.upgrad.quora.service.dao.UserAuthDao;
+import com.upgrad.quora.service.dao.UserRevocationDao;
+import com.upgrad.quora.service.datasource.ReplicaRoutingDataSource;
+import com.upgrad.quora.service.entity.UserRevocationEntity;
+import com.upgrad.quora.service.exception.AuthorizationFailedException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.ZonedDateTime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+public class AuthorizationServiceTest {
+
+    private static final String SECRET = "secret";
+
+    private final AuthorizationService authorizationService = new AuthorizationService();
+
+    private final RevokedTokenRegistry revokedTokenRegistry = new RevokedTokenRegistry(1 << 16, 1024);
+
+    private final UserAuthDao userAuthDao = Mockito.mock(UserAuthDao.class);
+
+    private final UserRevocationDao userRevocationDao = Mockito.mock(UserRevocationDao.class);
+
+    @Before
+    public void setUp() {
+        ReflectionTestUtils.setField(authorizationService, "userAuthDao", userAuthDao);
+        ReflectionTestUtils.setField(authorizationService, "userRevocationDao", userRevocationDao);
+        ReflectionTestUtils.setField(authorizationService, "userAuthTokenCache", new UserAuthTokenCache(100, 300, 4));
+        ReflectionTestUtils.setField(authorizationService, "revokedTokenRegistry", revokedTokenRegistry);
+        ReflectionTestUtils.setField(authorizationService, "verificationMode", TokenVerificationMode.STATELESS);
+        ReflectionTestUtils.setField(authorizationService, "jwtSecret", SECRET);
+        authorizationService.init();
+    }
+
+    @After
+    public void clearTransaction() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    private static String token(final String userUuid) {
+        return new JwtTokenProvider(SECRET).generateToken(userUuid, "nonadmin", ZonedDateTime.now(), ZonedDateTime.now().plusHours(1));
+    }
+
+    //This test case passes when a valid token is accepted without any database access.
+    @Test
+    public void statelessTokenIsAccepted() throws Exception {
+        assertEquals("user1", authorizationService.authorize(token("user1"), "signed out").getUserUuid());
+        Mockito.verifyZeroInteractions(userAuthDao);
+    }
+
+    //This test case passes when a token authorized before its user was deleted is rejected afterwards and the deletion is stored for the other instances.
+    @Test
+    public void tokenOfDeletedUserIsRejected() throws Exception {
+        final String token = token("user1");
+        authorizationService.authorize(token, "signed out");
+        authorizationService.revokeUser("user1", ZonedDateTime.now().plusHours(1));
+        try {
+            authorizationService.authorize(token, "signed out");
+            fail();
+        } catch (AuthorizationFailedException e) {
+            assertEquals("ATHR-001", e.getCode());
+        }
+        final ArgumentCaptor<UserRevocationEntity> revocation = ArgumentCaptor.forClass(UserRevocationEntity.class);
+        Mockito.verify(userRevocationDao).revokeUser(revocation.capture());
+        assertEquals("user1", revocation.getValue().getUserUuid());
+    }
+
+    //This test case passes when, inside the deleting transaction, the tokens of the user are only rejected once it has committed.
+    @Test
+    public void deletedUserIsRevokedAfterCommit() throws Exception {
+        final String token = token("user1");
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            authorizationService.revokeUser("user1", ZonedDateTime.now().plusHours(1));
+            assertEquals("user1", authorizationService.authorize(token, "signed out").getUserUuid());
+            for (final TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCommit();
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        try {
+            authorizationService.authorize(token, "signed out");
+            fail();
+        } catch (AuthorizationFailedException e) {
+            assertEquals("ATHR-001", e.getCode());
+        }
+    }
+
+    //This test case passes when, without the deny-list, a token whose USER_AUTH row is gone is rejected.
+    @Test
+    public void tokenWithoutUserAuthRowIsRejected() throws Exception {
+        ReflectionTestUtils.setField(authorizationService, "revokedTokenRegistry", null);
+        try {
+            authorizationService.authorize(token("user1"), "signed out");
+            fail();
+        } catch (AuthorizationFailedException e) {
+            assertEquals("ATHR-001", e.getCode());
+        }
+    }
+
+    //This test case passes when, with read replicas, the USER_AUTH row is read in a read-write transaction of its own from a read-only one.
+    @Test
+    public void userAuthIsReadFromPrimary() throws Exception {
+        final PlatformTransactionManager transactionManager = Mockito.mock(PlatformTransactionManager.class);
+        ReflectionTestUtils.setField(authorizationService, "replicaRoutingDataSource", Mockito.mock(ReplicaRoutingDataSource.class));
+        ReflectionTestUtils.setField(authorizationService, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(authorizationService, "verificationMode", TokenVerificationMode.DATABASE);
+        authorizationService.init();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        try {
+            authorizationService.authorize("database_accesstoken1", "signed out");
+            fail();
+        } catch (AuthorizationFailedException e) {
+            assertEquals("ATHR-001", e.getCode());
+        }
+        final ArgumentCaptor<TransactionDefinition> definition = ArgumentCaptor.forClass(TransactionDefinition.class);
+        Mockito.verify(transactionManager).getTransaction(definition.capture());
+        assertEquals(TransactionDefinition.PROPAGATION_REQUIRES_NEW, definition.getValue().getPropagationBehavior());
+        assertFalse(definition.getValue().isReadOnly());
+        Mockito.verify(userAuthDao).getUserAuthByAccessToken("database_accesstoken1");
+    }
+}
@@ -0,0 +1,112 @@
+package com.upgrad.quora.service.business;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class ContentVersionsTest {
+
+    private static ContentVersions.Listener listener(final AtomicInteger questionsChanged, final List<String> answersChanged) {
+        return new ContentVersions.Listener() {
+            @Override
+            public void questionsChanged() {
+                questionsChanged.incrementAndGet();
+            }
+
+            @Override
+            public void answersChanged(final String questionUuid) {
+                answersChanged.add(questionUuid);
+            }
+        };
+    }
+
+    //This test case passes when no ETag is handed out while ETags are disabled, the listeners being told about the changes all the same.
+    @Test
+    public void disabledHasNoTags() {
+        final ContentVersions versions = new ContentVersions(false, 16, "", 5);
+        final AtomicInteger notified = new AtomicInteger();
+        versions.addListener(listener(notified, null));
+        versions.questionsChanged();
+        assertNull(versions.questionsTag());
+        assertNull(versions.answersTag("question1"));
+        assertNull(versions.answersTag(Arrays.asList("question1", "question2")));
+        assertEquals(1, notified.get());
+    }
+
+    //This test case passes when the ETag of the questions changes with every write and stays the same without one.
+    @Test
+    public void questionsTagChangesOnWrite() {
+        final ContentVersions versions = new ContentVersions(true, 16, "", 5);
+        final String tag = versions.questionsTag();
+        assertNotNull(tag);
+        assertEquals(tag, versions.questionsTag());
+        versions.questionsChanged();
+        assertNotEquals(tag, versions.questionsTag());
+    }
+
+    //This test case passes when answering a question changes its ETag and the one of the questions, but not the ETag of a question on another counter, and only that question is reported to the listeners.
+    @Test
+    public void answersChangedChangesItsQuestion() {
+        final ContentVersions versions = new ContentVersions(true, 4096, "", 5);
+        final AtomicInteger questionsNotified = new AtomicInteger();
+        final List<String> answered = new ArrayList<>();
+        versions.addListener(listener(questionsNotified, answered));
+        final String questionsTag = versions.questionsTag();
+        final String answersTag = versions.answersTag("question1");
+        final String otherAnswersTag = versions.answersTag("question2");
+        final String bulkTag = versions.answersTag(Arrays.asList("question1", "question2"));
+        versions.answersChanged("question1");
+        assertNotEquals(questionsTag, versions.questionsTag());
+        assertNotEquals(answersTag, versions.answersTag("question1"));
+        assertEquals(otherAnswersTag, versions.answersTag("question2"));
+        assertNotEquals(bulkTag, versions.answersTag(Arrays.asList("question1", "question2")));
+        assertEquals(0, questionsNotified.get());
+        assertEquals(Collections.singletonList("question1"), answered);
+    }
+
+    //This test case passes when allChanged changes every ETag and notifies the listeners of the questions.
+    @Test
+    public void allChangedChangesEveryTag() {
+        final ContentVersions versions = new ContentVersions(true, 16, "", 5);
+        final AtomicInteger notified = new AtomicInteger();
+        versions.addListener(listener(notified, null));
+        final String questionsTag = versions.questionsTag();
+        final String answersTag = versions.answersTag("question1");
+        versions.allChanged();
+        assertNotEquals(questionsTag, versions.questionsTag());
+        assertNotEquals(answersTag, versions.answersTag("question1"));
+        assertEquals(1, notified.get());
+    }
+
+    //This test case passes when the ETags of another instance, e.g. after a restart, never match the ones handed out before.
+    @Test
+    public void tagsDifferAcrossInstances() {
+        assertNotEquals(new ContentVersions(true, 16, "", 5).questionsTag(), new ContentVersions(true, 16, "", 5).questionsTag());
+    }
+
+    //This test case passes when the versions change again once the read replicas may have caught up with a write.
+    @Test
+    public void changesAgainAfterReplicaLag() throws InterruptedException {
+        final ContentVersions versions = new ContentVersions(true, 16, "jdbc:postgresql://replica:5432/quora", 0);
+        try {
+            versions.questionsChanged();
+            final String tag = versions.questionsTag();
+            final long deadline = System.currentTimeMillis() + 10000;
+            while (tag.equals(versions.questionsTag()) && System.currentTimeMillis() < deadline) {
+                Thread.sleep(50);
+            }
+            assertNotEquals(tag, versions.questionsTag());
+        } finally {
+            versions.shutdown();
+        }
+    }
+}
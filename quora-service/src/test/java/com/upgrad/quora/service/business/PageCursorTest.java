@@ -0,0 +1,59 @@
+package com.upgrad.quora.service.business;
+
+import com.upgrad.quora.service.common.UnexpectedException;
+import org.junit.Test;
+
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+public class PageCursorTest {
+
+    //This test case passes when an encoded cursor decodes to the same instant and id.
+    @Test
+    public void encodeAndDecode() {
+        final ZonedDateTime date = ZonedDateTime.parse("2018-09-17T19:41:19.593Z");
+        final PageCursor cursor = PageCursor.decode(new PageCursor(date, 1024).encode());
+        assertEquals(date.toInstant(), cursor.getDate().toInstant());
+        assertEquals(Integer.valueOf(1024), cursor.getId());
+    }
+
+    //This test case passes when no cursor stands for the first page.
+    @Test
+    public void missingCursorIsFirstPage() {
+        assertNull(PageCursor.decode(null));
+        assertNull(PageCursor.decode(""));
+    }
+
+    //This test case passes when a cursor which was not handed out by the service is rejected with GEN-003.
+    @Test
+    public void malformedCursorIsRejected() {
+        for (final String cursor : Arrays.asList("not base64!", "bm8gc2VwYXJhdG9y", "bm90IGEgZGF0ZSwx")) {
+            try {
+                PageCursor.decode(cursor);
+                fail(cursor);
+            } catch (UnexpectedException e) {
+                assertEquals("GEN-003", e.getErrorCode().getCode());
+            }
+        }
+    }
+
+    //This test case passes when a page holds a next cursor pointing at its last item only if an extra row was read.
+    @Test
+    public void keysetPageOfRows() {
+        final ZonedDateTime date = ZonedDateTime.now();
+        final List<Integer> rows = Arrays.asList(5, 4, 3);
+        final KeysetPage<Integer> page = KeysetPage.of(rows, 2, id -> new PageCursor(date, id));
+        assertEquals(Arrays.asList(5, 4), page.getItems());
+        assertEquals(Integer.valueOf(4), page.getNextCursor().getId());
+
+        final KeysetPage<Integer> lastPage = KeysetPage.of(rows, 3, id -> new PageCursor(date, id));
+        assertSame(rows, lastPage.getItems());
+        assertNull(lastPage.getNextCursor());
+    }
+}
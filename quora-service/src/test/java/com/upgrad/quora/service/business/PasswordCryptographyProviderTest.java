@@ -0,0 +1,101 @@
+package com.upgrad.quora.service.business;
+
+import com.upgrad.quora.service.common.GenericErrorCode;
+import com.upgrad.quora.service.common.UnexpectedException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class PasswordCryptographyProviderTest {
+
+    private final PasswordCryptographyProvider provider = new PasswordCryptographyProvider();
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @Before
+    public void setUp() {
+        ReflectionTestUtils.setField(provider, "algorithm", "PBKDF2WithHmacSHA512");
+        ReflectionTestUtils.setField(provider, "iterations", 1000);
+        ReflectionTestUtils.setField(provider, "keyLength", 64);
+        ReflectionTestUtils.setField(provider, "executorThreads", 1);
+        ReflectionTestUtils.setField(provider, "executorQueueCapacity", 1);
+        provider.init();
+    }
+
+    @After
+    public void tearDown() {
+        release.countDown();
+        provider.shutdown();
+    }
+
+    private ThreadPoolExecutor hashingExecutor() {
+        return (ThreadPoolExecutor) ReflectionTestUtils.getField(provider, "hashingExecutor");
+    }
+
+    private void saturate() throws InterruptedException {
+        final ThreadPoolExecutor hashingExecutor = hashingExecutor();
+        final CountDownLatch running = new CountDownLatch(1);
+        // one task holds the only thread and a second one the only queue slot
+        hashingExecutor.execute(() -> {
+            running.countDown();
+            awaitRelease();
+        });
+        hashingExecutor.execute(this::awaitRelease);
+        assertTrue(running.await(10, TimeUnit.SECONDS));
+    }
+
+    private void awaitRelease() {
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void assertBusy(final CompletableFuture<?> future) throws InterruptedException {
+        try {
+            future.get();
+            fail();
+        } catch (ExecutionException e) {
+            final UnexpectedException unexpected = (UnexpectedException) e.getCause();
+            assertSame(GenericErrorCode.GEN_002, unexpected.getErrorCode());
+            assertEquals(503, unexpected.getErrorCode().getHttpStatus());
+        }
+    }
+
+    //This test case passes when hashing on the executor matches the result of hashing on the calling thread.
+    @Test
+    public void hashesOnExecutor() throws Exception {
+        final String[] encrypted = provider.encryptAsync("password").get(10, TimeUnit.SECONDS);
+        assertTrue(provider.matches("password", encrypted[0], encrypted[1]));
+        assertTrue(provider.matchesAsync("password", encrypted[0], encrypted[1]).get(10, TimeUnit.SECONDS));
+    }
+
+    //This test case passes when hashing requests beyond the busy threads and the full queue fail right away with GEN-002, answered with 503.
+    @Test
+    public void saturatedExecutorRejectsWithGen002() throws Exception {
+        final String[] encrypted = provider.encrypt("password");
+        saturate();
+        assertBusy(provider.encryptAsync("password"));
+        assertBusy(provider.matchesAsync("password", encrypted[0], encrypted[1]));
+        release.countDown();
+        // the queued task has to be taken by the thread before the queue has room again
+        final long deadline = System.currentTimeMillis() + 10000;
+        while (!hashingExecutor().getQueue().isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(provider.matchesAsync("password", encrypted[0], encrypted[1]).get(10, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,66 @@
+package com.upgrad.quora.service.business;
+
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class PasswordHashSpecTest {
+
+    private static PasswordCryptographyProvider provider(final int iterations) {
+        final PasswordCryptographyProvider provider = new PasswordCryptographyProvider();
+        ReflectionTestUtils.setField(provider, "algorithm", "PBKDF2WithHmacSHA512");
+        ReflectionTestUtils.setField(provider, "iterations", iterations);
+        ReflectionTestUtils.setField(provider, "keyLength", 64);
+        provider.init();
+        return provider;
+    }
+
+    //This test case passes when a hash without the parameter prefix is read as a legacy hash.
+    @Test
+    public void unprefixedHashIsLegacy() {
+        assertSame(PasswordHashSpec.LEGACY, PasswordHashSpec.of("0A1B2C"));
+        assertEquals("0A1B2C", PasswordHashSpec.hexOf("0A1B2C"));
+        assertEquals("0A1B2C", PasswordHashSpec.LEGACY.encode("0A1B2C"));
+    }
+
+    //This test case passes when the parameters encoded into a stored hash are read back unchanged.
+    @Test
+    public void encodeAndParse() {
+        final PasswordHashSpec spec = new PasswordHashSpec("PBKDF2WithHmacSHA256", 210000, 256);
+        final String stored = spec.encode("0A1B2C");
+        assertEquals("$PBKDF2WithHmacSHA256$210000$256$0A1B2C", stored);
+        assertEquals(spec, PasswordHashSpec.of(stored));
+        assertEquals("0A1B2C", PasswordHashSpec.hexOf(stored));
+    }
+
+    //This test case passes when a stored hash with a missing parameter is rejected.
+    @Test(expected = IllegalArgumentException.class)
+    public void malformedHashIsRejected() {
+        PasswordHashSpec.of("$PBKDF2WithHmacSHA256$210000$0A1B2C");
+    }
+
+    //This test case passes when a password hashed with legacy parameters still matches after the parameters were raised, and is flagged for rehashing.
+    @Test
+    public void legacyHashStillMatches() {
+        final PasswordCryptographyProvider original = provider(1000);
+        final String[] legacy = original.encrypt("password");
+        original.shutdown();
+        final PasswordCryptographyProvider raised = provider(2000);
+        try {
+            assertEquals(legacy[1], PasswordCryptographyProvider.encrypt("password", legacy[0]));
+            assertTrue(raised.matches("password", legacy[0], legacy[1]));
+            assertFalse(raised.matches("wrong", legacy[0], legacy[1]));
+            assertTrue(raised.needsRehash(legacy[1]));
+
+            final String[] rehashed = raised.encrypt("password");
+            assertTrue(raised.matches("password", rehashed[0], rehashed[1]));
+            assertFalse(raised.needsRehash(rehashed[1]));
+        } finally {
+            raised.shutdown();
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.upgrad.quora.service.business;
+
+import com.upgrad.quora.service.dao.AnswerDao;
+import com.upgrad.quora.service.dao.QuestionDao;
+import com.upgrad.quora.service.dao.UserDao;
+import com.upgrad.quora.service.entity.QuestionEntity;
+import com.upgrad.quora.service.entity.UserEntity;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+
+public class QuestionFeedCacheTest {
+
+    private static final PageCursor SECOND_PAGE = new PageCursor(ZonedDateTime.now(), 2);
+
+    private final QuestionBusinessService questionBusinessService = Mockito.mock(QuestionBusinessService.class);
+
+    private final ContentVersions contentVersions = new ContentVersions(true, 16, "", 5);
+
+    private final QuestionFeedCache questionFeedCache = new QuestionFeedCache();
+
+    private final Function<KeysetPage<QuestionEntity>, byte[]> encoder = page -> {
+        final StringBuilder body = new StringBuilder();
+        for (final QuestionEntity questionEntity : page.getItems()) {
+            body.append(questionEntity.getUuid()).append(';');
+        }
+        return body.toString().getBytes();
+    };
+
+    private static QuestionEntity question(final String uuid) {
+        final QuestionEntity questionEntity = new QuestionEntity();
+        questionEntity.setUuid(uuid);
+        return questionEntity;
+    }
+
+    @Before
+    public void setUp() {
+        Mockito.when(questionBusinessService.pageSize(any())).thenReturn(2);
+        Mockito.when(questionBusinessService.getQuestionFeedPage(isNull(), anyInt()))
+                .thenReturn(new KeysetPage<>(Arrays.asList(question("question1"), question("question2")), SECOND_PAGE));
+        Mockito.when(questionBusinessService.getQuestionFeedPage(any(PageCursor.class), anyInt()))
+                .thenReturn(new KeysetPage<>(Arrays.asList(question("question3"), question("question4")), null));
+        ReflectionTestUtils.setField(questionFeedCache, "questionBusinessService", questionBusinessService);
+        ReflectionTestUtils.setField(questionFeedCache, "contentVersions", contentVersions);
+        ReflectionTestUtils.setField(questionFeedCache, "enabled", true);
+        ReflectionTestUtils.setField(questionFeedCache, "maxBytes", 1L << 20);
+    }
+
+    //This test case passes when a cached page is served without reading the questions until questions are committed.
+    @Test
+    public void servesCachedPageUntilQuestionsChange() {
+        questionFeedCache.init();
+        final QuestionFeedCache.EncodedPage page = questionFeedCache.getFeedPage(null, null, encoder);
+        assertArrayEquals("question1;question2;".getBytes(), page.getBody());
+        assertEquals(SECOND_PAGE.encode(), page.getNextCursor());
+        questionFeedCache.getFeedPage(null, null, encoder);
+        Mockito.verify(questionBusinessService, Mockito.times(1)).getQuestionFeedPage(isNull(), anyInt());
+        contentVersions.questionsChanged();
+        questionFeedCache.getFeedPage(null, null, encoder);
+        Mockito.verify(questionBusinessService, Mockito.times(2)).getQuestionFeedPage(isNull(), anyInt());
+    }
+
+    //This test case passes when an answer only evicts the pages holding its question.
+    @Test
+    public void answerEvictsOnlyPagesOfItsQuestion() {
+        questionFeedCache.init();
+        questionFeedCache.getFeedPage(null, null, encoder);
+        questionFeedCache.getFeedPage(SECOND_PAGE.encode(), null, encoder);
+        contentVersions.answersChanged("question3");
+        questionFeedCache.getFeedPage(null, null, encoder);
+        questionFeedCache.getFeedPage(SECOND_PAGE.encode(), null, encoder);
+        Mockito.verify(questionBusinessService, Mockito.times(1)).getQuestionFeedPage(isNull(), anyInt());
+        Mockito.verify(questionBusinessService, Mockito.times(2)).getQuestionFeedPage(any(PageCursor.class), anyInt());
+    }
+
+    //This test case passes when an answer created through the answer service evicts the cached page holding its question, whose answer count changed, and keeps the other pages.
+    @Test
+    public void answerWriteEvictsCachedPage() throws Exception {
+        final AuthorizationService authorizationService = Mockito.mock(AuthorizationService.class);
+        Mockito.when(authorizationService.authorize(eq("database_accesstoken1"), anyString())).thenReturn(new AuthorizedUser("user1", "nonadmin", null, null));
+        final UserDao userDao = Mockito.mock(UserDao.class);
+        Mockito.when(userDao.getUserByUuid("user1")).thenReturn(new UserEntity());
+        final QuestionDao questionDao = Mockito.mock(QuestionDao.class);
+        final QuestionEntity answered = question("question1");
+        answered.setDate(ZonedDateTime.now());
+        Mockito.when(questionDao.getQuestionByUuid("question1")).thenReturn(answered);
+        final AnswerDao answerDao = Mockito.mock(AnswerDao.class);
+        final WriteCoalescer writeCoalescer = Mockito.mock(WriteCoalescer.class);
+        Mockito.when(writeCoalescer.execute(anyInt(), any())).thenAnswer(invocation -> invocation.<WriteCoalescer.Mutation<?, ?>>getArgument(1).apply());
+        final AnswerBusinessService answerBusinessService = new AnswerBusinessService();
+        ReflectionTestUtils.setField(answerBusinessService, "authorizationService", authorizationService);
+        ReflectionTestUtils.setField(answerBusinessService, "userDao", userDao);
+        ReflectionTestUtils.setField(answerBusinessService, "questionDao", questionDao);
+        ReflectionTestUtils.setField(answerBusinessService, "answerDao", answerDao);
+        ReflectionTestUtils.setField(answerBusinessService, "writeCoalescer", writeCoalescer);
+        ReflectionTestUtils.setField(answerBusinessService, "contentVersions", contentVersions);
+        ReflectionTestUtils.setField(answerBusinessService, "maxBatchSize", 1000);
+        questionFeedCache.init();
+        questionFeedCache.getFeedPage(null, null, encoder);
+        questionFeedCache.getFeedPage(SECOND_PAGE.encode(), null, encoder);
+
+        answerBusinessService.createAnswers("question1", "database_accesstoken1", Collections.singletonList("an answer"));
+        Mockito.verify(answerDao).createAnswers(anyList());
+
+        questionFeedCache.getFeedPage(null, null, encoder);
+        questionFeedCache.getFeedPage(SECOND_PAGE.encode(), null, encoder);
+        Mockito.verify(questionBusinessService, Mockito.times(2)).getQuestionFeedPage(isNull(), anyInt());
+        Mockito.verify(questionBusinessService, Mockito.times(1)).getQuestionFeedPage(any(PageCursor.class), anyInt());
+    }
+
+    //This test case passes when the least recently used page is evicted once the pages exceed the maximum size.
+    @Test
+    public void evictsLeastRecentlyUsedPage() {
+        ReflectionTestUtils.setField(questionFeedCache, "maxBytes", 500L);
+        questionFeedCache.init();
+        final List<String> cursors = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            cursors.add(new PageCursor(ZonedDateTime.now(), 100 + i).encode());
+        }
+        questionFeedCache.getFeedPage(cursors.get(0), null, encoder);
+        questionFeedCache.getFeedPage(cursors.get(1), null, encoder);
+        // the first page is used again, so the second one is the least recently used
+        questionFeedCache.getFeedPage(cursors.get(0), null, encoder);
+        questionFeedCache.getFeedPage(cursors.get(2), null, encoder);
+        assertTrue(questionFeedCache.size() <= 500);
+        Mockito.verify(questionBusinessService, Mockito.times(3)).getQuestionFeedPage(any(PageCursor.class), anyInt());
+        questionFeedCache.getFeedPage(cursors.get(0), null, encoder);
+        Mockito.verify(questionBusinessService, Mockito.times(3)).getQuestionFeedPage(any(PageCursor.class), anyInt());
+        questionFeedCache.getFeedPage(cursors.get(1), null, encoder);
+        Mockito.verify(questionBusinessService, Mockito.times(4)).getQuestionFeedPage(any(PageCursor.class), anyInt());
+    }
+
+    //This test case passes when a page read while answers are committed is served but not cached.
+    @Test
+    public void pageReadDuringWriteIsNotCached() {
+        questionFeedCache.init();
+        questionFeedCache.getFeedPage(null, null, page -> {
+            contentVersions.answersChanged("question9");
+            return encoder.apply(page);
+        });
+        questionFeedCache.getFeedPage(null, null, encoder);
+        Mockito.verify(questionBusinessService, Mockito.times(2)).getQuestionFeedPage(isNull(), anyInt());
+    }
+
+    //This test case passes when nothing is cached unless this instance is declared the only writer.
+    @Test
+    public void disabledWithoutSingleWriter() {
+        ReflectionTestUtils.setField(questionFeedCache, "enabled", false);
+        questionFeedCache.init();
+        questionFeedCache.getFeedPage(null, null, encoder);
+        questionFeedCache.getFeedPage(null, null, encoder);
+        Mockito.verify(questionBusinessService, Mockito.times(2)).getQuestionFeedPage(isNull(), anyInt());
+        assertEquals(0, questionFeedCache.size());
+    }
+}
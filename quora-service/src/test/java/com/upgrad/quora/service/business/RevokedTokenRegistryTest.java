@@ -0,0 +1,115 @@
+package com.upgrad.quora.service.business;
+
+import com.auth0.jwt.JWT;
+import com.upgrad.quora.service.dao.UserRevocationDao;
+import com.upgrad.quora.service.entity.UserRevocationEntity;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+
+public class RevokedTokenRegistryTest {
+
+    private final JwtTokenProvider tokenProvider = new JwtTokenProvider("secret");
+
+    private String token(final ZonedDateTime expiresAt) {
+        return tokenProvider.generateToken("user1", "nonadmin", ZonedDateTime.now(), expiresAt);
+    }
+
+    private static String keyId(final String token) {
+        return JWT.decode(token).getKeyId();
+    }
+
+    //This test case passes when a signed out token is found in the deny-list with its LOGOUT_AT.
+    @Test
+    public void revokedTokenIsFound() {
+        final RevokedTokenRegistry registry = new RevokedTokenRegistry(1 << 16, 1024);
+        final ZonedDateTime logoutAt = ZonedDateTime.now();
+        final String token = token(ZonedDateTime.now().plusHours(1));
+        assertTrue(registry.revoke(token, logoutAt, ZonedDateTime.now().plusHours(1)));
+        assertEquals(logoutAt, registry.getLogoutAt(keyId(token)));
+    }
+
+    //This test case passes when none of many tokens which are not signed out is reported as signed out.
+    @Test
+    public void bloomFilterPositivesAreConfirmed() {
+        final RevokedTokenRegistry registry = new RevokedTokenRegistry(64, 1 << 20);
+        for (int i = 0; i < 1000; i++) {
+            registry.revoke(token(ZonedDateTime.now().plusHours(1)), ZonedDateTime.now(), ZonedDateTime.now().plusHours(1));
+        }
+        // a 64 bit filter holding 1000 tokens answers "might contain" for nearly everything
+        for (int i = 0; i < 1000; i++) {
+            assertNull(registry.getLogoutAt(keyId(token(ZonedDateTime.now().plusHours(1)))));
+        }
+    }
+
+    //This test case passes when a token which is not a JWT token carrying a "kid" is not tracked.
+    @Test
+    public void tokenWithoutKeyIdIsNotTracked() {
+        final RevokedTokenRegistry registry = new RevokedTokenRegistry(1 << 16, 1024);
+        assertFalse(registry.revoke("database_accesstoken1", ZonedDateTime.now(), ZonedDateTime.now().plusHours(1)));
+        assertNull(registry.getLogoutAt(null));
+    }
+
+    //This test case passes when the purge drops the expired tokens and keeps the others in the rebuilt bloom filter.
+    @Test
+    public void purgeDropsExpiredTokens() {
+        final RevokedTokenRegistry registry = new RevokedTokenRegistry(1 << 16, 1 << 20);
+        final List<String> expired = new ArrayList<>();
+        final List<String> unexpired = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            final String expiredToken = token(ZonedDateTime.now().plusHours(1));
+            registry.revoke(expiredToken, ZonedDateTime.now(), ZonedDateTime.now().minusSeconds(1));
+            expired.add(keyId(expiredToken));
+            final String unexpiredToken = token(ZonedDateTime.now().plusHours(1));
+            registry.revoke(unexpiredToken, ZonedDateTime.now(), ZonedDateTime.now().plusHours(1));
+            unexpired.add(keyId(unexpiredToken));
+        }
+        registry.purgeExpired();
+        for (final String keyId : expired) {
+            assertNull(registry.getLogoutAt(keyId));
+        }
+        for (final String keyId : unexpired) {
+            assertNotNull(registry.getLogoutAt(keyId));
+        }
+    }
+
+    //This test case passes when the tokens of a deleted user are rejected until the last of them has expired.
+    @Test
+    public void deletedUserIsRevoked() {
+        final RevokedTokenRegistry registry = new RevokedTokenRegistry(1 << 16, 1024);
+        registry.revokeUser("deleted", ZonedDateTime.now(), ZonedDateTime.now().plusHours(1));
+        registry.revokeUser("expired", ZonedDateTime.now(), ZonedDateTime.now().minusSeconds(1));
+        assertTrue(registry.isUserRevoked("deleted"));
+        assertFalse(registry.isUserRevoked("expired"));
+        assertFalse(registry.isUserRevoked("user1"));
+    }
+
+    //This test case passes when a user deleted through another instance is read from USER_REVOCATION and its expired rows are deleted.
+    @Test
+    public void refreshLoadsPersistedUserRevocations() {
+        final RevokedTokenRegistry registry = new RevokedTokenRegistry(1 << 16, 1024);
+        final UserRevocationDao userRevocationDao = Mockito.mock(UserRevocationDao.class);
+        final UserRevocationEntity userRevocationEntity = new UserRevocationEntity();
+        userRevocationEntity.setUserUuid("deleted");
+        userRevocationEntity.setRevokedAt(ZonedDateTime.now());
+        userRevocationEntity.setExpiresAt(ZonedDateTime.now().plusHours(1));
+        Mockito.when(userRevocationDao.getUnexpiredUserRevocations(any())).thenReturn(Collections.singletonList(userRevocationEntity));
+        ReflectionTestUtils.setField(registry, "userRevocationDao", userRevocationDao);
+        assertFalse(registry.isUserRevoked("deleted"));
+        registry.refreshUserRevocations();
+        assertTrue(registry.isUserRevoked("deleted"));
+        Mockito.verify(userRevocationDao).deleteExpiredUserRevocations(any());
+    }
+}
@@ -0,0 +1,105 @@
+package com.upgrad.quora.service.business;
+
+import org.junit.Test;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class UserAuthTokenCacheTest {
+
+    private static AuthorizedUser user(final String userUuid) {
+        return new AuthorizedUser(userUuid, "nonadmin", ZonedDateTime.now().plusHours(1), null);
+    }
+
+    //This test case passes when a cached token is returned until it is invalidated.
+    @Test
+    public void getPutInvalidate() {
+        final UserAuthTokenCache cache = new UserAuthTokenCache(100, 300, 16);
+        final AuthorizedUser user = user("user1");
+        cache.put("token1", user);
+        assertSame(user, cache.get("token1"));
+        cache.invalidate("token1");
+        assertNull(cache.get("token1"));
+    }
+
+    //This test case passes when the cache never holds more tokens than its maximum size, whatever the number of stripes.
+    @Test
+    public void boundedSize() {
+        final UserAuthTokenCache cache = new UserAuthTokenCache(64, 300, 16);
+        for (int i = 0; i < 10000; i++) {
+            cache.put("token" + i, user("user" + i));
+        }
+        assertTrue(cache.size() <= 64);
+        assertNotNull(cache.get("token9999"));
+    }
+
+    //This test case passes when an expired token is neither cached nor returned.
+    @Test
+    public void expiredTokenIsNotCached() {
+        final UserAuthTokenCache cache = new UserAuthTokenCache(100, 300, 16);
+        cache.put("token1", new AuthorizedUser("user1", "nonadmin", ZonedDateTime.now().minusSeconds(1), null));
+        assertNull(cache.get("token1"));
+        assertEquals(0, cache.size());
+    }
+
+    //This test case passes when every token of a deleted user is dropped, in whichever stripe it is.
+    @Test
+    public void invalidateUser() {
+        final UserAuthTokenCache cache = new UserAuthTokenCache(1000, 300, 16);
+        for (int i = 0; i < 100; i++) {
+            cache.put("token" + i, user(i % 2 == 0 ? "deleted" : "kept"));
+        }
+        cache.invalidateUser("deleted");
+        for (int i = 0; i < 100; i++) {
+            if (i % 2 == 0) {
+                assertNull(cache.get("token" + i));
+            } else {
+                assertNotNull(cache.get("token" + i));
+            }
+        }
+    }
+
+    //This test case passes when concurrent readers and writers leave the cache consistent.
+    @Test
+    public void concurrentAccess() throws Exception {
+        final UserAuthTokenCache cache = new UserAuthTokenCache(500, 300, 16);
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<Integer>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                final int thread = t;
+                futures.add(executor.submit((Callable<Integer>) () -> {
+                    int hits = 0;
+                    for (int i = 0; i < 20000; i++) {
+                        final String token = "token" + ((i * 31 + thread) % 400);
+                        if (cache.get(token) != null) {
+                            hits++;
+                        } else {
+                            cache.put(token, user(token));
+                        }
+                    }
+                    return hits;
+                }));
+            }
+            int hits = 0;
+            for (final Future<Integer> future : futures) {
+                hits += future.get();
+            }
+            assertTrue(hits > 0);
+            assertTrue(cache.size() <= 500);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.upgrad.quora.service.business;
+
+import com.upgrad.quora.service.dao.UserAuthDao;
+import com.upgrad.quora.service.entity.UserAuthEntity;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import javax.persistence.PersistenceException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class UserAuthWriterTest {
+
+    private final UserAuthWriter userAuthWriter = new UserAuthWriter();
+
+    private final UserAuthDao userAuthDao = Mockito.mock(UserAuthDao.class);
+
+    private final PlatformTransactionManager transactionManager = Mockito.mock(PlatformTransactionManager.class);
+
+    /**
+     * uuids of the rows of each call to createUserAuths
+     */
+    private final List<List<String>> inserts = new CopyOnWriteArrayList<>();
+
+    @Before
+    public void setUp() {
+        Mockito.when(transactionManager.getTransaction(Mockito.any(TransactionDefinition.class))).thenAnswer(invocation -> new SimpleTransactionStatus());
+        Mockito.doAnswer(invocation -> {
+            final List<String> uuids = new ArrayList<>();
+            for (final UserAuthEntity userAuthEntity : invocation.<List<UserAuthEntity>>getArgument(0)) {
+                if (userAuthEntity.getUuid().startsWith("bad")) {
+                    throw new PersistenceException("duplicate key");
+                }
+                uuids.add(userAuthEntity.getUuid());
+            }
+            inserts.add(uuids);
+            return null;
+        }).when(userAuthDao).createUserAuths(Mockito.anyList());
+        ReflectionTestUtils.setField(userAuthWriter, "userAuthDao", userAuthDao);
+        ReflectionTestUtils.setField(userAuthWriter, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(userAuthWriter, "queueCapacity", 64);
+        ReflectionTestUtils.setField(userAuthWriter, "batchSize", 500);
+        ReflectionTestUtils.setField(userAuthWriter, "groupCommitMillis", 300L);
+        ReflectionTestUtils.setField(userAuthWriter, "shutdownTimeoutMillis", 1000L);
+        ReflectionTestUtils.setField(userAuthWriter, "verificationMode", TokenVerificationMode.STATELESS);
+    }
+
+    @After
+    public void tearDown() throws InterruptedException {
+        userAuthWriter.shutdown();
+    }
+
+    private void start(final SigninAuditMode mode) {
+        ReflectionTestUtils.setField(userAuthWriter, "mode", mode);
+        userAuthWriter.init();
+    }
+
+    private static UserAuthEntity userAuth(final String uuid) {
+        final UserAuthEntity userAuthEntity = new UserAuthEntity();
+        userAuthEntity.setUuid(uuid);
+        return userAuthEntity;
+    }
+
+    //This test case passes when, in SYNC mode, the row is inserted before write returns.
+    @Test
+    public void syncInsertsBeforeReturning() throws Exception {
+        start(SigninAuditMode.SYNC);
+        final UserAuthEntity userAuthEntity = userAuth("signin1");
+        final CompletableFuture<UserAuthEntity> written = userAuthWriter.write(userAuthEntity);
+        assertTrue(written.isDone());
+        assertSame(userAuthEntity, written.get());
+        assertEquals(Collections.singletonList(Collections.singletonList("signin1")), inserts);
+    }
+
+    //This test case passes when, in GROUP_COMMIT mode, the rows of concurrent signins are inserted in one batch and each signin completes once it is committed.
+    @Test
+    public void groupCommitInsertsOneBatch() throws Exception {
+        start(SigninAuditMode.GROUP_COMMIT);
+        final List<CompletableFuture<UserAuthEntity>> written = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            written.add(userAuthWriter.write(userAuth("signin" + i)));
+        }
+        for (final CompletableFuture<UserAuthEntity> future : written) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+        assertEquals(1, inserts.size());
+        assertEquals(5, inserts.get(0).size());
+    }
+
+    //This test case passes when a row failing its batch is retried alone, so that only its signin fails and the others are written.
+    @Test
+    public void failingRowDoesNotFailItsBatch() throws Exception {
+        start(SigninAuditMode.GROUP_COMMIT);
+        final CompletableFuture<UserAuthEntity> first = userAuthWriter.write(userAuth("signin1"));
+        final CompletableFuture<UserAuthEntity> bad = userAuthWriter.write(userAuth("bad"));
+        final CompletableFuture<UserAuthEntity> last = userAuthWriter.write(userAuth("signin2"));
+        first.get(10, TimeUnit.SECONDS);
+        last.get(10, TimeUnit.SECONDS);
+        try {
+            bad.get(10, TimeUnit.SECONDS);
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof PersistenceException);
+        }
+        final List<String> written = new ArrayList<>();
+        inserts.forEach(written::addAll);
+        assertEquals(2, written.size());
+        assertTrue(written.contains("signin1") && written.contains("signin2"));
+    }
+
+    //This test case passes when, in ASYNC mode, write returns at once and the queued rows are flushed on shutdown.
+    @Test
+    public void asyncFlushesOnShutdown() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        Mockito.doAnswer(invocation -> {
+            release.await();
+            final List<String> uuids = new ArrayList<>();
+            for (final UserAuthEntity userAuthEntity : invocation.<List<UserAuthEntity>>getArgument(0)) {
+                uuids.add(userAuthEntity.getUuid());
+            }
+            inserts.add(uuids);
+            return null;
+        }).when(userAuthDao).createUserAuths(Mockito.anyList());
+        start(SigninAuditMode.ASYNC);
+        for (int i = 0; i < 3; i++) {
+            assertTrue(userAuthWriter.write(userAuth("signin" + i)).isDone());
+        }
+        release.countDown();
+        userAuthWriter.shutdown();
+        final List<String> written = new ArrayList<>();
+        inserts.forEach(written::addAll);
+        assertEquals(3, written.size());
+    }
+
+    //This test case passes when ASYNC is refused while tokens are looked up in USER_AUTH, where a token would be rejected until its row is written.
+    @Test(expected = IllegalStateException.class)
+    public void asyncRequiresStatelessTokens() {
+        ReflectionTestUtils.setField(userAuthWriter, "verificationMode", TokenVerificationMode.DATABASE);
+        start(SigninAuditMode.ASYNC);
+    }
+}
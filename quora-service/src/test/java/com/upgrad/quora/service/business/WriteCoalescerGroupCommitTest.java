@@ -0,0 +1,158 @@
+package com.upgrad.quora.service.business;
+
+import com.upgrad.quora.db.migration.TestDatabase;
+import com.upgrad.quora.service.common.ServiceErrorCode;
+import com.upgrad.quora.service.dao.QuestionDao;
+import com.upgrad.quora.service.dao.TestPersistence;
+import com.upgrad.quora.service.entity.QuestionEntity;
+import com.upgrad.quora.service.entity.UserEntity;
+import com.upgrad.quora.service.exception.InvalidQuestionException;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.persistence.EntityManager;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Runs concurrent single question inserts through the {@link WriteCoalescer} on the migrated schema, with the JPA
+ * transaction manager of the application.
+ */
+public class WriteCoalescerGroupCommitTest {
+
+    private static final int CALLERS = 4;
+
+    private static final int FAILING_CALLER = 2;
+
+    private static TestDatabase database;
+
+    private static LocalContainerEntityManagerFactoryBean entityManagerFactoryBean;
+
+    private final WriteCoalescer writeCoalescer = new WriteCoalescer();
+
+    private final QuestionDao questionDao = new QuestionDao();
+
+    private final ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+
+    private EntityManager entityManager;
+
+    @BeforeClass
+    public static void setUpDatabase() throws SQLException {
+        database = TestDatabase.create().setUp();
+        entityManagerFactoryBean = TestPersistence.entityManagerFactory(database.getDataSource());
+    }
+
+    @AfterClass
+    public static void dropDatabase() throws SQLException {
+        if (entityManagerFactoryBean != null) {
+            entityManagerFactoryBean.destroy();
+        }
+        if (database != null) {
+            database.close();
+        }
+    }
+
+    @Before
+    public void setUp() {
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactoryBean.getObject());
+        ReflectionTestUtils.setField(questionDao, "entityManager", entityManager);
+        ReflectionTestUtils.setField(questionDao, "batchSize", 100);
+        ReflectionTestUtils.setField(writeCoalescer, "entityManager", entityManager);
+        ReflectionTestUtils.setField(writeCoalescer, "transactionManager", new JpaTransactionManager(entityManagerFactoryBean.getObject()));
+        ReflectionTestUtils.setField(writeCoalescer, "enabled", true);
+        // a window long enough for all the callers to join the first group
+        ReflectionTestUtils.setField(writeCoalescer, "windowMillis", 1000L);
+        ReflectionTestUtils.setField(writeCoalescer, "maxMutations", CALLERS);
+        ReflectionTestUtils.setField(writeCoalescer, "maxRows", 1);
+        ReflectionTestUtils.setField(writeCoalescer, "queueCapacity", 64);
+        ReflectionTestUtils.setField(writeCoalescer, "timeoutMillis", 10000L);
+        ReflectionTestUtils.setField(writeCoalescer, "shutdownTimeoutMillis", 1000L);
+        writeCoalescer.init();
+    }
+
+    @After
+    public void tearDown() throws InterruptedException {
+        callers.shutdownNow();
+        writeCoalescer.shutdown();
+    }
+
+    private static Set<String> questionUuids() throws SQLException {
+        final Set<String> uuids = new HashSet<>();
+        try (Connection connection = database.getDataSource().getConnection(); Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT UUID FROM QUESTION WHERE UUID LIKE 'coalesced%'")) {
+            while (resultSet.next()) {
+                uuids.add(resultSet.getString(1));
+            }
+        }
+        return uuids;
+    }
+
+    //This test case passes when the question inserted by a mutation which then fails is rolled back alone and the questions of the other mutations of its group are committed in one transaction.
+    @Test
+    public void failingMutationDoesNotFailItsGroup() throws Exception {
+        final UserEntity user = new UserEntity();
+        user.setId(1026);
+        final List<Future<Object>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            final QuestionEntity question = new QuestionEntity();
+            question.setUuid("coalesced" + i);
+            question.setContent("content " + i);
+            question.setDate(ZonedDateTime.now());
+            question.setUser(user);
+            final boolean failing = i == FAILING_CALLER;
+            results.add(callers.submit(() -> writeCoalescer.execute(1, () -> {
+                questionDao.createQuestions(Collections.singletonList(question));
+                if (failing) {
+                    throw new InvalidQuestionException(ServiceErrorCode.QUES_001);
+                }
+                return entityManager.createNativeQuery("SELECT txid_current()").getSingleResult();
+            })));
+        }
+
+        final Set<Object> transactions = new HashSet<>();
+        for (int i = 0; i < CALLERS; i++) {
+            if (i == FAILING_CALLER) {
+                try {
+                    results.get(i).get(10, TimeUnit.SECONDS);
+                    fail();
+                } catch (ExecutionException e) {
+                    assertTrue(e.getCause() instanceof InvalidQuestionException);
+                }
+            } else {
+                transactions.add(results.get(i).get(10, TimeUnit.SECONDS));
+            }
+        }
+        assertEquals(1, transactions.size());
+        final Set<String> expected = new HashSet<>();
+        for (int i = 0; i < CALLERS; i++) {
+            if (i != FAILING_CALLER) {
+                expected.add("coalesced" + i);
+            }
+        }
+        assertEquals(expected, questionUuids());
+    }
+}
@@ -0,0 +1,183 @@
+package com.upgrad.quora.service.business;
+
+import com.upgrad.quora.service.common.ServiceErrorCode;
+import com.upgrad.quora.service.common.UnexpectedException;
+import com.upgrad.quora.service.exception.InvalidQuestionException;
+import org.hibernate.Session;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class WriteCoalescerTest {
+
+    private static final int CALLERS = 8;
+
+    private final WriteCoalescer writeCoalescer = new WriteCoalescer();
+
+    private final PlatformTransactionManager transactionManager = Mockito.mock(PlatformTransactionManager.class);
+
+    private final EntityManager entityManager = Mockito.mock(EntityManager.class);
+
+    private final ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+
+    @Before
+    public void setUp() {
+        final Session session = Mockito.mock(Session.class);
+        Mockito.when(entityManager.unwrap(Session.class)).thenReturn(session);
+        Mockito.when(session.doReturningWork(Mockito.any())).thenReturn(Mockito.mock(Savepoint.class));
+        Mockito.when(transactionManager.getTransaction(Mockito.any(TransactionDefinition.class))).thenAnswer(invocation -> new SimpleTransactionStatus());
+        ReflectionTestUtils.setField(writeCoalescer, "entityManager", entityManager);
+        ReflectionTestUtils.setField(writeCoalescer, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(writeCoalescer, "enabled", true);
+        // a window long enough for all the callers to join the first group
+        ReflectionTestUtils.setField(writeCoalescer, "windowMillis", 500L);
+        ReflectionTestUtils.setField(writeCoalescer, "maxMutations", CALLERS);
+        ReflectionTestUtils.setField(writeCoalescer, "maxRows", 1);
+        ReflectionTestUtils.setField(writeCoalescer, "queueCapacity", 64);
+        ReflectionTestUtils.setField(writeCoalescer, "timeoutMillis", 5000L);
+        ReflectionTestUtils.setField(writeCoalescer, "shutdownTimeoutMillis", 1000L);
+        writeCoalescer.init();
+    }
+
+    @After
+    public void tearDown() throws InterruptedException {
+        callers.shutdownNow();
+        writeCoalescer.shutdown();
+    }
+
+    private List<Future<Integer>> submitAll(final List<Callable<Integer>> mutations) {
+        final List<Future<Integer>> results = new ArrayList<>();
+        for (final Callable<Integer> mutation : mutations) {
+            results.add(callers.submit(mutation));
+        }
+        return results;
+    }
+
+    private static Throwable failureOf(final Future<Integer> result) throws InterruptedException {
+        try {
+            result.get(10, TimeUnit.SECONDS);
+            fail();
+            return null;
+        } catch (ExecutionException e) {
+            return e.getCause();
+        } catch (TimeoutException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    //This test case passes when concurrent mutations share one commit and a failing mutation only fails its own caller.
+    @Test
+    public void concurrentMutationsShareOneCommit() throws Exception {
+        final List<Callable<Integer>> mutations = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            final int value = i;
+            mutations.add(() -> writeCoalescer.execute(1, () -> {
+                if (value == 3) {
+                    throw new InvalidQuestionException(ServiceErrorCode.QUES_001);
+                }
+                return value;
+            }));
+        }
+        final List<Future<Integer>> results = submitAll(mutations);
+        for (int i = 0; i < CALLERS; i++) {
+            if (i == 3) {
+                assertTrue(failureOf(results.get(i)) instanceof InvalidQuestionException);
+            } else {
+                assertEquals(Integer.valueOf(i), results.get(i).get(10, TimeUnit.SECONDS));
+            }
+        }
+        Mockito.verify(transactionManager, Mockito.times(1)).commit(Mockito.any(TransactionStatus.class));
+        Mockito.verify(transactionManager, Mockito.never()).rollback(Mockito.any(TransactionStatus.class));
+    }
+
+    //This test case passes when a persistence failure rolls the group back without running it again, the other callers getting GEN-002.
+    @Test
+    public void persistenceFailureFailsTheGroup() throws Exception {
+        final AtomicIntegerArray runs = new AtomicIntegerArray(CALLERS);
+        final List<Callable<Integer>> mutations = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            final int value = i;
+            mutations.add(() -> writeCoalescer.execute(1, () -> {
+                runs.incrementAndGet(value);
+                if (value == 0) {
+                    throw new PersistenceException("duplicate key");
+                }
+                return value;
+            }));
+        }
+        final List<Future<Integer>> results = submitAll(mutations);
+        int persistenceFailures = 0;
+        for (final Future<Integer> result : results) {
+            final Throwable failure = failureOf(result);
+            if (failure instanceof PersistenceException) {
+                persistenceFailures++;
+            } else {
+                assertEquals("GEN-002", ((UnexpectedException) failure).getErrorCode().getCode());
+            }
+        }
+        assertEquals(1, persistenceFailures);
+        for (int i = 0; i < CALLERS; i++) {
+            assertTrue(runs.get(i) <= 1);
+        }
+        Mockito.verify(transactionManager, Mockito.never()).commit(Mockito.any(TransactionStatus.class));
+        Mockito.verify(transactionManager, Mockito.times(1)).rollback(Mockito.any(TransactionStatus.class));
+    }
+
+    //This test case passes when a caller waiting longer than the timeout gets GEN-002 and its queued mutation never runs.
+    @Test
+    public void waitingCallerTimesOut() throws Exception {
+        ReflectionTestUtils.setField(writeCoalescer, "windowMillis", 1L);
+        ReflectionTestUtils.setField(writeCoalescer, "timeoutMillis", 100L);
+        final CountDownLatch release = new CountDownLatch(1);
+        final Future<Integer> blocking = callers.submit(() -> writeCoalescer.execute(1, () -> {
+            release.await();
+            return 1;
+        }));
+        assertEquals("GEN-002", ((UnexpectedException) failureOf(blocking)).getErrorCode().getCode());
+        // the committer is still blocked in the first mutation
+        final AtomicBoolean ran = new AtomicBoolean();
+        final Future<Integer> queued = callers.submit(() -> writeCoalescer.execute(1, () -> {
+            ran.set(true);
+            return 2;
+        }));
+        assertEquals("GEN-002", ((UnexpectedException) failureOf(queued)).getErrorCode().getCode());
+        release.countDown();
+        writeCoalescer.shutdown();
+        assertFalse(ran.get());
+    }
+
+    //This test case passes when a mutation of more rows than the limit runs on the calling thread in a transaction of its own.
+    @Test
+    public void largeMutationRunsOnCaller() throws Exception {
+        final Thread caller = Thread.currentThread();
+        assertEquals(caller, writeCoalescer.execute(2, Thread::currentThread));
+        Mockito.verify(transactionManager, Mockito.times(1)).commit(Mockito.any(TransactionStatus.class));
+    }
+}
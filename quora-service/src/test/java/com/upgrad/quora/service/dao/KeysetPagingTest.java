@@ -0,0 +1,145 @@
+package com.upgrad.quora.service.dao;
+
+import com.upgrad.quora.db.migration.TestDatabase;
+import com.upgrad.quora.service.business.PageCursor;
+import com.upgrad.quora.service.entity.AnswerEntity;
+import com.upgrad.quora.service.entity.QuestionEntity;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Pages through the feed of the questions and the answers to a question with the native row value queries
+ * "questionFeedAfter" and "answersByQuestionAfter", on the migrated schema with rows sharing the same date.
+ */
+public class KeysetPagingTest {
+
+    private static final String TIED_DATE = "2018-09-18 10:00:00";
+
+    private static TestDatabase database;
+
+    private static LocalContainerEntityManagerFactoryBean entityManagerFactoryBean;
+
+    private final QuestionDao questionDao = new QuestionDao();
+
+    private final AnswerDao answerDao = new AnswerDao();
+
+    private EntityManager entityManager;
+
+    @BeforeClass
+    public static void setUpDatabase() throws SQLException {
+        database = TestDatabase.create().setUp();
+        try (Connection connection = database.getDataSource().getConnection(); Statement statement = connection.createStatement()) {
+            // ids 2001 to 2005 share one date, 2006 is newer and 2007 older
+            for (int id = 2001; id <= 2007; id++) {
+                final String date = id == 2006 ? "2018-09-18 11:00:00" : id == 2007 ? "2018-09-18 09:00:00" : TIED_DATE;
+                statement.execute("INSERT INTO QUESTION(ID, UUID, CONTENT, DATE, USER_ID) VALUES (" + id + ", 'question" + id
+                        + "', 'content', '" + date + "', 1026)");
+                statement.execute("INSERT INTO ANSWER(ID, UUID, ANS, DATE, USER_ID, QUESTION_ID, QUESTION_DATE) VALUES (" + id
+                        + ", 'answer" + id + "', 'answer', '" + date + "', 1026, 1024, '2018-09-17 19:41:19.593')");
+            }
+        }
+        entityManagerFactoryBean = TestPersistence.entityManagerFactory(database.getDataSource());
+    }
+
+    @AfterClass
+    public static void dropDatabase() throws SQLException {
+        if (entityManagerFactoryBean != null) {
+            entityManagerFactoryBean.destroy();
+        }
+        if (database != null) {
+            database.close();
+        }
+    }
+
+    @Before
+    public void setUp() {
+        final EntityManagerFactory entityManagerFactory = entityManagerFactoryBean.getObject();
+        entityManager = entityManagerFactory.createEntityManager();
+        ReflectionTestUtils.setField(questionDao, "entityManager", entityManager);
+        ReflectionTestUtils.setField(answerDao, "entityManager", entityManager);
+    }
+
+    @After
+    public void closeEntityManager() {
+        entityManager.close();
+    }
+
+    private static List<Integer> ids(final String query) throws SQLException {
+        final List<Integer> ids = new ArrayList<>();
+        try (Connection connection = database.getDataSource().getConnection(); Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(query)) {
+            while (resultSet.next()) {
+                ids.add(resultSet.getInt(1));
+            }
+        }
+        return ids;
+    }
+
+    private static <T> List<Integer> pageThrough(final BiFunction<PageCursor, Integer, List<T>> pages, final Function<T, PageCursor> cursorOf,
+                                                 final Function<T, Integer> idOf, final int pageSize) {
+        final List<Integer> ids = new ArrayList<>();
+        PageCursor cursor = null;
+        while (true) {
+            final List<T> page = pages.apply(cursor, pageSize);
+            for (final T item : page) {
+                ids.add(idOf.apply(item));
+            }
+            if (page.size() < pageSize) {
+                return ids;
+            }
+            cursor = cursorOf.apply(page.get(page.size() - 1));
+        }
+    }
+
+    //This test case passes when paging through the questions returns each of them once, newest first and by descending id on the same date, whatever the page size.
+    @Test
+    public void questionFeedAfterBreaksTiesOnId() throws SQLException {
+        final List<Integer> expected = ids("SELECT ID FROM QUESTION ORDER BY DATE DESC, ID DESC");
+        assertEquals(8, expected.size());
+        assertTrue(expected.indexOf(2005) < expected.indexOf(2001));
+        for (int pageSize = 1; pageSize <= 4; pageSize++) {
+            assertEquals("page size " + pageSize, expected, pageThrough(questionDao::getQuestionFeed,
+                    question -> new PageCursor(question.getDate(), question.getId()), QuestionEntity::getId, pageSize));
+        }
+    }
+
+    //This test case passes when paging through the answers to a question returns each of them once, newest first and by descending id on the same date, whatever the page size.
+    @Test
+    public void answersByQuestionAfterBreaksTiesOnId() throws SQLException {
+        final List<Integer> expected = ids("SELECT ID FROM ANSWER WHERE QUESTION_ID = 1024 ORDER BY DATE DESC, ID DESC");
+        assertEquals(8, expected.size());
+        for (int pageSize = 1; pageSize <= 4; pageSize++) {
+            assertEquals("page size " + pageSize, expected, pageThrough((cursor, limit) -> answerDao.getAnswersByQuestion(1024, cursor, limit),
+                    answer -> new PageCursor(answer.getDate(), answer.getId()), AnswerEntity::getId, pageSize));
+        }
+    }
+
+    //This test case passes when the page after a row of the tied date starts with the next lower id on that date.
+    @Test
+    public void pageAfterTiedRowContinuesOnSameDate() {
+        final QuestionEntity tied = entityManager.find(QuestionEntity.class, 2003);
+        final List<QuestionEntity> page = questionDao.getQuestionFeed(new PageCursor(tied.getDate(), tied.getId()), 3);
+        assertEquals(Integer.valueOf(2002), page.get(0).getId());
+        assertEquals(Integer.valueOf(2001), page.get(1).getId());
+        assertEquals(Integer.valueOf(2007), page.get(2).getId());
+    }
+}
@@ -0,0 +1,33 @@
+package com.upgrad.quora.service.dao;
+
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+
+import javax.sql.DataSource;
+import java.util.Properties;
+
+/**
+ * Persistence unit of the entities of quora-service on a test database, configured as in application.yaml.
+ */
+public final class TestPersistence {
+
+    private TestPersistence() {
+    }
+
+    /**
+     * @param dataSource - database of a TestDatabase
+     * @return - the initialized factory bean, to be destroyed by the test
+     */
+    public static LocalContainerEntityManagerFactoryBean entityManagerFactory(final DataSource dataSource) {
+        final Properties properties = new Properties();
+        properties.setProperty("hibernate.dialect", "org.hibernate.dialect.PostgreSQL9Dialect");
+        properties.setProperty("hibernate.temp.use_jdbc_metadata_defaults", "false");
+        final LocalContainerEntityManagerFactoryBean entityManagerFactoryBean = new LocalContainerEntityManagerFactoryBean();
+        entityManagerFactoryBean.setDataSource(dataSource);
+        entityManagerFactoryBean.setPackagesToScan("com.upgrad.quora.service.entity");
+        entityManagerFactoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        entityManagerFactoryBean.setJpaProperties(properties);
+        entityManagerFactoryBean.afterPropertiesSet();
+        return entityManagerFactoryBean;
+    }
+}
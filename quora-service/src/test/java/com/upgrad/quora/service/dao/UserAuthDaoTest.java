@@ -0,0 +1,94 @@
+package com.upgrad.quora.service.dao;
+
+import com.upgrad.quora.db.migration.TestDatabase;
+import com.upgrad.quora.service.entity.UserAuthEntity;
+import com.upgrad.quora.service.entity.UserEntity;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.persistence.EntityManager;
+import java.sql.SQLException;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Writes USER_AUTH rows with the JDBC batch insert of the signin writer and reads them back.
+ */
+public class UserAuthDaoTest {
+
+    private static TestDatabase database;
+
+    private static LocalContainerEntityManagerFactoryBean entityManagerFactoryBean;
+
+    private final UserAuthDao userAuthDao = new UserAuthDao();
+
+    private EntityManager entityManager;
+
+    @BeforeClass
+    public static void setUpDatabase() throws SQLException {
+        database = TestDatabase.create().setUp();
+        entityManagerFactoryBean = TestPersistence.entityManagerFactory(database.getDataSource());
+    }
+
+    @AfterClass
+    public static void dropDatabase() throws SQLException {
+        if (entityManagerFactoryBean != null) {
+            entityManagerFactoryBean.destroy();
+        }
+        if (database != null) {
+            database.close();
+        }
+    }
+
+    @Before
+    public void setUp() {
+        entityManager = entityManagerFactoryBean.getObject().createEntityManager();
+        ReflectionTestUtils.setField(userAuthDao, "entityManager", entityManager);
+        ReflectionTestUtils.setField(userAuthDao, "batchSize", 2);
+    }
+
+    @After
+    public void closeEntityManager() {
+        entityManager.close();
+    }
+
+    //This test case passes when the rows inserted in JDBC batches, over several batches, are read back with their timestamps.
+    @Test
+    public void createUserAuthsInBatches() {
+        final UserEntity user = entityManager.find(UserEntity.class, 1026);
+        final ZonedDateTime loginAt = ZonedDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        final List<UserAuthEntity> userAuths = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            final UserAuthEntity userAuthEntity = new UserAuthEntity();
+            userAuthEntity.setUuid("signin_uuid" + i);
+            userAuthEntity.setUser(user);
+            userAuthEntity.setAccessToken("signin_accesstoken" + i);
+            userAuthEntity.setLoginAt(loginAt);
+            userAuthEntity.setExpiresAt(loginAt.plusHours(8));
+            userAuths.add(userAuthEntity);
+        }
+        entityManager.getTransaction().begin();
+        userAuthDao.createUserAuths(userAuths);
+        entityManager.getTransaction().commit();
+        entityManager.clear();
+
+        for (int i = 0; i < 5; i++) {
+            final UserAuthEntity written = userAuthDao.getUserAuthByAccessToken("signin_accesstoken" + i);
+            assertEquals("signin_uuid" + i, written.getUuid());
+            assertEquals(Integer.valueOf(1026), written.getUser().getId());
+            assertEquals(loginAt.toInstant(), written.getLoginAt().toInstant());
+            assertEquals(loginAt.plusHours(8).toInstant(), written.getExpiresAt().toInstant());
+            assertNull(written.getLogoutAt());
+        }
+    }
+}
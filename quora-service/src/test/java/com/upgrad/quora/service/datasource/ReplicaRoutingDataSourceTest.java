@@ -0,0 +1,97 @@
+package com.upgrad.quora.service.datasource;
+
+import org.junit.After;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+public class ReplicaRoutingDataSourceTest {
+
+    private final DataSource primary = Mockito.mock(DataSource.class);
+
+    @After
+    public void clearTransaction() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    /**
+     * @return - a replica whose lag query answers lagSeconds, or which cannot be reached when lagSeconds is null
+     */
+    private static DataSource replica(final Double lagSeconds) throws SQLException {
+        final DataSource dataSource = Mockito.mock(DataSource.class);
+        if (lagSeconds == null) {
+            Mockito.when(dataSource.getConnection()).thenThrow(new SQLException("Connection refused"));
+            return dataSource;
+        }
+        final Connection connection = Mockito.mock(Connection.class);
+        final Statement statement = Mockito.mock(Statement.class);
+        final ResultSet resultSet = Mockito.mock(ResultSet.class);
+        Mockito.when(dataSource.getConnection()).thenReturn(connection);
+        Mockito.when(connection.createStatement()).thenReturn(statement);
+        Mockito.when(statement.executeQuery(Mockito.anyString())).thenReturn(resultSet);
+        Mockito.when(resultSet.next()).thenReturn(true);
+        Mockito.when(resultSet.getDouble(1)).thenReturn(lagSeconds);
+        return dataSource;
+    }
+
+    private ReplicaRoutingDataSource routingDataSource(final ReplicaRoutingDataSource.Replica... replicas) {
+        final ReplicaRoutingDataSource routingDataSource = new ReplicaRoutingDataSource(primary, Arrays.asList(replicas), 5);
+        routingDataSource.afterPropertiesSet();
+        return routingDataSource;
+    }
+
+    private static Map<Object, Integer> route(final ReplicaRoutingDataSource routingDataSource, final int connections) {
+        final Map<Object, Integer> routed = new HashMap<>();
+        for (int i = 0; i < connections; i++) {
+            routed.merge(routingDataSource.determineCurrentLookupKey(), 1, Integer::sum);
+        }
+        return routed;
+    }
+
+    //This test case passes when the connections of read-write transactions go to the primary.
+    @Test
+    public void readWriteGoesToPrimary() throws SQLException {
+        final ReplicaRoutingDataSource routingDataSource = routingDataSource(new ReplicaRoutingDataSource.Replica("replica-1", replica(0.0), 1));
+        assertEquals(Integer.valueOf(10), route(routingDataSource, 10).get(ReplicaRoutingDataSource.PRIMARY));
+    }
+
+    //This test case passes when read-only transactions are spread over the replicas by their weights.
+    @Test
+    public void readOnlyIsSpreadByWeight() throws SQLException {
+        final ReplicaRoutingDataSource routingDataSource = routingDataSource(
+                new ReplicaRoutingDataSource.Replica("replica-1", replica(0.0), 3),
+                new ReplicaRoutingDataSource.Replica("replica-2", replica(0.0), 1));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        final Map<Object, Integer> routed = route(routingDataSource, 40);
+        assertEquals(Integer.valueOf(30), routed.get("replica-1"));
+        assertEquals(Integer.valueOf(10), routed.get("replica-2"));
+        assertEquals(null, routed.get(ReplicaRoutingDataSource.PRIMARY));
+    }
+
+    //This test case passes when replicas lagging beyond the limit or unreachable are skipped, and the primary serves reads without any replica left.
+    @Test
+    public void laggingReplicasAreSkipped() throws SQLException {
+        final ReplicaRoutingDataSource routingDataSource = routingDataSource(
+                new ReplicaRoutingDataSource.Replica("replica-1", replica(60.0), 1),
+                new ReplicaRoutingDataSource.Replica("replica-2", replica(1.0), 1),
+                new ReplicaRoutingDataSource.Replica("replica-3", replica(null), 1));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertEquals(Integer.valueOf(10), route(routingDataSource, 10).get("replica-2"));
+
+        final ReplicaRoutingDataSource withoutReplica = routingDataSource(
+                new ReplicaRoutingDataSource.Replica("replica-1", replica(60.0), 1),
+                new ReplicaRoutingDataSource.Replica("replica-3", replica(null), 1));
+        assertEquals(Integer.valueOf(10), route(withoutReplica, 10).get(ReplicaRoutingDataSource.PRIMARY));
+    }
+}